@@ -0,0 +1,51 @@
+package cn.zm1001.util.benchmark;
+
+import org.openjdk.jmh.profile.GCProfiler;
+import org.openjdk.jmh.results.RunResult;
+import org.openjdk.jmh.results.format.ResultFormatFactory;
+import org.openjdk.jmh.results.format.ResultFormatType;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.io.FileNotFoundException;
+import java.io.PrintStream;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+
+/**
+ * @Desc 基准测试入口：按1、4、N（CPU核数）个线程分别运行，附带GC分析（分配速率），结果合并输出为JSON
+ * 用法：{@code java -jar benchmark/target/benchmarks.jar [基准测试名正则] [线程数，逗号分隔，max为CPU核数] [结果文件]}
+ * 如：{@code java -jar benchmarks.jar IdBenchmark 1,4,max id-1.0.0.json}
+ * 也可直接使用JMH命令行：{@code java -cp benchmarks.jar org.openjdk.jmh.Main IdBenchmark -t 4 -prof gc -rf json}
+ * @Author Dongd_Zhou
+ */
+public class BenchmarkRunner {
+    private static final String DEFAULT_INCLUDE = "cn\\.zm1001\\.util\\.benchmark\\..*";
+    private static final String DEFAULT_THREADS = "1,4,max";
+    private static final String DEFAULT_RESULT = "jmh-result.json";
+
+    public static void main(String[] args) throws RunnerException, FileNotFoundException {
+        final String include = args.length > 0 ? args[0] : DEFAULT_INCLUDE;
+        final String threads = args.length > 1 ? args[1] : DEFAULT_THREADS;
+        final String result = args.length > 2 ? args[2] : DEFAULT_RESULT;
+
+        List<RunResult> results = new ArrayList<>();
+        for (String thread : threads.split(",")) {
+            final int count = "max".equalsIgnoreCase(thread.trim()) ? Runtime.getRuntime().availableProcessors() : Integer.parseInt(thread.trim());
+            Options options = new OptionsBuilder()
+                    .include(include)
+                    .threads(count)
+                    .addProfiler(GCProfiler.class)
+                    .build();
+            Collection<RunResult> run = new Runner(options).run();
+            results.addAll(run);
+        }
+        try (PrintStream out = new PrintStream(result)) {
+            ResultFormatFactory.getInstance(ResultFormatType.JSON, out).writeOut(results);
+        }
+        System.out.println("Benchmark results written to " + result);
+    }
+}
@@ -0,0 +1,112 @@
+package cn.zm1001.util.benchmark.id;
+
+import cn.zm1001.util.common.id.IdUtils;
+import cn.zm1001.util.common.id.IdWorker;
+import cn.zm1001.util.common.id.NanoIdUtils;
+import cn.zm1001.util.common.id.UUID;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * @Desc ID生成基准测试，线程数及GC分析由{@link cn.zm1001.util.benchmark.BenchmarkRunner}指定
+ * IdWorker为所有线程共享的一个实例，与业务中的用法一致
+ * @Author Dongd_Zhou
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class IdBenchmark {
+    private final IdWorker idWorker = new IdWorker(1, 1, 0);
+
+    @Benchmark
+    public long idWorkerNextId() {
+        return idWorker.nextId();
+    }
+
+    @Benchmark
+    public String idWorkerGetId() {
+        return IdWorker.getId();
+    }
+
+    @Benchmark
+    public UUID fastUUID() {
+        return UUID.fastUUID();
+    }
+
+    @Benchmark
+    public UUID randomUUID() {
+        return UUID.randomUUID();
+    }
+
+    @Benchmark
+    public String fastNanoId() {
+        return NanoIdUtils.fastNanoId();
+    }
+
+    @Benchmark
+    public String randomNanoId() {
+        return NanoIdUtils.randomNanoId();
+    }
+
+    @Benchmark
+    public String idUtilsRandomUUID() {
+        return IdUtils.randomUUID();
+    }
+
+    @Benchmark
+    public String idUtilsSimpleUUID() {
+        return IdUtils.simpleUUID();
+    }
+
+    @Benchmark
+    public String idUtilsFastUUID() {
+        return IdUtils.fastUUID();
+    }
+
+    @Benchmark
+    public String idUtilsFastSimpleUUID() {
+        return IdUtils.fastSimpleUUID();
+    }
+
+    @Benchmark
+    public String idUtilsRandomNanoId() {
+        return IdUtils.randomNanoId();
+    }
+
+    @Benchmark
+    public String idUtilsFastNanoId() {
+        return IdUtils.fastNanoId();
+    }
+
+    @Benchmark
+    public long idUtilsSnowflakeId() {
+        return IdUtils.snowflakeId();
+    }
+
+    @Benchmark
+    public long[] idUtilsSnowflakeIds() {
+        return IdUtils.snowflakeIds(100);
+    }
+
+    @Benchmark
+    public String idUtilsTimeOrderedUUID() {
+        return IdUtils.timeOrderedUUID();
+    }
+
+    @Benchmark
+    public String idUtilsUlid() {
+        return IdUtils.ulid();
+    }
+}
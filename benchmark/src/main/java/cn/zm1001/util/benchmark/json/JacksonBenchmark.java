@@ -0,0 +1,101 @@
+package cn.zm1001.util.benchmark.json;
+
+import cn.zm1001.util.common.JacksonUtils;
+import cn.zm1001.util.common.json.JacksonConfig;
+import lombok.Data;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.Collections;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * @Desc JacksonUtils反射与字节码生成属性访问（Afterburner/Blackbird）对比，载荷为20个属性的宽对象
+ * 每个参数组合单独fork，JacksonUtils的全局配置互不影响
+ * @Author Dongd_Zhou
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class JacksonBenchmark {
+    @Param({"false", "true"})
+    private boolean accelerate;
+
+    private WideBean bean;
+    private String json;
+
+    @Setup(Level.Trial)
+    public void setup() {
+        JacksonUtils.init(JacksonConfig.defaultConfig().setAccelerate(accelerate)
+                .setWarmUpClasses(Collections.singletonList(WideBean.class)));
+        bean = new WideBean();
+        bean.setF1(1L);
+        bean.setF2(2);
+        bean.setF3("three");
+        bean.setF4(4.0D);
+        bean.setF5(true);
+        bean.setF6(6L);
+        bean.setF7(7);
+        bean.setF8("eight");
+        bean.setF9(9.0D);
+        bean.setF10(false);
+        bean.setF11(11L);
+        bean.setF12(12);
+        bean.setF13("thirteen");
+        bean.setF14(14.0D);
+        bean.setF15(true);
+        bean.setF16(16L);
+        bean.setF17(17);
+        bean.setF18("eighteen");
+        bean.setF19(19.0D);
+        bean.setF20(false);
+        json = JacksonUtils.toJson(bean);
+    }
+
+    @Benchmark
+    public String toJson() {
+        return JacksonUtils.toJson(bean);
+    }
+
+    @Benchmark
+    public WideBean parse() {
+        return JacksonUtils.parse(json, WideBean.class);
+    }
+
+    @Data
+    public static class WideBean {
+        private long f1;
+        private int f2;
+        private String f3;
+        private double f4;
+        private boolean f5;
+        private long f6;
+        private int f7;
+        private String f8;
+        private double f9;
+        private boolean f10;
+        private long f11;
+        private int f12;
+        private String f13;
+        private double f14;
+        private boolean f15;
+        private long f16;
+        private int f17;
+        private String f18;
+        private double f19;
+        private boolean f20;
+    }
+}
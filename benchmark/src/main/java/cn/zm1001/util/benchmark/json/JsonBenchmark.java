@@ -0,0 +1,103 @@
+package cn.zm1001.util.benchmark.json;
+
+import cn.zm1001.util.common.json.JsonFormat;
+import com.fasterxml.jackson.core.type.TypeReference;
+import org.openjdk.jmh.annotations.AuxCounters;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.ThreadParams;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Date;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * @Desc Json与二进制Json（Smile、CBOR）编解码基准测试，载荷为50个订单的列表
+ * 各格式的编码大小（字节）作为encode的辅助计数器encodedBytes写入结果，便于跨版本对比
+ * @Author Dongd_Zhou
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class JsonBenchmark {
+    private static final TypeReference<List<Order>> ORDERS = new TypeReference<List<Order>>() {
+    };
+
+    @Param({"JSON", "SMILE", "CBOR"})
+    private JsonFormat format;
+
+    private List<Order> orders;
+    private byte[] encoded;
+
+    @Setup(Level.Trial)
+    public void setup() {
+        orders = new ArrayList<>();
+        for (int i = 0; i < 50; i++) {
+            Order order = new Order();
+            order.id = 1660000000000L + i;
+            order.orderNo = "NO20220809" + String.format("%06d", i);
+            order.userName = "user-" + i;
+            order.status = i % 4;
+            order.amount = new BigDecimal("128.50").add(BigDecimal.valueOf(i));
+            order.createTime = new Date(1660000000000L + i * 1000L);
+            order.tags = Arrays.asList("vip", "express");
+            orders.add(order);
+        }
+        encoded = format.encode(orders);
+    }
+
+    @Benchmark
+    public byte[] encode(EncodedSize size) {
+        final byte[] bytes = format.encode(orders);
+        if (size.first) {
+            size.encodedBytes = bytes.length;
+        }
+        return bytes;
+    }
+
+    @Benchmark
+    public List<Order> decode() {
+        return format.decode(encoded, ORDERS);
+    }
+
+    /**
+     * 编码大小，JMH按迭代汇总各线程的值，仅第一个线程记录，结果与线程数无关
+     */
+    @State(Scope.Thread)
+    @AuxCounters(AuxCounters.Type.EVENTS)
+    public static class EncodedSize {
+        public long encodedBytes;
+        private boolean first;
+
+        @Setup(Level.Trial)
+        public void setup(ThreadParams thread) {
+            first = thread.getThreadIndex() == 0;
+        }
+    }
+
+    public static class Order {
+        public long id;
+        public String orderNo;
+        public String userName;
+        public int status;
+        public BigDecimal amount;
+        public Date createTime;
+        public List<String> tags;
+    }
+}
@@ -1,13 +1,26 @@
 package cn.zm1001.util.common;
 
+import cn.zm1001.util.common.date.CachedClock;
+import cn.zm1001.util.common.date.DateFormatDetector;
+import cn.zm1001.util.common.date.DateFormatters;
+import cn.zm1001.util.common.date.FixedDateFormat;
 import cn.zm1001.util.common.exception.DateException;
 
 import java.text.ParseException;
-import java.text.SimpleDateFormat;
+import java.time.DateTimeException;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.time.ZonedDateTime;
+import java.time.format.DateTimeFormatter;
+import java.time.temporal.TemporalAccessor;
 import java.util.Date;
 
 /**
  * @Desc 时间工具类
+ * 格式化及按格式解析（{@link Date}）：与SimpleDateFormat含义一致的格式使用缓存的{@link DateTimeFormatter}，
+ * 其他格式（如hh、u、S）使用线程缓存的SimpleDateFormat，结果均与SimpleDateFormat一致（见{@link DateFormatters}）
  * @Author Dongd_Zhou
  */
 public class DateUtils extends org.apache.commons.lang3.time.DateUtils {
@@ -45,12 +58,12 @@ public class DateUtils extends org.apache.commons.lang3.time.DateUtils {
     }
 
     /**
-     * 获取当前日期, 默认格式为yyyy-MM-dd
+     * 获取当前日期, 默认格式为yyyy-MM-dd，取自秒级缓存时钟{@link CachedClock}
      *
      * @return 当前日期
      */
     public static String nowDate() {
-        return nowFormat(YYYY_MM_DD);
+        return CachedClock.date();
     }
 
     /**
@@ -59,7 +72,7 @@ public class DateUtils extends org.apache.commons.lang3.time.DateUtils {
      * @return 当前日期
      */
     public static String nowDateCompact() {
-        return nowFormat(YYYY_MM_DD_COMPACT);
+        return CachedClock.dateCompact();
     }
 
     /**
@@ -68,7 +81,7 @@ public class DateUtils extends org.apache.commons.lang3.time.DateUtils {
      * @return 当前日期
      */
     public static String nowDateTime() {
-        return nowFormat(YYYY_MM_DD_HH_MM_SS);
+        return CachedClock.dateTime();
     }
 
     /**
@@ -77,7 +90,7 @@ public class DateUtils extends org.apache.commons.lang3.time.DateUtils {
      * @return 当前日期
      */
     public static String nowDateTimeCompact() {
-        return nowFormat(YYYY_MM_DD_HH_MM_SS_COMPACT);
+        return CachedClock.dateTimeCompact();
     }
 
     /**
@@ -86,7 +99,7 @@ public class DateUtils extends org.apache.commons.lang3.time.DateUtils {
      * @return 当前日期
      */
     public static String datePath() {
-        return nowFormat(YYYY_MM_DD_PATH);
+        return CachedClock.datePath();
     }
 
     /**
@@ -96,7 +109,12 @@ public class DateUtils extends org.apache.commons.lang3.time.DateUtils {
      * @return 当前日期
      */
     public static String nowFormat(final String format) {
-        return format(new Date(), format);
+        final FixedDateFormat fixed = FixedDateFormat.of(format);
+        if (null != fixed) {
+            return fixed.format(System.currentTimeMillis(), ZoneId.systemDefault());
+        }
+        final DateTimeFormatter formatter = DateFormatters.compatible(format);
+        return null == formatter ? format(new Date(), format) : formatter.format(ZonedDateTime.now());
     }
 
     /**
@@ -107,7 +125,49 @@ public class DateUtils extends org.apache.commons.lang3.time.DateUtils {
      * @return 当前日期
      */
     public static String format(final Date date, final String format) {
-        return new SimpleDateFormat(format).format(date);
+        final FixedDateFormat fixed = FixedDateFormat.of(format);
+        // 年份超过4位时按通用格式输出，与SimpleDateFormat一致
+        if (null != fixed && FixedDateFormat.supports(date.getTime())) {
+            return fixed.format(date.getTime(), ZoneId.systemDefault());
+        }
+        final DateTimeFormatter formatter = DateFormatters.compatible(format);
+        if (null == formatter) {
+            return DateFormatters.simple(format).format(date);
+        }
+        return formatter.format(date.toInstant().atZone(ZoneId.systemDefault()));
+    }
+
+    /**
+     * 格式化显示日期
+     *
+     * @param dateTime 待转化日期
+     * @param format   指定日期格式，不能包含时区
+     * @return 日期字符串
+     */
+    public static String format(final LocalDateTime dateTime, final String format) {
+        return DateFormatters.get(format).format(dateTime);
+    }
+
+    /**
+     * 格式化显示日期
+     *
+     * @param date   待转化日期
+     * @param format 指定日期格式，不能包含时间及时区
+     * @return 日期字符串
+     */
+    public static String format(final LocalDate date, final String format) {
+        return DateFormatters.get(format).format(date);
+    }
+
+    /**
+     * 格式化显示日期，按系统默认时区
+     *
+     * @param instant 待转化时间
+     * @param format  指定日期格式
+     * @return 日期字符串
+     */
+    public static String format(final Instant instant, final String format) {
+        return DateFormatters.get(format).format(instant.atZone(ZoneId.systemDefault()));
     }
 
     /**
@@ -118,8 +178,23 @@ public class DateUtils extends org.apache.commons.lang3.time.DateUtils {
      * @return 日期时间 {@link Date}
      */
     public static Date parse(final String dateStr, final String format) {
+        final FixedDateFormat fixed = FixedDateFormat.of(format);
+        if (null != fixed && dateStr.length() == fixed.getLength()) {
+            final long millis = fixed.tryParse(dateStr, 0, ZoneId.systemDefault());
+            if (millis != FixedDateFormat.INVALID) {
+                return new Date(millis);
+            }
+        }
+        final DateTimeFormatter formatter = DateFormatters.compatible(format);
+        if (null != formatter) {
+            try {
+                return toDate(formatter.parse(dateStr));
+            } catch (DateTimeException e) {
+                // 按SimpleDateFormat宽松解析，如月、日只有一位、2月30日
+            }
+        }
         try {
-            return new SimpleDateFormat(format).parse(dateStr);
+            return DateFormatters.simple(format).parse(dateStr);
         } catch (ParseException e) {
             throw new DateException(e);
         }
@@ -128,24 +203,136 @@ public class DateUtils extends org.apache.commons.lang3.time.DateUtils {
     /**
      * 日期型字符串转化为日期 格式
      *
-     * @param obj 待转化日期对象，支持类型：
-     *            "yyyyMMddHHmmss", "yyyyMMHHmm", "yyyyMMdd", "yyyyMM",
+     * @param obj 待转化日期对象，支持{@link Date}、{@link LocalDateTime}、{@link LocalDate}、{@link Instant}及以下格式的字符串：
+     *            "yyyyMMddHHmmss", "yyyyMMddHHmm", "yyyyMMdd", "yyyyMM",
      *            "yyyy-MM-dd HH:mm:ss", "yyyy-MM-dd HH:mm", "yyyy-MM-dd", "yyyy-MM",
      *            "yyyy/MM/dd HH:mm:ss", "yyyy/MM/dd HH:mm", "yyyy/MM/dd", "yyyy/MM",
      *            "yyyy.MM.dd HH:mm:ss", "yyyy.MM.dd HH:mm", "yyyy.MM.dd", "yyyy.MM"
+     *            常用固定格式直接按位解析（见{@link FixedDateFormat}），其他按长度及分隔符确定格式（见{@link DateFormatDetector}），
+     *            无法确定时逐个格式尝试
      * @return 日期时间 {@link Date}
      */
     public static Date parse(final Object obj) {
         if (null == obj) {
             return null;
         }
+        if (obj instanceof Date) {
+            return (Date) obj;
+        }
+        if (obj instanceof LocalDateTime) {
+            return toDate((LocalDateTime) obj);
+        }
+        if (obj instanceof LocalDate) {
+            return toDate(((LocalDate) obj).atStartOfDay());
+        }
+        if (obj instanceof Instant) {
+            return Date.from((Instant) obj);
+        }
+        final String str = obj.toString();
+        final FixedDateFormat fixed = FixedDateFormat.detect(str);
+        if (null != fixed) {
+            final long millis = fixed.tryParse(str, 0, ZoneId.systemDefault());
+            if (millis != FixedDateFormat.INVALID) {
+                return new Date(millis);
+            }
+        }
+        final DateTimeFormatter formatter = DateFormatDetector.detect(str);
+        if (null != formatter) {
+            try {
+                return toDate(formatter.parse(str));
+            } catch (DateTimeException e) {
+                // 逐个格式宽松解析
+            }
+        }
         try {
-            return parseDate(obj.toString(), parsePatterns);
+            return parseDate(str, parsePatterns);
         } catch (ParseException e) {
             throw new DateException(e);
         }
     }
 
+    /**
+     * 日期型字符串转化为日期，支持的格式同{@link #parse(Object)}
+     *
+     * @param str 日期字符串
+     * @return 日期时间，为null时返回null
+     */
+    public static LocalDateTime parseLocalDateTime(final String str) {
+        if (null == str) {
+            return null;
+        }
+        final DateTimeFormatter formatter = DateFormatDetector.detect(str);
+        if (null != formatter) {
+            try {
+                return DateFormatters.toLocalDateTime(formatter.parse(str));
+            } catch (DateTimeException e) {
+                // 逐个格式宽松解析
+            }
+        }
+        return toLocalDateTime(parse(str));
+    }
+
+    /**
+     * 日期字符串转为日期
+     *
+     * @param str    日期字符串
+     * @param format 日期格式
+     * @return 日期时间，缺少的字段取最小值
+     */
+    public static LocalDateTime parseLocalDateTime(final String str, final String format) {
+        try {
+            return DateFormatters.toLocalDateTime(DateFormatters.get(format).parse(str));
+        } catch (DateTimeException e) {
+            throw new DateException(e);
+        }
+    }
+
+    /**
+     * 日期型字符串转化为时间，未包含时区时按系统默认时区，支持的格式同{@link #parse(Object)}
+     *
+     * @param str 日期字符串
+     * @return 时间，为null时返回null
+     */
+    public static Instant parseInstant(final String str) {
+        final Date date = parse(str);
+        return null == date ? null : date.toInstant();
+    }
+
+    /**
+     * 日期字符串转为时间，未包含时区时按系统默认时区
+     *
+     * @param str    日期字符串
+     * @param format 日期格式
+     * @return 时间
+     */
+    public static Instant parseInstant(final String str, final String format) {
+        return parse(str, format).toInstant();
+    }
+
+    /**
+     * {@link Date}转为系统默认时区的{@link LocalDateTime}
+     *
+     * @param date 日期
+     * @return 日期时间
+     */
+    public static LocalDateTime toLocalDateTime(final Date date) {
+        return LocalDateTime.ofInstant(date.toInstant(), ZoneId.systemDefault());
+    }
+
+    /**
+     * 系统默认时区的{@link LocalDateTime}转为{@link Date}
+     *
+     * @param dateTime 日期时间
+     * @return 日期
+     */
+    public static Date toDate(final LocalDateTime dateTime) {
+        return Date.from(dateTime.atZone(ZoneId.systemDefault()).toInstant());
+    }
+
+    private static Date toDate(final TemporalAccessor temporal) {
+        return Date.from(DateFormatters.toLocalDateTime(temporal).atZone(DateFormatters.zone(temporal)).toInstant());
+    }
+
     /**
      * 计算两个时间差
      *
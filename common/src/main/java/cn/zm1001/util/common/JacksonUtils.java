@@ -1,45 +1,151 @@
 package cn.zm1001.util.common;
 
+import cn.zm1001.util.common.json.JacksonConfig;
+import cn.zm1001.util.common.json.JsonFormat;
 import com.fasterxml.jackson.annotation.JsonInclude;
+import com.fasterxml.jackson.core.JsonFactory;
 import com.fasterxml.jackson.core.JsonGenerator;
 import com.fasterxml.jackson.core.type.TypeReference;
 import com.fasterxml.jackson.databind.*;
+import com.fasterxml.jackson.databind.Module;
 import lombok.extern.slf4j.Slf4j;
 
 import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.io.Writer;
+import java.lang.reflect.Type;
 import java.text.SimpleDateFormat;
 import java.util.List;
 import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
 
 /**
  * @Desc Jackson工具类
+ * 按类型缓存{@link ObjectReader}、{@link ObjectWriter}，类型解析及序列化器查找只做一次
+ * 支持byte[]、InputStream、OutputStream、Writer，不生成中间字符串
+ * 可通过{@link #init(JacksonConfig)}启用字节码生成的属性访问，并在启动时预先创建常用类型的序列化器
  * @Author Dongd_Zhou
  */
 @Slf4j
 public class JacksonUtils {
-    private final static ObjectMapper objectMapper = new ObjectMapper();
+    /** Json响应类型 */
+    public static final String CONTENT_TYPE_JSON = "application/json;charset=UTF-8";
+    private final static ObjectMapper objectMapper = newMapper(null);
+    /** 缓存的类型数量上限，超过后不再缓存新类型 */
+    private static final int MAX_CACHED = 1024;
+    private static final ConcurrentMap<Type, ObjectReader> READERS = new ConcurrentHashMap<>();
+    private static final ConcurrentMap<Class<?>, ObjectWriter> WRITERS = new ConcurrentHashMap<>();
+    private static final String BLACKBIRD = "com.fasterxml.jackson.module.blackbird.BlackbirdModule";
+    private static final String AFTERBURNER = "com.fasterxml.jackson.module.afterburner.AfterburnerModule";
+    /** 已启用的字节码生成属性访问模块，为null时未启用 */
+    private static volatile Module accelerator;
 
-    static {
+    private JacksonUtils() {
+        throw new UnsupportedOperationException();
+    }
+
+    /**
+     * 按配置启用字节码生成的属性访问，并预先创建序列化器及反序列化器
+     * 建议在应用启动时、首次序列化前调用，启用前已创建的序列化器仍使用反射
+     *
+     * @param config 配置
+     */
+    public static synchronized void init(JacksonConfig config) {
+        if (config.isAccelerate() && null == accelerator) {
+            final Module module = loadAccelerator();
+            if (null != module) {
+                accelerator = module;
+                objectMapper.registerModule(module);
+                for (JsonFormat format : JsonFormat.values()) {
+                    format.getMapper().registerModule(module);
+                }
+                // 已缓存的ObjectReader、ObjectWriter持有注册前的配置
+                READERS.clear();
+                WRITERS.clear();
+                log.info("#JacksonUtils# #init# ## accelerated by {}", module.getModuleName());
+            }
+        }
+        if (!config.getWarmUpClasses().isEmpty()) {
+            final long start = System.currentTimeMillis();
+            for (Class<?> clazz : config.getWarmUpClasses()) {
+                // 创建时即查找根类型的序列化器及反序列化器
+                reader(clazz);
+                writer(clazz);
+                for (JsonFormat format : JsonFormat.values()) {
+                    if (format != JsonFormat.JSON) {
+                        format.getMapper().readerFor(clazz);
+                        format.getMapper().writerFor(clazz);
+                    }
+                }
+            }
+            log.info("#JacksonUtils# #init# ## warmed up {} classes in {}ms", config.getWarmUpClasses().size(),
+                    System.currentTimeMillis() - start);
+        }
+    }
+
+    /**
+     * 是否已启用字节码生成的属性访问
+     *
+     * @return 是否已启用
+     */
+    public static boolean isAccelerated() {
+        return null != accelerator;
+    }
+
+    /**
+     * 反射加载字节码生成属性访问的模块，Java 11+优先Blackbird，Java 8使用Afterburner（Blackbird依赖Java 11的MethodHandles）
+     *
+     * @return 模块，均未引入时为null
+     */
+    static Module loadAccelerator() {
+        final String version = System.getProperty("java.specification.version", "1.8");
+        final boolean java11 = !version.startsWith("1.") && Integer.parseInt(version.split("\\.")[0]) >= 11;
+        for (String name : java11 ? new String[]{BLACKBIRD, AFTERBURNER} : new String[]{AFTERBURNER}) {
+            try {
+                return (Module) Class.forName(name).getConstructor().newInstance();
+            } catch (ClassNotFoundException | LinkageError e) {
+                // 未引入，尝试下一个
+            } catch (ReflectiveOperationException e) {
+                log.warn("#JacksonUtils# #loadAccelerator# ## create {} error", name, e);
+            }
+        }
+        log.warn("#JacksonUtils# #loadAccelerator# ## jackson-module-{} not found, acceleration disabled", java11 ? "blackbird" : "afterburner");
+        return null;
+    }
+
+    /**
+     * 按本工具类的配置创建ObjectMapper，可指定Smile、CBOR等其他格式的JsonFactory
+     *
+     * @param factory JsonFactory，为null时为Json
+     * @return ObjectMapper
+     */
+    public static ObjectMapper newMapper(JsonFactory factory) {
+        final ObjectMapper mapper = new ObjectMapper(factory);
         // 序列化时，包含对象的所有字段
-        objectMapper.setSerializationInclusion(JsonInclude.Include.ALWAYS);
+        mapper.setSerializationInclusion(JsonInclude.Include.ALWAYS);
         // 序列化时，取消默认转换Timestamps形式
-        objectMapper.configure(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS, false);
+        mapper.configure(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS, false);
         // 序列化时，忽略空Bean转Json的错误
-        objectMapper.configure(SerializationFeature.FAIL_ON_EMPTY_BEANS, false);
+        mapper.configure(SerializationFeature.FAIL_ON_EMPTY_BEANS, false);
         // 反序列化时，忽略在Json字符串中存在，但Java对象中不存在对应属性的情况
-        objectMapper.configure(DeserializationFeature.FAIL_ON_UNKNOWN_PROPERTIES, false);
+        mapper.configure(DeserializationFeature.FAIL_ON_UNKNOWN_PROPERTIES, false);
         // 反序列化时，默认所有的日期格式为yyyy-MM-dd HH:mm:ss
-        objectMapper.setDateFormat(new SimpleDateFormat(DateUtils.YYYY_MM_DD_HH_MM_SS));
+        mapper.setDateFormat(new SimpleDateFormat(DateUtils.YYYY_MM_DD_HH_MM_SS));
         // 反序列化时，实际是数组，但只有一个单值的情况
-        objectMapper.configure(DeserializationFeature.ACCEPT_SINGLE_VALUE_AS_ARRAY, true);
+        mapper.configure(DeserializationFeature.ACCEPT_SINGLE_VALUE_AS_ARRAY, true);
         // 反序列化时，将空字符串转成空对象
-        objectMapper.configure(DeserializationFeature.ACCEPT_EMPTY_STRING_AS_NULL_OBJECT, true);
+        mapper.configure(DeserializationFeature.ACCEPT_EMPTY_STRING_AS_NULL_OBJECT, true);
+        // 写入OutputStream、Writer后不关闭，由调用方关闭
+        mapper.configure(JsonGenerator.Feature.AUTO_CLOSE_TARGET, false);
         // 如果序列化的对象里边还有对象，会报错:java.lang.ClassCastException: java.util.LinkedHashMap cannot be cast to XXX
-        // objectMapper.activateDefaultTyping(objectMapper.getPolymorphicTypeValidator(), DefaultTyping.NON_FINAL, As.PROPERTY);
-    }
-
-    private JacksonUtils() {
-        throw new UnsupportedOperationException();
+        // mapper.activateDefaultTyping(mapper.getPolymorphicTypeValidator(), DefaultTyping.NON_FINAL, As.PROPERTY);
+        final Module module = accelerator;
+        if (null != module) {
+            mapper.registerModule(module);
+        }
+        return mapper;
     }
 
     /**
@@ -53,7 +159,7 @@ public class JacksonUtils {
             return null;
         }
         try {
-            return obj instanceof String ? (String) obj : objectMapper.writeValueAsString(obj);
+            return obj instanceof String ? (String) obj : writer(obj).writeValueAsString(obj);
         } catch (Exception e) {
             log.error("#toJson# ## ## Object convert to json error", e);
         }
@@ -85,6 +191,64 @@ public class JacksonUtils {
         return null;
     }
 
+    /**
+     * 对象转Json字节数组（UTF-8）
+     *
+     * @param obj 对象实例
+     * @return Json字节数组
+     */
+    public static byte[] toJsonBytes(Object obj) {
+        if (null == obj) {
+            return null;
+        }
+        try {
+            return writer(obj).writeValueAsBytes(obj);
+        } catch (Exception e) {
+            log.error("#toJsonBytes# ## ## Object convert to json error", e);
+        }
+        return null;
+    }
+
+    /**
+     * 对象序列化写入输出流（UTF-8），不关闭输出流
+     *
+     * @param out 输出流
+     * @param obj 对象实例
+     * @return 是否成功
+     */
+    public static boolean writeTo(OutputStream out, Object obj) {
+        if (null == out) {
+            return false;
+        }
+        try {
+            writer(obj).writeValue(out, obj);
+            return true;
+        } catch (Exception e) {
+            log.error("#writeTo# ## ## Object write to stream error", e);
+        }
+        return false;
+    }
+
+    /**
+     * 对象序列化写入Writer，不关闭Writer
+     *
+     * @param out Writer
+     * @param obj 对象实例
+     * @return 是否成功
+     */
+    public static boolean writeTo(Writer out, Object obj) {
+        if (null == out) {
+            return false;
+        }
+        try {
+            writer(obj).writeValue(out, obj);
+            return true;
+        } catch (Exception e) {
+            log.error("#writeTo# ## ## Object write to writer error", e);
+        }
+        return false;
+    }
+
     /**
      * Json字符串转为对象
      *
@@ -97,13 +261,50 @@ public class JacksonUtils {
             return null;
         }
         try {
-            return objectMapper.readValue(json, clazz);
+            return reader(clazz).readValue(json);
         } catch (Exception e) {
             log.error("#parse# ## ## json string convert to clazz error: {}", json, e);
         }
         return null;
     }
 
+    /**
+     * Json输入流转为对象，直接从流中解析，不生成中间字符串
+     *
+     * @param in    Json输入流
+     * @param clazz 对象类型
+     * @return 对象实例
+     */
+    public static <T> T parse(InputStream in, Class<T> clazz) {
+        if (null == in || null == clazz) {
+            return null;
+        }
+        try {
+            return reader(clazz).readValue(in);
+        } catch (Exception e) {
+            log.error("#parse# ## ## json stream convert to clazz error: {}", clazz.getName(), e);
+        }
+        return null;
+    }
+
+    /**
+     * Json字节数组转为对象，自动识别编码
+     *
+     * @param bytes Json字节数组
+     * @param clazz 对象类型
+     * @return 对象实例
+     */
+    public static <T> T parse(byte[] bytes, Class<T> clazz) {
+        if (null == bytes || bytes.length == 0 || null == clazz) {
+            return null;
+        }
+        try {
+            return reader(clazz).readValue(bytes);
+        } catch (Exception e) {
+            log.error("#parse# ## ## json bytes convert to clazz error: {}", clazz.getName(), e);
+        }
+        return null;
+    }
 
     /**
      * Json字符串转为Map
@@ -152,12 +353,107 @@ public class JacksonUtils {
             if (StringUtils.isEmpty(json) || null == typeReference) {
                 return null;
             }
-            return (T) (typeReference.getType().equals(String.class) ? json : objectMapper.readValue(json, typeReference));
+            return (T) (typeReference.getType().equals(String.class) ? json : reader(typeReference).readValue(json));
         } catch (Exception e) {
             log.error("#toObject# ## ## json string convert to object error: {}", json, e);
         }
         return null;
     }
 
-}
+    /**
+     * Json输入流转为特定对象，直接从流中解析，不生成中间字符串
+     *
+     * @param in            Json输入流
+     * @param typeReference 指定类型
+     * @return T
+     */
+    public static <T> T toObject(InputStream in, TypeReference<T> typeReference) {
+        if (null == in || null == typeReference) {
+            return null;
+        }
+        try {
+            return reader(typeReference).readValue(in);
+        } catch (Exception e) {
+            log.error("#toObject# ## ## json stream convert to object error: {}", typeReference.getType(), e);
+        }
+        return null;
+    }
 
+    /**
+     * Json字节数组转为特定对象，自动识别编码
+     *
+     * @param bytes         Json字节数组
+     * @param typeReference 指定类型
+     * @return T
+     */
+    public static <T> T toObject(byte[] bytes, TypeReference<T> typeReference) {
+        if (null == bytes || bytes.length == 0 || null == typeReference) {
+            return null;
+        }
+        try {
+            return reader(typeReference).readValue(bytes);
+        } catch (Exception e) {
+            log.error("#toObject# ## ## json bytes convert to object error: {}", typeReference.getType(), e);
+        }
+        return null;
+    }
+
+    /**
+     * 类型对应的{@link ObjectReader}，线程安全，可直接复用
+     *
+     * @param clazz 对象类型
+     * @return ObjectReader
+     */
+    public static ObjectReader reader(Class<?> clazz) {
+        return reader((Type) clazz);
+    }
+
+    /**
+     * 类型对应的{@link ObjectReader}，线程安全，可直接复用
+     *
+     * @param typeReference 指定类型
+     * @return ObjectReader
+     */
+    public static ObjectReader reader(TypeReference<?> typeReference) {
+        return reader(typeReference.getType());
+    }
+
+    /**
+     * 类型对应的{@link ObjectWriter}，已预先查找序列化器，线程安全，可直接复用
+     *
+     * @param clazz 对象类型
+     * @return ObjectWriter
+     */
+    public static ObjectWriter writer(Class<?> clazz) {
+        ObjectWriter writer = WRITERS.get(clazz);
+        if (null != writer) {
+            return writer;
+        }
+        writer = objectMapper.writerFor(clazz);
+        if (WRITERS.size() < MAX_CACHED) {
+            final ObjectWriter existing = WRITERS.putIfAbsent(clazz, writer);
+            return null == existing ? writer : existing;
+        }
+        return writer;
+    }
+
+    /**
+     * 按实际类型取{@link ObjectWriter}，null使用通用的ObjectWriter
+     */
+    private static ObjectWriter writer(Object obj) {
+        return null == obj ? objectMapper.writer() : writer(obj.getClass());
+    }
+
+    private static ObjectReader reader(Type type) {
+        ObjectReader reader = READERS.get(type);
+        if (null != reader) {
+            return reader;
+        }
+        reader = objectMapper.readerFor(objectMapper.constructType(type));
+        if (READERS.size() < MAX_CACHED) {
+            final ObjectReader existing = READERS.putIfAbsent(type, reader);
+            return null == existing ? reader : existing;
+        }
+        return reader;
+    }
+}
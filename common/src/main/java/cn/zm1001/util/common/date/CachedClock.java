@@ -0,0 +1,118 @@
+package cn.zm1001.util.common.date;
+
+import org.apache.commons.lang3.concurrent.BasicThreadFactory;
+
+import java.time.ZoneId;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * @Desc 秒级缓存时钟：后台线程每秒格式化一次当前时间，通过volatile字段发布，读取时不再格式化
+ * 1. 读取时校验缓存所在的秒，后台线程延迟时由调用线程刷新，不会返回过期的时间
+ * 2. 时区按刷新时的系统默认时区，修改默认时区后最迟一秒生效
+ * 首次使用时启动后台线程（守护线程）
+ * @Author Dongd_Zhou
+ */
+public final class CachedClock {
+    /** 最近一秒的缓存，包内可见以便测试模拟后台线程延迟 */
+    static volatile Snapshot snapshot = Snapshot.of(System.currentTimeMillis());
+
+    static {
+        final ScheduledExecutorService ticker = Executors.newSingleThreadScheduledExecutor(
+                new BasicThreadFactory.Builder().namingPattern("date-clock-ticker-%d").daemon(true).build());
+        // 对齐到整秒后1毫秒
+        ticker.scheduleAtFixedRate(CachedClock::tick, 1001 - System.currentTimeMillis() % 1000, 1000, TimeUnit.MILLISECONDS);
+    }
+
+    private CachedClock() {
+        throw new UnsupportedOperationException();
+    }
+
+    /**
+     * @return 当前日期，格式为yyyy-MM-dd
+     */
+    public static String date() {
+        return current().date;
+    }
+
+    /**
+     * @return 当前日期，格式为yyyyMMdd
+     */
+    public static String dateCompact() {
+        return current().dateCompact;
+    }
+
+    /**
+     * @return 当前时间，格式为yyyy-MM-dd HH:mm:ss
+     */
+    public static String dateTime() {
+        return current().dateTime;
+    }
+
+    /**
+     * @return 当前时间，格式为yyyyMMddHHmmss
+     */
+    public static String dateTimeCompact() {
+        return current().dateTimeCompact;
+    }
+
+    /**
+     * @return 当前日期路径，格式为yyyy/MM/dd
+     */
+    public static String datePath() {
+        return current().datePath;
+    }
+
+    private static Snapshot current() {
+        final Snapshot s = snapshot;
+        final long now = System.currentTimeMillis();
+        if (now >= s.from && now < s.from + 1000) {
+            return s;
+        }
+        return refresh(now);
+    }
+
+    private static void tick() {
+        refresh(System.currentTimeMillis());
+    }
+
+    /**
+     * 刷新缓存，不回退到更早的秒
+     */
+    private static Snapshot refresh(long now) {
+        final Snapshot s = Snapshot.of(now);
+        if (s.from >= snapshot.from) {
+            snapshot = s;
+        }
+        return s;
+    }
+
+    /**
+     * 某一秒的各格式时间
+     */
+    static class Snapshot {
+        /** 所在秒的起始毫秒 */
+        final long from;
+        private final String date;
+        private final String dateCompact;
+        private final String dateTime;
+        private final String dateTimeCompact;
+        private final String datePath;
+
+        private Snapshot(long from, String dateTime, String dateTimeCompact) {
+            this.from = from;
+            this.dateTime = dateTime;
+            this.dateTimeCompact = dateTimeCompact;
+            this.date = dateTime.substring(0, 10);
+            this.dateCompact = dateTimeCompact.substring(0, 8);
+            this.datePath = date.replace('-', '/');
+        }
+
+        static Snapshot of(long millis) {
+            final ZoneId zone = ZoneId.systemDefault();
+            return new Snapshot(Math.floorDiv(millis, 1000L) * 1000L, FixedDateFormat.DATE_TIME.format(millis, zone),
+                    FixedDateFormat.DATE_TIME_COMPACT.format(millis, zone));
+        }
+    }
+}
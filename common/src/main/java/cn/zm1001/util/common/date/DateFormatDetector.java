@@ -0,0 +1,100 @@
+package cn.zm1001.util.common.date;
+
+import java.time.format.DateTimeFormatter;
+
+/**
+ * @Desc 日期格式识别：按长度及分隔符一次确定唯一的格式，不逐个尝试
+ * 支持的格式（分隔符为'-'、'/'或'.'，日期与时间之间为空格或'T'）：
+ * yyyyMMddHHmmss、yyyyMMddHHmm、yyyyMMdd、yyyyMM、
+ * yyyy-MM-dd HH:mm:ss.SSS、yyyy-MM-dd HH:mm:ss、yyyy-MM-dd HH:mm、yyyy-MM-dd、yyyy-MM
+ * 格式与SimpleDateFormat含义一致（见{@link DateFormatters#compatible(String)}），严格解析，非法日期需调用方按SimpleDateFormat宽松解析
+ * @Author Dongd_Zhou
+ */
+public final class DateFormatDetector {
+    private static final String SEPARATORS = "-/.";
+    private static final DateTimeFormatter YM_COMPACT = DateFormatters.compatible("yyyyMM");
+    private static final DateTimeFormatter YMD_COMPACT = DateFormatters.compatible("yyyyMMdd");
+    private static final DateTimeFormatter YMD_HM_COMPACT = DateFormatters.compatible("yyyyMMddHHmm");
+    private static final DateTimeFormatter YMD_HMS_COMPACT = DateFormatters.compatible("yyyyMMddHHmmss");
+    /** 按分隔符下标 */
+    private static final DateTimeFormatter[] YM = new DateTimeFormatter[3];
+    private static final DateTimeFormatter[] YMD = new DateTimeFormatter[3];
+    /** 按分隔符下标、日期与时间之间为空格(0)或'T'(1) */
+    private static final DateTimeFormatter[][] YMD_HM = new DateTimeFormatter[3][2];
+    private static final DateTimeFormatter[][] YMD_HMS = new DateTimeFormatter[3][2];
+    private static final DateTimeFormatter[][] YMD_HMS_MS = new DateTimeFormatter[3][2];
+
+    static {
+        for (int i = 0; i < 3; i++) {
+            final char s = SEPARATORS.charAt(i);
+            YM[i] = DateFormatters.compatible("yyyy" + s + "MM");
+            YMD[i] = DateFormatters.compatible("yyyy" + s + "MM" + s + "dd");
+            for (int t = 0; t < 2; t++) {
+                final String date = "yyyy" + s + "MM" + s + "dd" + (t == 0 ? " " : "'T'");
+                YMD_HM[i][t] = DateFormatters.compatible(date + "HH:mm");
+                YMD_HMS[i][t] = DateFormatters.compatible(date + "HH:mm:ss");
+                YMD_HMS_MS[i][t] = DateFormatters.compatible(date + "HH:mm:ss.SSS");
+            }
+        }
+    }
+
+    private DateFormatDetector() {
+        throw new UnsupportedOperationException();
+    }
+
+    /**
+     * 识别日期字符串的格式
+     *
+     * @param text 日期字符串
+     * @return 格式，不支持时为null
+     */
+    public static DateTimeFormatter detect(CharSequence text) {
+        final int length = text.length();
+        if (length < 6) {
+            return null;
+        }
+        final char separator = text.charAt(4);
+        if (separator >= '0' && separator <= '9') {
+            switch (length) {
+                case 6:
+                    return YM_COMPACT;
+                case 8:
+                    return YMD_COMPACT;
+                case 12:
+                    return YMD_HM_COMPACT;
+                case 14:
+                    return YMD_HMS_COMPACT;
+                default:
+                    return null;
+            }
+        }
+        final int s = SEPARATORS.indexOf(separator);
+        if (s < 0) {
+            return null;
+        }
+        if (length == 7) {
+            return YM[s];
+        }
+        if (length < 10 || text.charAt(7) != separator) {
+            return null;
+        }
+        if (length == 10) {
+            return YMD[s];
+        }
+        final char t = text.charAt(10);
+        if (t != ' ' && t != 'T') {
+            return null;
+        }
+        final int ti = t == ' ' ? 0 : 1;
+        switch (length) {
+            case 16:
+                return YMD_HM[s][ti];
+            case 19:
+                return YMD_HMS[s][ti];
+            case 23:
+                return text.charAt(19) == '.' ? YMD_HMS_MS[s][ti] : null;
+            default:
+                return null;
+        }
+    }
+}
@@ -0,0 +1,218 @@
+package cn.zm1001.util.common.date;
+
+import java.text.SimpleDateFormat;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.LocalTime;
+import java.time.ZoneId;
+import java.time.format.DateTimeFormatter;
+import java.time.format.DateTimeFormatterBuilder;
+import java.time.format.ResolverStyle;
+import java.time.format.SignStyle;
+import java.time.temporal.ChronoField;
+import java.time.temporal.TemporalAccessor;
+import java.time.temporal.TemporalQueries;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.TimeZone;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+/**
+ * @Desc 日期格式缓存：按格式缓存编译后的{@link DateTimeFormatter}，线程安全，可直接复用
+ * 缓存数量有上限，超过后不再缓存新格式（每次编译），避免动态拼接的格式撑满内存
+ * 1. {@link #get(String)}：格式字母按{@link DateTimeFormatter}解释，用于java.time类型
+ * 2. {@link #compatible(String)}：仅接受与SimpleDateFormat含义一致的字母，严格解析，用于替代SimpleDateFormat
+ * 3. {@link #simple(String)}：其他格式按线程缓存的SimpleDateFormat
+ * @Author Dongd_Zhou
+ */
+public final class DateFormatters {
+    /** 缓存的格式数量上限 */
+    private static final int MAX_CACHED = 256;
+    /** 每个线程缓存的SimpleDateFormat数量上限 */
+    private static final int MAX_CACHED_PER_THREAD = 32;
+    private static final ConcurrentMap<String, DateTimeFormatter> CACHE = new ConcurrentHashMap<>();
+    /** 与SimpleDateFormat含义一致的格式，不一致的格式也缓存（值为{@link #INCOMPATIBLE}），不再重复检查 */
+    private static final ConcurrentMap<String, DateTimeFormatter> COMPATIBLE = new ConcurrentHashMap<>();
+    private static final DateTimeFormatter INCOMPATIBLE = DateTimeFormatter.ISO_INSTANT;
+    private static final ThreadLocal<Map<String, SimpleDateFormat>> SIMPLE = ThreadLocal.withInitial(HashMap::new);
+
+    private DateFormatters() {
+        throw new UnsupportedOperationException();
+    }
+
+    /**
+     * 获取格式对应的{@link DateTimeFormatter}
+     *
+     * @param pattern 日期格式
+     * @return 格式
+     * @throws IllegalArgumentException 格式错误
+     */
+    public static DateTimeFormatter get(String pattern) {
+        DateTimeFormatter formatter = CACHE.get(pattern);
+        if (null != formatter) {
+            return formatter;
+        }
+        formatter = DateTimeFormatter.ofPattern(pattern);
+        if (CACHE.size() < MAX_CACHED) {
+            DateTimeFormatter existing = CACHE.putIfAbsent(pattern, formatter);
+            return null == existing ? formatter : existing;
+        }
+        return formatter;
+    }
+
+    /**
+     * 获取与SimpleDateFormat含义一致的{@link DateTimeFormatter}
+     * 仅支持yyyy、M、MM、d、dd、H、HH、m、mm、s、ss、SSS、引号内的文本及其他非字母字符（'['、']'、'{'、'}'、'#'除外），
+     * 其他字母（如hh、u、S）在两者中含义不同，返回null；解析为严格模式，非法日期（如2月30日）抛出异常，不调整为相近的日期
+     *
+     * @param pattern SimpleDateFormat格式
+     * @return 格式，不一致时为null
+     */
+    public static DateTimeFormatter compatible(String pattern) {
+        DateTimeFormatter formatter = COMPATIBLE.get(pattern);
+        if (null == formatter) {
+            formatter = translate(pattern);
+            if (null == formatter) {
+                formatter = INCOMPATIBLE;
+            }
+            if (COMPATIBLE.size() < MAX_CACHED) {
+                COMPATIBLE.putIfAbsent(pattern, formatter);
+            }
+        }
+        return formatter == INCOMPATIBLE ? null : formatter;
+    }
+
+    /**
+     * 获取当前线程缓存的SimpleDateFormat，时区为当前的系统默认时区，不要在线程间传递或修改其配置
+     *
+     * @param pattern 日期格式
+     * @return 格式
+     * @throws IllegalArgumentException 格式错误
+     */
+    public static SimpleDateFormat simple(String pattern) {
+        final Map<String, SimpleDateFormat> formats = SIMPLE.get();
+        SimpleDateFormat format = formats.get(pattern);
+        if (null == format) {
+            format = new SimpleDateFormat(pattern);
+            if (formats.size() < MAX_CACHED_PER_THREAD) {
+                formats.put(pattern, format);
+            }
+        } else {
+            format.setTimeZone(TimeZone.getDefault());
+        }
+        return format;
+    }
+
+    /**
+     * 解析结果转为{@link LocalDateTime}，缺少的字段取最小值：月、日为1，时、分、秒为0
+     *
+     * @param temporal 解析结果
+     * @return 日期时间
+     * @throws java.time.DateTimeException 缺少年份
+     */
+    public static LocalDateTime toLocalDateTime(TemporalAccessor temporal) {
+        LocalDate date = temporal.query(TemporalQueries.localDate());
+        if (null == date) {
+            date = LocalDate.of(temporal.get(ChronoField.YEAR),
+                    field(temporal, ChronoField.MONTH_OF_YEAR, 1),
+                    field(temporal, ChronoField.DAY_OF_MONTH, 1));
+        }
+        LocalTime time = temporal.query(TemporalQueries.localTime());
+        if (null == time) {
+            time = LocalTime.of(field(temporal, ChronoField.HOUR_OF_DAY, 0),
+                    field(temporal, ChronoField.MINUTE_OF_HOUR, 0),
+                    field(temporal, ChronoField.SECOND_OF_MINUTE, 0));
+        }
+        return LocalDateTime.of(date, time);
+    }
+
+    /**
+     * 解析结果的时区，未包含时区或偏移时为系统默认时区
+     *
+     * @param temporal 解析结果
+     * @return 时区
+     */
+    public static ZoneId zone(TemporalAccessor temporal) {
+        ZoneId zone = temporal.query(TemporalQueries.zone());
+        return null == zone ? ZoneId.systemDefault() : zone;
+    }
+
+    /**
+     * 按SimpleDateFormat的含义逐个字母转换，年份按纪元年（同SimpleDateFormat），超过4位时不加'+'
+     */
+    private static DateTimeFormatter translate(String pattern) {
+        final DateTimeFormatterBuilder builder = new DateTimeFormatterBuilder();
+        final int length = pattern.length();
+        int i = 0;
+        while (i < length) {
+            final char c = pattern.charAt(i);
+            if (c == '\'') {
+                final int end = pattern.indexOf('\'', i + 1);
+                if (end < 0) {
+                    return null;
+                }
+                if (end > i + 1 && end + 1 < length && pattern.charAt(end + 1) == '\'') {
+                    // 引号内的''，交给SimpleDateFormat
+                    return null;
+                }
+                // ''为单引号本身
+                builder.appendLiteral(end == i + 1 ? "'" : pattern.substring(i + 1, end));
+                i = end + 1;
+                continue;
+            }
+            if (!(c >= 'a' && c <= 'z' || c >= 'A' && c <= 'Z')) {
+                if ("[]{}#".indexOf(c) >= 0) {
+                    return null;
+                }
+                builder.appendLiteral(c);
+                i++;
+                continue;
+            }
+            int count = 1;
+            while (i + count < length && pattern.charAt(i + count) == c) {
+                count++;
+            }
+            i += count;
+            if (c == 'y' && count == 4) {
+                builder.appendValue(ChronoField.YEAR_OF_ERA, 4, 19, SignStyle.NORMAL);
+            } else if (c == 'S' && count == 3) {
+                builder.appendValue(ChronoField.MILLI_OF_SECOND, 3);
+            } else if (count > 2) {
+                return null;
+            } else {
+                final ChronoField field;
+                switch (c) {
+                    case 'M':
+                        field = ChronoField.MONTH_OF_YEAR;
+                        break;
+                    case 'd':
+                        field = ChronoField.DAY_OF_MONTH;
+                        break;
+                    case 'H':
+                        field = ChronoField.HOUR_OF_DAY;
+                        break;
+                    case 'm':
+                        field = ChronoField.MINUTE_OF_HOUR;
+                        break;
+                    case 's':
+                        field = ChronoField.SECOND_OF_MINUTE;
+                        break;
+                    default:
+                        return null;
+                }
+                if (count == 1) {
+                    builder.appendValue(field);
+                } else {
+                    builder.appendValue(field, 2);
+                }
+            }
+        }
+        // 纪元年需要纪元才能严格解析，与SimpleDateFormat一致默认为公元
+        return builder.parseDefaulting(ChronoField.ERA, 1).toFormatter().withResolverStyle(ResolverStyle.STRICT);
+    }
+
+    private static int field(TemporalAccessor temporal, ChronoField field, int defaultValue) {
+        return temporal.isSupported(field) ? temporal.get(field) : defaultValue;
+    }
+}
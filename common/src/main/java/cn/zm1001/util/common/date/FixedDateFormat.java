@@ -0,0 +1,407 @@
+package cn.zm1001.util.common.date;
+
+import cn.zm1001.util.common.exception.DateException;
+
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.time.ZoneOffset;
+import java.time.zone.ZoneOffsetTransition;
+import java.time.zone.ZoneRules;
+
+/**
+ * @Desc 固定格式的日期解析及格式化：按位置直接读写数字，与毫秒时间戳互相转换
+ * 1. 不使用格式对象及Calendar，解析失败返回{@link #INVALID}，不通过异常控制流程
+ * 2. 可直接解析byte[]（ASCII），如日志、CSV行，无需先转为String
+ * 3. 时区偏移按当前所在的夏令时区间缓存，区间内转换为纯整数运算；tryParse及写入数组的format不分配内存
+ * 支持yyyy-MM-dd HH:mm:ss、yyyyMMddHHmmss、yyyy-MM-dd、yyyyMMdd，年份为0000~9999
+ * 如：{@code FixedDateFormat.DATE_TIME.tryParse(line, 0, zone)}
+ * @Author Dongd_Zhou
+ */
+public final class FixedDateFormat {
+    /** 解析失败 */
+    public static final long INVALID = Long.MIN_VALUE;
+
+    public static final FixedDateFormat DATE_TIME = new FixedDateFormat("yyyy-MM-dd HH:mm:ss", 5, 8, 11, 14, 17);
+    public static final FixedDateFormat DATE_TIME_COMPACT = new FixedDateFormat("yyyyMMddHHmmss", 4, 6, 8, 10, 12);
+    public static final FixedDateFormat DATE = new FixedDateFormat("yyyy-MM-dd", 5, 8, -1, -1, -1);
+    public static final FixedDateFormat DATE_COMPACT = new FixedDateFormat("yyyyMMdd", 4, 6, -1, -1, -1);
+
+    private static final long SECONDS_PER_DAY = 86400L;
+    /** 任意时区（偏移不超过18小时）下年份均在0000~9999的时间戳范围，前后各留一天 */
+    private static final long MIN_MILLIS = epochDay(0, 1, 2) * SECONDS_PER_DAY * 1000L;
+    private static final long MAX_MILLIS = epochDay(9999, 12, 31) * SECONDS_PER_DAY * 1000L;
+    /** 最近使用的时区偏移区间，所有格式共享 */
+    private static volatile OffsetWindow window = new OffsetWindow(ZoneOffset.UTC, Long.MIN_VALUE, Long.MAX_VALUE, 0);
+
+    private final String pattern;
+    private final int length;
+    /** 各字段的起始位置，-1为不包含该字段；年份固定从0开始 */
+    private final int month;
+    private final int day;
+    private final int hour;
+    private final int minute;
+    private final int second;
+    /** 分隔符，数字位置为0 */
+    private final char[] template;
+
+    private FixedDateFormat(String pattern, int month, int day, int hour, int minute, int second) {
+        this.pattern = pattern;
+        this.length = pattern.length();
+        this.month = month;
+        this.day = day;
+        this.hour = hour;
+        this.minute = minute;
+        this.second = second;
+        this.template = new char[length];
+        for (int i = 0; i < length; i++) {
+            final char c = pattern.charAt(i);
+            template[i] = Character.isLetter(c) ? 0 : c;
+        }
+    }
+
+    /**
+     * 格式对应的固定格式
+     *
+     * @param pattern 日期格式
+     * @return 固定格式，不支持时为null
+     */
+    public static FixedDateFormat of(String pattern) {
+        if (null == pattern) {
+            return null;
+        }
+        switch (pattern) {
+            case "yyyy-MM-dd HH:mm:ss":
+                return DATE_TIME;
+            case "yyyyMMddHHmmss":
+                return DATE_TIME_COMPACT;
+            case "yyyy-MM-dd":
+                return DATE;
+            case "yyyyMMdd":
+                return DATE_COMPACT;
+            default:
+                return null;
+        }
+    }
+
+    /**
+     * 按长度及分隔符识别固定格式
+     *
+     * @param text 日期字符串
+     * @return 固定格式，不支持时为null
+     */
+    public static FixedDateFormat detect(CharSequence text) {
+        switch (text.length()) {
+            case 19:
+                return text.charAt(4) == '-' && text.charAt(10) == ' ' ? DATE_TIME : null;
+            case 14:
+                return DATE_TIME_COMPACT;
+            case 10:
+                return text.charAt(4) == '-' ? DATE : null;
+            case 8:
+                return DATE_COMPACT;
+            default:
+                return null;
+        }
+    }
+
+    /**
+     * 时间戳是否可按固定格式格式化，超出范围时需使用通用的格式化
+     *
+     * @param millis 毫秒时间戳
+     * @return 任意时区下年份是否均在0000~9999
+     */
+    public static boolean supports(long millis) {
+        return millis >= MIN_MILLIS && millis < MAX_MILLIS;
+    }
+
+    public String getPattern() {
+        return pattern;
+    }
+
+    public int getLength() {
+        return length;
+    }
+
+    /**
+     * 解析日期字符串
+     *
+     * @param text 日期字符串，长度需与格式一致
+     * @param zone 时区
+     * @return 毫秒时间戳
+     * @throws DateException 格式错误
+     */
+    public long parse(CharSequence text, ZoneId zone) {
+        final long millis = text.length() == length ? tryParse(text, 0, zone) : INVALID;
+        if (millis == INVALID) {
+            throw new DateException("Unparseable date: \"" + text + "\", expected " + pattern);
+        }
+        return millis;
+    }
+
+    /**
+     * 解析字符串中从offset开始的日期
+     *
+     * @param text   字符串
+     * @param offset 日期开始位置
+     * @param zone   时区
+     * @return 毫秒时间戳，格式错误时为{@link #INVALID}
+     */
+    public long tryParse(CharSequence text, int offset, ZoneId zone) {
+        if (offset < 0 || text.length() - offset < length) {
+            return INVALID;
+        }
+        for (int i = 0; i < length; i++) {
+            final char c = text.charAt(offset + i);
+            if (template[i] == 0 ? (c < '0' || c > '9') : c != template[i]) {
+                return INVALID;
+            }
+        }
+        return toMillis(number(text, offset, 4), number(text, offset + month, 2), number(text, offset + day, 2),
+                hour < 0 ? 0 : number(text, offset + hour, 2),
+                minute < 0 ? 0 : number(text, offset + minute, 2),
+                second < 0 ? 0 : number(text, offset + second, 2), zone);
+    }
+
+    /**
+     * 解析字节数组（ASCII）中从offset开始的日期
+     *
+     * @param bytes  字节数组
+     * @param offset 日期开始位置
+     * @param zone   时区
+     * @return 毫秒时间戳，格式错误时为{@link #INVALID}
+     */
+    public long tryParse(byte[] bytes, int offset, ZoneId zone) {
+        if (offset < 0 || bytes.length - offset < length) {
+            return INVALID;
+        }
+        for (int i = 0; i < length; i++) {
+            final byte b = bytes[offset + i];
+            if (template[i] == 0 ? (b < '0' || b > '9') : b != template[i]) {
+                return INVALID;
+            }
+        }
+        return toMillis(number(bytes, offset, 4), number(bytes, offset + month, 2), number(bytes, offset + day, 2),
+                hour < 0 ? 0 : number(bytes, offset + hour, 2),
+                minute < 0 ? 0 : number(bytes, offset + minute, 2),
+                second < 0 ? 0 : number(bytes, offset + second, 2), zone);
+    }
+
+    /**
+     * 格式化
+     *
+     * @param millis 毫秒时间戳
+     * @param zone   时区
+     * @return 日期字符串
+     * @throws IllegalArgumentException 年份超过0000~9999，见{@link #supports(long)}
+     */
+    public String format(long millis, ZoneId zone) {
+        final char[] chars = new char[length];
+        format(millis, zone, chars, 0);
+        return new String(chars);
+    }
+
+    /**
+     * 格式化写入字符数组，不分配内存
+     *
+     * @param millis 毫秒时间戳
+     * @param zone   时区
+     * @param dst    目标数组，需要{@link #getLength()}位空间
+     * @param offset 写入位置
+     * @return 写入的字符数
+     */
+    public int format(long millis, ZoneId zone, char[] dst, int offset) {
+        final long local = toLocalSeconds(millis, zone);
+        final int date = civil(Math.floorDiv(local, SECONDS_PER_DAY));
+        final int secondOfDay = (int) Math.floorMod(local, SECONDS_PER_DAY);
+        for (int i = 0; i < length; i++) {
+            dst[offset + i] = template[i];
+        }
+        write(dst, offset, 4, date >>> 9);
+        write(dst, offset + month, 2, (date >>> 5) & 15);
+        write(dst, offset + day, 2, date & 31);
+        if (hour >= 0) {
+            write(dst, offset + hour, 2, secondOfDay / 3600);
+            write(dst, offset + minute, 2, secondOfDay / 60 % 60);
+            write(dst, offset + second, 2, secondOfDay % 60);
+        }
+        return length;
+    }
+
+    /**
+     * 格式化写入字节数组（ASCII），不分配内存
+     *
+     * @param millis 毫秒时间戳
+     * @param zone   时区
+     * @param dst    目标数组，需要{@link #getLength()}位空间
+     * @param offset 写入位置
+     * @return 写入的字节数
+     */
+    public int format(long millis, ZoneId zone, byte[] dst, int offset) {
+        final long local = toLocalSeconds(millis, zone);
+        final int date = civil(Math.floorDiv(local, SECONDS_PER_DAY));
+        final int secondOfDay = (int) Math.floorMod(local, SECONDS_PER_DAY);
+        for (int i = 0; i < length; i++) {
+            dst[offset + i] = (byte) template[i];
+        }
+        write(dst, offset, 4, date >>> 9);
+        write(dst, offset + month, 2, (date >>> 5) & 15);
+        write(dst, offset + day, 2, date & 31);
+        if (hour >= 0) {
+            write(dst, offset + hour, 2, secondOfDay / 3600);
+            write(dst, offset + minute, 2, secondOfDay / 60 % 60);
+            write(dst, offset + second, 2, secondOfDay % 60);
+        }
+        return length;
+    }
+
+    @Override
+    public String toString() {
+        return pattern;
+    }
+
+    private static int number(CharSequence text, int offset, int width) {
+        int value = 0;
+        for (int i = 0; i < width; i++) {
+            value = value * 10 + (text.charAt(offset + i) - '0');
+        }
+        return value;
+    }
+
+    private static int number(byte[] bytes, int offset, int width) {
+        int value = 0;
+        for (int i = 0; i < width; i++) {
+            value = value * 10 + (bytes[offset + i] - '0');
+        }
+        return value;
+    }
+
+    private static void write(char[] dst, int offset, int width, int value) {
+        for (int i = offset + width - 1; i >= offset; i--) {
+            dst[i] = (char) ('0' + value % 10);
+            value /= 10;
+        }
+    }
+
+    private static void write(byte[] dst, int offset, int width, int value) {
+        for (int i = offset + width - 1; i >= offset; i--) {
+            dst[i] = (byte) ('0' + value % 10);
+            value /= 10;
+        }
+    }
+
+    /**
+     * 日期时间转为毫秒时间戳，字段越界时返回{@link #INVALID}
+     */
+    private static long toMillis(int year, int month, int day, int hour, int minute, int second, ZoneId zone) {
+        if (month < 1 || month > 12 || day < 1 || day > lengthOfMonth(year, month)
+                || hour > 23 || minute > 59 || second > 59) {
+            return INVALID;
+        }
+        final long local = epochDay(year, month, day) * SECONDS_PER_DAY + hour * 3600 + minute * 60 + second;
+        return (local - offsetOfLocal(local, zone)) * 1000L;
+    }
+
+    private static int lengthOfMonth(int year, int month) {
+        if (month == 2) {
+            return (year & 3) == 0 && (year % 100 != 0 || year % 400 == 0) ? 29 : 28;
+        }
+        return month == 4 || month == 6 || month == 9 || month == 11 ? 30 : 31;
+    }
+
+    /**
+     * 公历日期转为1970-01-01起的天数
+     */
+    private static long epochDay(int year, int month, int day) {
+        final int y = month <= 2 ? year - 1 : year;
+        final int era = Math.floorDiv(y, 400);
+        final int yearOfEra = y - era * 400;
+        final int dayOfYear = (153 * (month > 2 ? month - 3 : month + 9) + 2) / 5 + day - 1;
+        final int dayOfEra = yearOfEra * 365 + yearOfEra / 4 - yearOfEra / 100 + dayOfYear;
+        return era * 146097L + dayOfEra - 719468;
+    }
+
+    /**
+     * 1970-01-01起的天数转为公历日期
+     *
+     * @return 年 << 9 | 月 << 5 | 日
+     * @throws IllegalArgumentException 年份超过0000~9999
+     */
+    private static int civil(long epochDay) {
+        final long z = epochDay + 719468;
+        final long era = Math.floorDiv(z, 146097);
+        final int dayOfEra = (int) (z - era * 146097);
+        final int yearOfEra = (dayOfEra - dayOfEra / 1460 + dayOfEra / 36524 - dayOfEra / 146096) / 365;
+        final int dayOfYear = dayOfEra - (365 * yearOfEra + yearOfEra / 4 - yearOfEra / 100);
+        final int mp = (5 * dayOfYear + 2) / 153;
+        final int day = dayOfYear - (153 * mp + 2) / 5 + 1;
+        final int month = mp < 10 ? mp + 3 : mp - 9;
+        final long year = yearOfEra + era * 400 + (month <= 2 ? 1 : 0);
+        if (year < 0 || year > 9999) {
+            throw new IllegalArgumentException("year out of range 0000~9999: " + year);
+        }
+        return (int) year << 9 | month << 5 | day;
+    }
+
+    /**
+     * 毫秒时间戳转为当地时间的秒数
+     */
+    private static long toLocalSeconds(long millis, ZoneId zone) {
+        final long epochSecond = Math.floorDiv(millis, 1000L);
+        OffsetWindow w = window;
+        if (!w.contains(zone, epochSecond)) {
+            w = OffsetWindow.of(zone, epochSecond);
+            window = w;
+        }
+        return epochSecond + w.offset;
+    }
+
+    /**
+     * 当地时间的时区偏移（秒），夏令时切换产生的间隙及重叠与{@link LocalDateTime#atZone(ZoneId)}一致
+     */
+    private static int offsetOfLocal(long localSeconds, ZoneId zone) {
+        final OffsetWindow w = window;
+        if (w.contains(zone, localSeconds - w.offset)) {
+            return w.offset;
+        }
+        final ZoneOffset offset = zone.getRules().getOffset(LocalDateTime.ofEpochSecond(localSeconds, 0, ZoneOffset.UTC));
+        window = OffsetWindow.of(zone, localSeconds - offset.getTotalSeconds());
+        return offset.getTotalSeconds();
+    }
+
+    /**
+     * 时区偏移不变的时间区间，两端各留一天，区间内的当地时间与时间戳一一对应
+     */
+    private static class OffsetWindow {
+        private final ZoneId zone;
+        /** 起止时间戳（秒），左闭右开 */
+        private final long from;
+        private final long to;
+        private final int offset;
+
+        OffsetWindow(ZoneId zone, long from, long to, int offset) {
+            this.zone = zone;
+            this.from = from;
+            this.to = to;
+            this.offset = offset;
+        }
+
+        static OffsetWindow of(ZoneId zone, long epochSecond) {
+            final ZoneRules rules = zone.getRules();
+            if (rules.isFixedOffset()) {
+                return new OffsetWindow(zone, Long.MIN_VALUE, Long.MAX_VALUE, rules.getOffset(Instant.EPOCH).getTotalSeconds());
+            }
+            final Instant instant = Instant.ofEpochSecond(epochSecond);
+            final ZoneOffsetTransition previous = rules.previousTransition(instant);
+            final ZoneOffsetTransition next = rules.nextTransition(instant);
+            return new OffsetWindow(zone,
+                    null == previous ? Long.MIN_VALUE : previous.toEpochSecond() + SECONDS_PER_DAY,
+                    null == next ? Long.MAX_VALUE : next.toEpochSecond() - SECONDS_PER_DAY,
+                    rules.getOffset(instant).getTotalSeconds());
+        }
+
+        boolean contains(ZoneId zone, long epochSecond) {
+            return epochSecond >= from && epochSecond < to && (this.zone == zone || this.zone.equals(zone));
+        }
+    }
+}
@@ -0,0 +1,23 @@
+package cn.zm1001.util.common.exception;
+
+/**
+ * @Desc HTTP请求异常，如熔断、并发限制拒绝请求
+ * @Author Dongd_Zhou
+ */
+public class HttpException extends RuntimeException {
+    public HttpException() {
+        super();
+    }
+
+    public HttpException(String message) {
+        super(message);
+    }
+
+    public HttpException(String message, Throwable cause) {
+        super(message, cause);
+    }
+
+    public HttpException(Throwable cause) {
+        super(cause);
+    }
+}
@@ -0,0 +1,23 @@
+package cn.zm1001.util.common.exception;
+
+/**
+ * @Desc ID生成异常，如时钟回拨超过容忍值
+ * @Author Dongd_Zhou
+ */
+public class IdException extends RuntimeException {
+    public IdException() {
+        super();
+    }
+
+    public IdException(String message) {
+        super(message);
+    }
+
+    public IdException(String message, Throwable cause) {
+        super(message, cause);
+    }
+
+    public IdException(Throwable cause) {
+        super(cause);
+    }
+}
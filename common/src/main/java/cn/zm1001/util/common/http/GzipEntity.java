@@ -0,0 +1,85 @@
+package cn.zm1001.util.common.http;
+
+import org.apache.http.entity.AbstractHttpEntity;
+import org.apache.http.util.Args;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * @Desc gzip压缩的请求体，发送时边压缩边写出（chunked），不生成压缩后的中间数组
+ * 保留原始数据，可重复发送
+ * @Author Dongd_Zhou
+ */
+class GzipEntity extends AbstractHttpEntity {
+    private static final int BUFFER_SIZE = 8 * 1024;
+
+    private final byte[] content;
+    private final int level;
+
+    GzipEntity(byte[] content, int level) {
+        this.content = Args.notNull(content, "Content");
+        this.level = level;
+        setContentEncoding("gzip");
+        setChunked(true);
+    }
+
+    @Override
+    public boolean isRepeatable() {
+        return true;
+    }
+
+    @Override
+    public long getContentLength() {
+        return -1;
+    }
+
+    /**
+     * 压缩后的数据，仅在不支持{@link #writeTo(OutputStream)}的场景（如异步客户端）使用
+     */
+    @Override
+    public InputStream getContent() throws IOException {
+        ByteArrayOutputStream out = new ByteArrayOutputStream(Math.max(64, content.length / 4));
+        writeTo(out);
+        return new ByteArrayInputStream(out.toByteArray());
+    }
+
+    @Override
+    public void writeTo(OutputStream out) throws IOException {
+        Args.notNull(out, "Output stream");
+        LevelGzipOutputStream gzip = new LevelGzipOutputStream(out, level);
+        try {
+            gzip.write(content);
+            // 仅结束压缩，输出流由调用方关闭
+            gzip.finish();
+        } finally {
+            gzip.release();
+        }
+    }
+
+    @Override
+    public boolean isStreaming() {
+        return false;
+    }
+
+    /**
+     * 可指定压缩级别的gzip输出流
+     */
+    private static class LevelGzipOutputStream extends GZIPOutputStream {
+        LevelGzipOutputStream(OutputStream out, int level) throws IOException {
+            super(out, BUFFER_SIZE);
+            def.setLevel(level);
+        }
+
+        /**
+         * 释放压缩器占用的本地内存，不关闭输出流
+         */
+        void release() {
+            def.end();
+        }
+    }
+}
@@ -0,0 +1,166 @@
+package cn.zm1001.util.common.http;
+
+import cn.zm1001.util.common.JacksonUtils;
+import org.apache.http.client.methods.HttpDelete;
+import org.apache.http.client.methods.HttpGet;
+import org.apache.http.client.methods.HttpPost;
+import org.apache.http.client.methods.HttpPut;
+import org.apache.http.client.methods.HttpUriRequest;
+
+import java.util.Map;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CompletableFuture;
+
+/**
+ * @Desc 异步HTTP请求，头部及请求体约定与{@link HttpUtils}一致
+ * 请求不占用调用线程，可通过{@link CompletableFuture#allOf(CompletableFuture[])}组合多个请求
+ * @Author Dongd_Zhou
+ */
+public class HttpAsync {
+    static final HttpAsync INSTANCE = new HttpAsync();
+
+    private HttpAsync() {
+    }
+
+    /**
+     * GET请求
+     *
+     * @param url 请求地址及参数
+     * @return 响应结果
+     */
+    public CompletableFuture<HttpResult> getAsync(String url) {
+        return getAsync(url, null);
+    }
+
+    /**
+     * GET请求
+     *
+     * @param url       请求地址及参数
+     * @param headerMap 头部
+     * @return 响应结果
+     */
+    public CompletableFuture<HttpResult> getAsync(String url, Map<String, String> headerMap) {
+        return execute("getAsync", url, headerMap, null, () -> {
+            HttpGet httpGet = new HttpGet(url);
+            HttpUtils.setHeader(httpGet, headerMap);
+            return httpGet;
+        });
+    }
+
+    /**
+     * 表单提交
+     *
+     * @param url       请求地址
+     * @param headerMap 头部
+     * @param paramMap  参数
+     * @return 响应结果
+     */
+    public CompletableFuture<HttpResult> postFormAsync(String url, Map<String, String> headerMap, Map<String, String> paramMap) {
+        return execute("postFormAsync", url, headerMap, paramMap, () -> HttpUtils.formRequest(new HttpPost(url), headerMap, paramMap));
+    }
+
+    /**
+     * POST请求，请求体转为JSON数据
+     *
+     * @param url       请求地址
+     * @param headerMap 头部
+     * @param paramMap  参数
+     * @return 响应结果
+     */
+    public CompletableFuture<HttpResult> postAsync(String url, Map<String, String> headerMap, Map<String, Object> paramMap) {
+        return postJsonAsync(url, headerMap, JacksonUtils.toJson(paramMap));
+    }
+
+    /**
+     * POST请求，请求体为JSON数据
+     *
+     * @param url  请求地址
+     * @param json 请求体（JSON）
+     * @return 响应结果
+     */
+    public CompletableFuture<HttpResult> postJsonAsync(String url, String json) {
+        return postJsonAsync(url, null, json);
+    }
+
+    /**
+     * POST请求，请求体为JSON数据，含头部
+     *
+     * @param url       请求地址
+     * @param headerMap 头部
+     * @param json      请求体（JSON）
+     * @return 响应结果
+     */
+    public CompletableFuture<HttpResult> postJsonAsync(String url, Map<String, String> headerMap, String json) {
+        return execute("postAsync", url, headerMap, json, () -> HttpUtils.jsonRequest(new HttpPost(url), headerMap, json));
+    }
+
+    /**
+     * PUT请求，请求体转为JSON数据
+     *
+     * @param url       请求地址
+     * @param headerMap 头部
+     * @param paramMap  参数
+     * @return 响应结果
+     */
+    public CompletableFuture<HttpResult> putAsync(String url, Map<String, String> headerMap, Map<String, Object> paramMap) {
+        return putJsonAsync(url, headerMap, JacksonUtils.toJson(paramMap));
+    }
+
+    /**
+     * PUT请求，请求体为JSON数据，含头部
+     *
+     * @param url       请求地址
+     * @param headerMap 头部
+     * @param json      请求体（JSON）
+     * @return 响应结果
+     */
+    public CompletableFuture<HttpResult> putJsonAsync(String url, Map<String, String> headerMap, String json) {
+        return execute("putAsync", url, headerMap, json, () -> HttpUtils.jsonRequest(new HttpPut(url), headerMap, json));
+    }
+
+    /**
+     * Delete请求
+     *
+     * @param url       请求地址及参数
+     * @param headerMap 头部
+     * @return 响应结果
+     */
+    public CompletableFuture<HttpResult> deleteAsync(String url, Map<String, String> headerMap) {
+        return execute("deleteAsync", url, headerMap, null, () -> {
+            HttpDelete httpDel = new HttpDelete(url);
+            HttpUtils.setHeader(httpDel, headerMap);
+            return httpDel;
+        });
+    }
+
+    /**
+     * Delete请求，请求体为JSON数据，含头部
+     *
+     * @param url       请求地址
+     * @param headerMap 头部
+     * @param json      请求体（JSON）
+     * @return 响应结果
+     */
+    public CompletableFuture<HttpResult> deleteJsonAsync(String url, Map<String, String> headerMap, String json) {
+        return execute("deleteAsync", url, headerMap, json, () -> HttpUtils.jsonRequest(new HttpDeleteWithBody(url), headerMap, json));
+    }
+
+    /**
+     * 通过共享的异步客户端执行请求，完成时按{@link HttpLogPolicy}记录日志
+     * 构建请求失败时返回异常完成的Future
+     */
+    private CompletableFuture<HttpResult> execute(String action, String url, Map<String, String> headerMap, Object param,
+                                                  Callable<? extends HttpUriRequest> request) {
+        final long start = System.currentTimeMillis();
+        CompletableFuture<HttpResult> future;
+        try {
+            future = HttpUtils.asyncEngine().execute(request.call());
+        } catch (Exception e) {
+            future = new CompletableFuture<>();
+            future.completeExceptionally(e);
+        }
+        future.whenComplete((result, e) -> HttpLogger.log(action, url, headerMap, param,
+                null == result || !result.isSuccess() ? null : result.getBody(), e, System.currentTimeMillis() - start));
+        return future;
+    }
+}
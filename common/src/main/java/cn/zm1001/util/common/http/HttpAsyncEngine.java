@@ -0,0 +1,166 @@
+package cn.zm1001.util.common.http;
+
+import lombok.Getter;
+import lombok.extern.slf4j.Slf4j;
+import org.apache.commons.lang3.concurrent.BasicThreadFactory;
+import org.apache.http.Consts;
+import org.apache.http.Header;
+import org.apache.http.HttpEntity;
+import org.apache.http.HttpResponse;
+import org.apache.http.client.config.RequestConfig;
+import org.apache.http.client.methods.HttpUriRequest;
+import org.apache.http.concurrent.FutureCallback;
+import org.apache.http.conn.routing.HttpRoute;
+import org.apache.http.impl.nio.client.CloseableHttpAsyncClient;
+import org.apache.http.impl.nio.client.HttpAsyncClients;
+import org.apache.http.impl.nio.conn.PoolingNHttpClientConnectionManager;
+import org.apache.http.impl.nio.reactor.DefaultConnectingIOReactor;
+import org.apache.http.impl.nio.reactor.IOReactorConfig;
+import org.apache.http.nio.reactor.IOReactorException;
+import org.apache.http.util.EntityUtils;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * @Desc 共享的异步HTTP客户端，基于NIO，少量I/O线程即可支撑大量并发请求
+ * @Author Dongd_Zhou
+ */
+@Slf4j
+public class HttpAsyncEngine implements Closeable {
+    @Getter
+    private final HttpClientConfig config;
+    private final PoolingNHttpClientConnectionManager connectionManager;
+    private final ScheduledExecutorService connectionEvictor;
+    @Getter
+    private final CloseableHttpAsyncClient httpClient;
+
+    public HttpAsyncEngine(HttpClientConfig config) {
+        this.config = null == config ? HttpClientConfig.defaultConfig() : config;
+
+        IOReactorConfig ioReactorConfig = IOReactorConfig.custom()
+                .setIoThreadCount(this.config.getIoThreadCount())
+                .setConnectTimeout(this.config.getConnectTimeout())
+                .setSoTimeout(this.config.getSocketTimeout())
+                .build();
+        try {
+            connectionManager = new PoolingNHttpClientConnectionManager(new DefaultConnectingIOReactor(ioReactorConfig));
+        } catch (IOReactorException e) {
+            throw new IllegalStateException("create io reactor fail", e);
+        }
+        connectionManager.setMaxTotal(this.config.getMaxTotal());
+        connectionManager.setDefaultMaxPerRoute(this.config.getMaxPerRoute());
+
+        RequestConfig requestConfig = RequestConfig.custom()
+                .setConnectTimeout(this.config.getConnectTimeout())
+                .setSocketTimeout(this.config.getSocketTimeout())
+                .setConnectionRequestTimeout(this.config.getConnectionRequestTimeout())
+                .build();
+
+        httpClient = HttpAsyncClients.custom()
+                .setConnectionManager(connectionManager)
+                .setDefaultRequestConfig(requestConfig)
+                .setKeepAliveStrategy(HttpClientEngine.keepAliveStrategy(this.config.getKeepAlive()))
+                .build();
+        httpClient.start();
+
+        // 后台线程定期关闭过期及空闲连接
+        connectionEvictor = Executors.newSingleThreadScheduledExecutor(new BasicThreadFactory.Builder()
+                .namingPattern("http-async-evictor-%d").daemon(true).build());
+        connectionEvictor.scheduleWithFixedDelay(() -> {
+            connectionManager.closeExpiredConnections();
+            connectionManager.closeIdleConnections(this.config.getMaxIdleTime(), TimeUnit.MILLISECONDS);
+        }, this.config.getEvictInterval(), this.config.getEvictInterval(), TimeUnit.MILLISECONDS);
+        log.info("#HttpAsyncEngine# #init# ## ioThreadCount {}, maxTotal {}, maxPerRoute {}",
+                this.config.getIoThreadCount(), this.config.getMaxTotal(), this.config.getMaxPerRoute());
+    }
+
+    /**
+     * 异步执行请求
+     * 请求失败（连接、超时等）时Future异常完成；非200响应正常完成，由调用方根据状态码处理
+     * 取消返回的Future会同时取消底层请求
+     *
+     * @param request 请求
+     * @return 响应结果
+     */
+    public CompletableFuture<HttpResult> execute(HttpUriRequest request) {
+        final CompletableFuture<HttpResult> result = new CompletableFuture<>();
+        final Future<HttpResponse> future = httpClient.execute(request, new FutureCallback<HttpResponse>() {
+            @Override
+            public void completed(HttpResponse response) {
+                try {
+                    result.complete(toResult(response));
+                } catch (Exception e) {
+                    result.completeExceptionally(e);
+                }
+            }
+
+            @Override
+            public void failed(Exception e) {
+                result.completeExceptionally(e);
+            }
+
+            @Override
+            public void cancelled() {
+                result.cancel(false);
+            }
+        });
+        result.whenComplete((r, t) -> {
+            if (result.isCancelled()) {
+                future.cancel(true);
+            }
+        });
+        return result;
+    }
+
+    /**
+     * 转换响应，异步客户端的响应体已缓存在内存中
+     *
+     * @param response 响应
+     * @return 响应结果
+     */
+    private static HttpResult toResult(HttpResponse response) throws IOException {
+        Map<String, String> headers = new TreeMap<>(String.CASE_INSENSITIVE_ORDER);
+        for (Header header : response.getAllHeaders()) {
+            headers.put(header.getName(), header.getValue());
+        }
+        HttpEntity entity = response.getEntity();
+        return new HttpResult()
+                .setStatusCode(response.getStatusLine().getStatusCode())
+                .setHeaders(headers)
+                .setBody(null == entity ? null : EntityUtils.toString(entity, Consts.UTF_8));
+    }
+
+    /**
+     * 连接池统计
+     *
+     * @return 整体及各路由的已租用/可用/等待连接数
+     */
+    public HttpPoolStats getPoolStats() {
+        Map<String, HttpPoolStats.Stats> routes = new LinkedHashMap<>();
+        for (HttpRoute route : connectionManager.getRoutes()) {
+            routes.put(route.getTargetHost().toURI(), HttpClientEngine.toStats(connectionManager.getStats(route)));
+        }
+        return new HttpPoolStats()
+                .setTotal(HttpClientEngine.toStats(connectionManager.getTotalStats()))
+                .setRoutes(routes);
+    }
+
+    @Override
+    public void close() {
+        connectionEvictor.shutdownNow();
+        try {
+            httpClient.close();
+        } catch (IOException e) {
+            log.warn("#HttpAsyncEngine# #close# ## close http async client exception", e);
+        }
+    }
+}
@@ -0,0 +1,294 @@
+package cn.zm1001.util.common.http;
+
+import org.apache.commons.collections4.MapUtils;
+import org.apache.http.Consts;
+import org.apache.http.Header;
+import org.apache.http.HeaderElement;
+import org.apache.http.HttpEntity;
+import org.apache.http.HttpHeaders;
+import org.apache.http.HttpResponse;
+import org.apache.http.HttpStatus;
+import org.apache.http.client.ResponseHandler;
+import org.apache.http.util.EntityUtils;
+
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * @Desc GET响应缓存（内存）
+ * 1. 按Cache-Control max-age（减去Age）确定缓存时间，no-store不缓存，no-cache每次使用前校验
+ * 2. 缓存过期后携带If-None-Match/If-Modified-Since请求，304时继续使用缓存
+ * 3. 按字节数限制缓存大小，超过后淘汰最久未访问的响应
+ * 4. 同一地址同时只有一个请求，其他线程等待该请求结果
+ * 缓存键为请求地址及头部，仅缓存响应200的响应体
+ * @Author Dongd_Zhou
+ */
+public class HttpCache {
+    /** 每个缓存响应的估算固定开销（字节） */
+    private static final long ENTRY_OVERHEAD = 128L;
+
+    private final HttpCacheConfig config;
+    /** 按访问顺序排列，头部为最久未访问 */
+    private final LinkedHashMap<String, CacheEntry> entries = new LinkedHashMap<>(16, 0.75F, true);
+    private final ConcurrentMap<String, CompletableFuture<String>> inflight = new ConcurrentHashMap<>();
+    private long bytes;
+
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+    private final LongAdder revalidations = new LongAdder();
+    private final LongAdder notModified = new LongAdder();
+    private final LongAdder coalesced = new LongAdder();
+    private final LongAdder evictions = new LongAdder();
+
+    public HttpCache(HttpCacheConfig config) {
+        this.config = config;
+    }
+
+    /**
+     * GET请求，优先使用缓存
+     *
+     * @param url       请求地址及参数
+     * @param headerMap 头部
+     * @return 响应消息，非200或请求异常时返回null
+     */
+    public String get(String url, Map<String, String> headerMap) {
+        final String key = key(url, headerMap);
+        CacheEntry entry = lookup(key);
+        if (null != entry && entry.isFresh(System.currentTimeMillis())) {
+            hits.increment();
+            return entry.body;
+        }
+        CompletableFuture<String> future = new CompletableFuture<>();
+        CompletableFuture<String> running = inflight.putIfAbsent(key, future);
+        if (null != running) {
+            coalesced.increment();
+            try {
+                return running.join();
+            } catch (CompletionException e) {
+                throw e.getCause() instanceof RuntimeException ? (RuntimeException) e.getCause() : e;
+            }
+        }
+        try {
+            // 查找缓存后、putIfAbsent前，上一个请求可能已写入缓存并移出inflight（写入在移出之前），重新查找避免重复请求
+            entry = lookup(key);
+            String body;
+            if (null != entry && entry.isFresh(System.currentTimeMillis())) {
+                hits.increment();
+                body = entry.body;
+            } else {
+                body = load(key, url, headerMap, entry);
+            }
+            future.complete(body);
+            return body;
+        } catch (RuntimeException e) {
+            future.completeExceptionally(e);
+            throw e;
+        } finally {
+            inflight.remove(key, future);
+        }
+    }
+
+    /**
+     * 清空缓存
+     */
+    public void clear() {
+        synchronized (entries) {
+            entries.clear();
+            bytes = 0;
+        }
+    }
+
+    /**
+     * 缓存统计
+     *
+     * @return 命中/未命中/校验等次数及当前缓存大小
+     */
+    public HttpCacheStats getStats() {
+        HttpCacheStats stats = new HttpCacheStats()
+                .setHits(hits.sum())
+                .setMisses(misses.sum())
+                .setRevalidations(revalidations.sum())
+                .setNotModified(notModified.sum())
+                .setCoalesced(coalesced.sum())
+                .setEvictions(evictions.sum());
+        synchronized (entries) {
+            return stats.setEntries(entries.size()).setBytes(bytes);
+        }
+    }
+
+    /**
+     * 请求并更新缓存
+     *
+     * @param stale 已过期的缓存，没有时为null
+     */
+    private String load(String key, String url, Map<String, String> headerMap, CacheEntry stale) {
+        Map<String, String> requestHeaders = headerMap;
+        if (null != stale && stale.hasValidator()) {
+            revalidations.increment();
+            requestHeaders = MapUtils.isEmpty(headerMap) ? new HashMap<>(4) : new HashMap<>(headerMap);
+            if (null != stale.etag) {
+                requestHeaders.put(HttpHeaders.IF_NONE_MATCH, stale.etag);
+            }
+            if (null != stale.lastModified) {
+                requestHeaders.put(HttpHeaders.IF_MODIFIED_SINCE, stale.lastModified);
+            }
+        } else {
+            misses.increment();
+        }
+        CacheEntry entry = HttpUtils.doGet(url, requestHeaders, handler(key, stale));
+        return null == entry ? null : entry.body;
+    }
+
+    private ResponseHandler<CacheEntry> handler(String key, CacheEntry stale) {
+        return response -> {
+            final long now = System.currentTimeMillis();
+            if (response.getStatusLine().getStatusCode() == HttpStatus.SC_NOT_MODIFIED && null != stale) {
+                EntityUtils.consume(response.getEntity());
+                notModified.increment();
+                CacheEntry entry = CacheEntry.of(stale.body, stale, response, now, config.getDefaultTtl());
+                store(key, entry);
+                return entry;
+            }
+            HttpEntity entity = ResponseHandlers.okEntity(response);
+            if (null == entity) {
+                return null;
+            }
+            String body = EntityUtils.toString(entity, Consts.UTF_8);
+            CacheEntry entry = CacheEntry.of(body, null, response, now, config.getDefaultTtl());
+            store(key, entry);
+            return entry;
+        };
+    }
+
+    private CacheEntry lookup(String key) {
+        synchronized (entries) {
+            return entries.get(key);
+        }
+    }
+
+    private void store(String key, CacheEntry entry) {
+        boolean cacheable = !entry.noStore && entry.bytes <= config.getMaxEntryBytes()
+                && (entry.expiresAt > System.currentTimeMillis() || entry.hasValidator());
+        synchronized (entries) {
+            CacheEntry old = cacheable ? entries.put(key, entry) : entries.remove(key);
+            if (null != old) {
+                bytes -= old.bytes;
+            }
+            if (!cacheable) {
+                return;
+            }
+            bytes += entry.bytes;
+            Iterator<CacheEntry> iterator = entries.values().iterator();
+            while (bytes > config.getMaxBytes() && iterator.hasNext()) {
+                bytes -= iterator.next().bytes;
+                iterator.remove();
+                evictions.increment();
+            }
+        }
+    }
+
+    /**
+     * 缓存键：请求地址，有头部时附加按名称排序的头部
+     */
+    private static String key(String url, Map<String, String> headerMap) {
+        if (MapUtils.isEmpty(headerMap)) {
+            return url;
+        }
+        return url + '#' + new TreeMap<>(headerMap);
+    }
+
+    /**
+     * 缓存的响应，不可变，更新时整体替换
+     */
+    private static class CacheEntry {
+        private final String body;
+        private final long bytes;
+        private final String etag;
+        private final String lastModified;
+        private final long expiresAt;
+        private final boolean noStore;
+
+        private CacheEntry(String body, String etag, String lastModified, long expiresAt, boolean noStore) {
+            this.body = body;
+            this.bytes = ENTRY_OVERHEAD + 2L * body.length();
+            this.etag = etag;
+            this.lastModified = lastModified;
+            this.expiresAt = expiresAt;
+            this.noStore = noStore;
+        }
+
+        /**
+         * 按响应头部生成缓存
+         *
+         * @param body       响应体
+         * @param stale      304校验前的缓存，响应未返回ETag/Last-Modified时沿用
+         * @param response   响应
+         * @param now        当前时间（毫秒）
+         * @param defaultTtl 响应未返回max-age时的缓存时间（毫秒）
+         */
+        static CacheEntry of(String body, CacheEntry stale, HttpResponse response, long now, long defaultTtl) {
+            long maxAge = -1L;
+            boolean noStore = false;
+            boolean noCache = false;
+            for (Header header : response.getHeaders(HttpHeaders.CACHE_CONTROL)) {
+                for (HeaderElement element : header.getElements()) {
+                    String name = element.getName();
+                    if ("no-store".equalsIgnoreCase(name)) {
+                        noStore = true;
+                    } else if ("no-cache".equalsIgnoreCase(name)) {
+                        noCache = true;
+                    } else if ("max-age".equalsIgnoreCase(name)) {
+                        maxAge = seconds(element.getValue());
+                    }
+                }
+            }
+            long ttl;
+            if (noCache) {
+                ttl = 0L;
+            } else if (maxAge >= 0) {
+                ttl = Math.max(0L, maxAge - Math.max(0L, seconds(value(response, HttpHeaders.AGE)))) * 1000L;
+            } else {
+                ttl = defaultTtl;
+            }
+            String etag = value(response, HttpHeaders.ETAG);
+            String lastModified = value(response, HttpHeaders.LAST_MODIFIED);
+            if (null != stale) {
+                etag = null == etag ? stale.etag : etag;
+                lastModified = null == lastModified ? stale.lastModified : lastModified;
+            }
+            return new CacheEntry(body, etag, lastModified, now + ttl, noStore);
+        }
+
+        boolean isFresh(long now) {
+            return now < expiresAt;
+        }
+
+        boolean hasValidator() {
+            return null != etag || null != lastModified;
+        }
+
+        private static String value(HttpResponse response, String name) {
+            Header header = response.getFirstHeader(name);
+            return null == header ? null : header.getValue();
+        }
+
+        private static long seconds(String value) {
+            if (null == value) {
+                return -1L;
+            }
+            try {
+                return Long.parseLong(value.trim());
+            } catch (NumberFormatException e) {
+                return -1L;
+            }
+        }
+    }
+}
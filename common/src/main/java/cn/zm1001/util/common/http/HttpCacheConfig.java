@@ -0,0 +1,28 @@
+package cn.zm1001.util.common.http;
+
+import lombok.Data;
+import lombok.experimental.Accessors;
+
+/**
+ * @Desc GET响应缓存配置
+ * @Author Dongd_Zhou
+ */
+@Data
+@Accessors(chain = true)
+public class HttpCacheConfig {
+    /** 缓存最大字节数，超过后淘汰最久未访问的响应 */
+    private long maxBytes = 64L * 1024 * 1024;
+    /** 单个响应最大字节数，超过时不缓存 */
+    private long maxEntryBytes = 1024L * 1024;
+    /** 响应未返回Cache-Control max-age时的缓存时间（毫秒），0为每次使用前按ETag/Last-Modified校验 */
+    private long defaultTtl = 0L;
+
+    /**
+     * 默认配置
+     *
+     * @return 默认配置
+     */
+    public static HttpCacheConfig defaultConfig() {
+        return new HttpCacheConfig();
+    }
+}
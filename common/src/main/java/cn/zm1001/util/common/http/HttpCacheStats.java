@@ -0,0 +1,29 @@
+package cn.zm1001.util.common.http;
+
+import lombok.Data;
+import lombok.experimental.Accessors;
+
+/**
+ * @Desc GET响应缓存统计
+ * @Author Dongd_Zhou
+ */
+@Data
+@Accessors(chain = true)
+public class HttpCacheStats {
+    /** 命中次数（缓存未过期，未请求） */
+    private long hits;
+    /** 未命中次数（请求完整响应） */
+    private long misses;
+    /** 校验次数（缓存过期，携带If-None-Match/If-Modified-Since请求） */
+    private long revalidations;
+    /** 校验后未修改（304）次数 */
+    private long notModified;
+    /** 等待同一地址进行中请求的次数 */
+    private long coalesced;
+    /** 淘汰次数 */
+    private long evictions;
+    /** 当前缓存响应数 */
+    private int entries;
+    /** 当前缓存字节数 */
+    private long bytes;
+}
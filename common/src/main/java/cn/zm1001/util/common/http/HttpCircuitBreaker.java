@@ -0,0 +1,148 @@
+package cn.zm1001.util.common.http;
+
+import lombok.extern.slf4j.Slf4j;
+
+import java.util.Arrays;
+
+/**
+ * @Desc 基于滑动窗口（最近N次请求）失败率的熔断器
+ * 关闭：正常放行，失败率达到阈值后打开
+ * 打开：直接拒绝，持续时间结束后半开
+ * 半开：放行少量试探请求，全部成功后关闭，任一失败重新打开
+ * @Author Dongd_Zhou
+ */
+@Slf4j
+class HttpCircuitBreaker {
+    enum State {
+        CLOSED, OPEN, HALF_OPEN
+    }
+
+    private final String host;
+    private final HttpPolicy policy;
+    /** 滑动窗口，true为失败 */
+    private final boolean[] window;
+    private int index;
+    private int count;
+    private int failures;
+
+    private State state = State.CLOSED;
+    private long openUntil;
+    /** 半开状态剩余可放行的试探请求数 */
+    private int halfOpenPermits;
+    /** 半开状态已成功的试探请求数 */
+    private int halfOpenSuccesses;
+
+    HttpCircuitBreaker(String host, HttpPolicy policy) {
+        this.host = host;
+        this.policy = policy;
+        this.window = new boolean[Math.max(1, policy.getSlidingWindowSize())];
+    }
+
+    /**
+     * 是否允许请求
+     *
+     * @param now 当前时间（毫秒）
+     * @return 是否允许
+     */
+    synchronized boolean tryAcquire(long now) {
+        switch (state) {
+            case OPEN:
+                if (now < openUntil) {
+                    return false;
+                }
+                halfOpen();
+                return tryHalfOpen();
+            case HALF_OPEN:
+                return tryHalfOpen();
+            default:
+                return true;
+        }
+    }
+
+    /**
+     * 记录成功
+     */
+    synchronized void onSuccess() {
+        if (state == State.HALF_OPEN) {
+            if (++halfOpenSuccesses >= Math.max(1, policy.getHalfOpenCalls())) {
+                reset();
+                log.info("#circuitBreaker# #closed# #{}#", host);
+            }
+            return;
+        }
+        record(false);
+    }
+
+    /**
+     * 记录失败
+     *
+     * @param now 当前时间（毫秒）
+     * @return 是否因此打开熔断
+     */
+    synchronized boolean onFailure(long now) {
+        if (state == State.HALF_OPEN) {
+            open(now);
+            return true;
+        }
+        if (state == State.OPEN) {
+            return false;
+        }
+        record(true);
+        if (count >= policy.getMinimumCalls() && failures * 100 >= policy.getFailureRateThreshold() * count) {
+            open(now);
+            return true;
+        }
+        return false;
+    }
+
+    synchronized State getState() {
+        return state;
+    }
+
+    private void record(boolean failure) {
+        if (count == window.length) {
+            if (window[index]) {
+                failures--;
+            }
+        } else {
+            count++;
+        }
+        window[index] = failure;
+        if (failure) {
+            failures++;
+        }
+        index = (index + 1) % window.length;
+    }
+
+    private void halfOpen() {
+        state = State.HALF_OPEN;
+        halfOpenPermits = Math.max(1, policy.getHalfOpenCalls());
+        halfOpenSuccesses = 0;
+        log.info("#circuitBreaker# #halfOpen# #{}#", host);
+    }
+
+    /**
+     * 半开状态按试探请求数放行
+     */
+    private boolean tryHalfOpen() {
+        if (halfOpenPermits <= 0) {
+            return false;
+        }
+        halfOpenPermits--;
+        return true;
+    }
+
+    private void open(long now) {
+        state = State.OPEN;
+        openUntil = now + policy.getOpenDuration();
+        log.warn("#circuitBreaker# #open# #{}# failures {}/{}, open {}ms", host, failures, count, policy.getOpenDuration());
+    }
+
+    private void reset() {
+        state = State.CLOSED;
+        index = 0;
+        count = 0;
+        failures = 0;
+        Arrays.fill(window, false);
+    }
+}
@@ -0,0 +1,44 @@
+package cn.zm1001.util.common.http;
+
+import lombok.Data;
+import lombok.experimental.Accessors;
+
+/**
+ * @Desc HTTP连接池配置
+ * @Author Dongd_Zhou
+ */
+@Data
+@Accessors(chain = true)
+public class HttpClientConfig {
+    /** 连接池最大连接数 */
+    private int maxTotal = 200;
+    /** 每个路由（目标主机）最大连接数 */
+    private int maxPerRoute = 50;
+    /** 建立连接超时时间（毫秒） */
+    private int connectTimeout = 5000;
+    /** 读取数据超时时间（毫秒） */
+    private int socketTimeout = 10000;
+    /** 从连接池获取连接超时时间（毫秒） */
+    private int connectionRequestTimeout = 3000;
+    /** 服务端未返回Keep-Alive时，连接默认保持时间（毫秒） */
+    private long keepAlive = 30000L;
+    /** 连接最大存活时间（毫秒），小于等于0时不限制 */
+    private long timeToLive = -1L;
+    /** 连接空闲多久后复用前需要校验（毫秒） */
+    private int validateAfterInactivity = 2000;
+    /** 空闲连接最大保留时间（毫秒），超过后由清理线程关闭 */
+    private long maxIdleTime = 60000L;
+    /** 清理线程检查过期及空闲连接的间隔（毫秒） */
+    private long evictInterval = 5000L;
+    /** 异步客户端I/O线程数 */
+    private int ioThreadCount = Runtime.getRuntime().availableProcessors();
+
+    /**
+     * 默认配置
+     *
+     * @return 默认配置
+     */
+    public static HttpClientConfig defaultConfig() {
+        return new HttpClientConfig();
+    }
+}
@@ -0,0 +1,108 @@
+package cn.zm1001.util.common.http;
+
+import lombok.Getter;
+import lombok.extern.slf4j.Slf4j;
+import org.apache.http.client.config.RequestConfig;
+import org.apache.http.conn.ConnectionKeepAliveStrategy;
+import org.apache.http.conn.routing.HttpRoute;
+import org.apache.http.impl.client.CloseableHttpClient;
+import org.apache.http.impl.client.DefaultConnectionKeepAliveStrategy;
+import org.apache.http.impl.client.HttpClients;
+import org.apache.http.impl.client.IdleConnectionEvictor;
+import org.apache.http.impl.conn.PoolingHttpClientConnectionManager;
+import org.apache.http.pool.PoolStats;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * @Desc 共享的HTTP客户端，基于连接池复用TCP/TLS连接
+ * @Author Dongd_Zhou
+ */
+@Slf4j
+public class HttpClientEngine implements Closeable {
+    @Getter
+    private final HttpClientConfig config;
+    private final PoolingHttpClientConnectionManager connectionManager;
+    private final IdleConnectionEvictor connectionEvictor;
+    @Getter
+    private final CloseableHttpClient httpClient;
+
+    public HttpClientEngine(HttpClientConfig config) {
+        this.config = null == config ? HttpClientConfig.defaultConfig() : config;
+
+        connectionManager = new PoolingHttpClientConnectionManager(this.config.getTimeToLive(), TimeUnit.MILLISECONDS);
+        connectionManager.setMaxTotal(this.config.getMaxTotal());
+        connectionManager.setDefaultMaxPerRoute(this.config.getMaxPerRoute());
+        connectionManager.setValidateAfterInactivity(this.config.getValidateAfterInactivity());
+
+        RequestConfig requestConfig = RequestConfig.custom()
+                .setConnectTimeout(this.config.getConnectTimeout())
+                .setSocketTimeout(this.config.getSocketTimeout())
+                .setConnectionRequestTimeout(this.config.getConnectionRequestTimeout())
+                .build();
+
+        httpClient = HttpClients.custom()
+                .setConnectionManager(connectionManager)
+                .setDefaultRequestConfig(requestConfig)
+                .setKeepAliveStrategy(keepAliveStrategy(this.config.getKeepAlive()))
+                .build();
+
+        // 后台线程定期关闭过期及空闲连接
+        connectionEvictor = new IdleConnectionEvictor(connectionManager,
+                this.config.getEvictInterval(), TimeUnit.MILLISECONDS,
+                this.config.getMaxIdleTime(), TimeUnit.MILLISECONDS);
+        connectionEvictor.start();
+        log.info("#HttpClientEngine# #init# ## maxTotal {}, maxPerRoute {}, connectTimeout {}, socketTimeout {}",
+                this.config.getMaxTotal(), this.config.getMaxPerRoute(), this.config.getConnectTimeout(), this.config.getSocketTimeout());
+    }
+
+    /**
+     * 连接保持策略，服务端未返回Keep-Alive超时时间时使用默认值
+     *
+     * @param keepAlive 默认保持时间（毫秒）
+     * @return 连接保持策略
+     */
+    static ConnectionKeepAliveStrategy keepAliveStrategy(final long keepAlive) {
+        return (response, context) -> {
+            long duration = DefaultConnectionKeepAliveStrategy.INSTANCE.getKeepAliveDuration(response, context);
+            return duration > 0 ? duration : keepAlive;
+        };
+    }
+
+    /**
+     * 连接池统计
+     *
+     * @return 整体及各路由的已租用/可用/等待连接数
+     */
+    public HttpPoolStats getPoolStats() {
+        Map<String, HttpPoolStats.Stats> routes = new LinkedHashMap<>();
+        for (HttpRoute route : connectionManager.getRoutes()) {
+            routes.put(route.getTargetHost().toURI(), toStats(connectionManager.getStats(route)));
+        }
+        return new HttpPoolStats()
+                .setTotal(toStats(connectionManager.getTotalStats()))
+                .setRoutes(routes);
+    }
+
+    static HttpPoolStats.Stats toStats(PoolStats poolStats) {
+        return new HttpPoolStats.Stats()
+                .setLeased(poolStats.getLeased())
+                .setAvailable(poolStats.getAvailable())
+                .setPending(poolStats.getPending())
+                .setMax(poolStats.getMax());
+    }
+
+    @Override
+    public void close() {
+        connectionEvictor.shutdown();
+        try {
+            httpClient.close();
+        } catch (IOException e) {
+            log.warn("#HttpClientEngine# #close# ## close http client exception", e);
+        }
+    }
+}
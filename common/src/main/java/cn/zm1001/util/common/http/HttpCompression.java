@@ -0,0 +1,29 @@
+package cn.zm1001.util.common.http;
+
+import lombok.Data;
+import lombok.experimental.Accessors;
+
+import java.util.zip.Deflater;
+
+/**
+ * @Desc 请求体压缩配置，请求体达到阈值时以gzip压缩发送（Content-Encoding: gzip）
+ * 响应默认携带Accept-Encoding: gzip,deflate，压缩的响应读取时按流解压
+ * @Author Dongd_Zhou
+ */
+@Data
+@Accessors(chain = true)
+public class HttpCompression {
+    /** 请求体达到多少字节后压缩 */
+    private int threshold = 8 * 1024;
+    /** 压缩级别（1~9），-1为默认级别 */
+    private int level = Deflater.DEFAULT_COMPRESSION;
+
+    /**
+     * 默认配置
+     *
+     * @return 默认配置
+     */
+    public static HttpCompression defaultCompression() {
+        return new HttpCompression();
+    }
+}
@@ -0,0 +1,38 @@
+package cn.zm1001.util.common.http;
+
+import lombok.Data;
+import lombok.experimental.Accessors;
+
+/**
+ * @Desc 多副本请求配置：按延迟选择主机，超过观测的分位延迟后向下一个主机发送对冲请求
+ * @Author Dongd_Zhou
+ */
+@Data
+@Accessors(chain = true)
+public class HttpHedgeConfig {
+    /** 延迟指数加权移动平均的权重（0~1），越大越偏向最近的请求 */
+    private double ewmaAlpha = 0.2D;
+    /** 发送对冲请求的延迟分位（百分比） */
+    private int hedgePercentile = 95;
+    /** 样本不足时发送对冲请求的延迟（毫秒） */
+    private long hedgeDelay = 100L;
+    /** 对冲请求的最小延迟（毫秒），避免延迟极低时几乎每个请求都对冲 */
+    private long minHedgeDelay = 5L;
+    /** 计算分位延迟需要的最少样本数 */
+    private int minSamples = 20;
+    /** 最多对冲请求数，0为不对冲（仍按延迟选择主机，失败时切换主机） */
+    private int maxHedges = 1;
+    /** 请求失败或5xx响应时计入移动平均的延迟（毫秒），使失败的主机排序靠后 */
+    private long failurePenalty = 1000L;
+    /** 延迟分布的统计窗口（毫秒），分位延迟按最近一到两个窗口计算 */
+    private long window = 60000L;
+
+    /**
+     * 默认配置
+     *
+     * @return 默认配置
+     */
+    public static HttpHedgeConfig defaultConfig() {
+        return new HttpHedgeConfig();
+    }
+}
@@ -0,0 +1,95 @@
+package cn.zm1001.util.common.http;
+
+import lombok.Getter;
+
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * @Desc 单个目标主机的策略运行状态：熔断器、并发限制及统计
+ * @Author Dongd_Zhou
+ */
+class HttpHostGuard {
+    @Getter
+    private final HttpPolicy policy;
+    private final HttpCircuitBreaker circuitBreaker;
+    private final Semaphore bulkhead;
+
+    final LongAdder calls = new LongAdder();
+    final LongAdder successes = new LongAdder();
+    final LongAdder failures = new LongAdder();
+    final LongAdder retries = new LongAdder();
+    final LongAdder circuitRejected = new LongAdder();
+    final LongAdder circuitOpened = new LongAdder();
+    final LongAdder bulkheadRejected = new LongAdder();
+
+    HttpHostGuard(String host, HttpPolicy policy) {
+        this.policy = policy;
+        this.circuitBreaker = policy.isCircuitBreakerEnabled() ? new HttpCircuitBreaker(host, policy) : null;
+        this.bulkhead = policy.getMaxConcurrentCalls() > 0 ? new Semaphore(policy.getMaxConcurrentCalls()) : null;
+    }
+
+    /**
+     * 熔断器是否允许请求
+     */
+    boolean tryPass() {
+        if (null == circuitBreaker || circuitBreaker.tryAcquire(System.currentTimeMillis())) {
+            return true;
+        }
+        circuitRejected.increment();
+        return false;
+    }
+
+    /**
+     * 获取并发许可
+     */
+    boolean tryAcquire() throws InterruptedException {
+        if (null == bulkhead) {
+            return true;
+        }
+        boolean acquired = policy.getMaxWait() > 0
+                ? bulkhead.tryAcquire(policy.getMaxWait(), TimeUnit.MILLISECONDS)
+                : bulkhead.tryAcquire();
+        if (!acquired) {
+            bulkheadRejected.increment();
+        }
+        return acquired;
+    }
+
+    /**
+     * 释放并发许可
+     */
+    void release() {
+        if (null != bulkhead) {
+            bulkhead.release();
+        }
+    }
+
+    void onSuccess() {
+        successes.increment();
+        if (null != circuitBreaker) {
+            circuitBreaker.onSuccess();
+        }
+    }
+
+    void onFailure() {
+        failures.increment();
+        if (null != circuitBreaker && circuitBreaker.onFailure(System.currentTimeMillis())) {
+            circuitOpened.increment();
+        }
+    }
+
+    HttpPolicyStats stats() {
+        return new HttpPolicyStats()
+                .setCalls(calls.sum())
+                .setSuccesses(successes.sum())
+                .setFailures(failures.sum())
+                .setRetries(retries.sum())
+                .setCircuitRejected(circuitRejected.sum())
+                .setCircuitOpened(circuitOpened.sum())
+                .setBulkheadRejected(bulkheadRejected.sum())
+                .setCircuitState(null == circuitBreaker ? null : circuitBreaker.getState().name())
+                .setActiveCalls(null == bulkhead ? 0 : policy.getMaxConcurrentCalls() - bulkhead.availablePermits());
+    }
+}
@@ -0,0 +1,154 @@
+package cn.zm1001.util.common.http;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * @Desc 单个主机的延迟记录：指数加权移动平均及分桶延迟分布
+ * 延迟分布按窗口轮换，分位延迟由当前及上一个窗口合并计算，能跟随延迟变化
+ * @Author Dongd_Zhou
+ */
+class HttpLatencyRecorder {
+    /** 分桶上限（毫秒），最后一个桶不限上限 */
+    private static final long[] BOUNDS = {1, 2, 3, 5, 7, 10, 15, 20, 30, 50, 75, 100, 150, 200, 300, 500, 750,
+            1000, 1500, 2000, 3000, 5000, 10000, 30000, Long.MAX_VALUE};
+
+    private final HttpHedgeConfig config;
+    /** 移动平均（double的位表示），负数为无样本 */
+    private final AtomicLong ewmaBits = new AtomicLong(Double.doubleToLongBits(-1D));
+    private final LongAdder count = new LongAdder();
+    private final LongAdder errors = new LongAdder();
+
+    private volatile AtomicLongArray current = new AtomicLongArray(BOUNDS.length);
+    private volatile AtomicLongArray previous = new AtomicLongArray(BOUNDS.length);
+    private volatile long windowStart = System.currentTimeMillis();
+
+    HttpLatencyRecorder(HttpHedgeConfig config) {
+        this.config = config;
+    }
+
+    /**
+     * 记录成功请求的延迟
+     *
+     * @param millis 延迟（毫秒）
+     */
+    void record(long millis) {
+        count.increment();
+        updateEwma(millis);
+        histogram().incrementAndGet(bucket(millis));
+    }
+
+    /**
+     * 记录失败请求，按{@link HttpHedgeConfig#getFailurePenalty()}计入移动平均，不计入延迟分布
+     *
+     * @param millis 延迟（毫秒）
+     */
+    void recordFailure(long millis) {
+        count.increment();
+        errors.increment();
+        updateEwma(Math.max(millis, config.getFailurePenalty()));
+    }
+
+    /**
+     * 延迟移动平均
+     *
+     * @return 移动平均（毫秒），无样本时为-1
+     */
+    double ewma() {
+        return Double.longBitsToDouble(ewmaBits.get());
+    }
+
+    /**
+     * 分位延迟，取所在桶的上限
+     *
+     * @param percentile 分位（百分比）
+     * @return 分位延迟（毫秒），样本不足时为-1
+     */
+    long percentile(int percentile) {
+        long[] counts = counts();
+        long total = 0;
+        for (long c : counts) {
+            total += c;
+        }
+        if (total <= 0 || total < config.getMinSamples()) {
+            return -1L;
+        }
+        long rank = (long) Math.ceil(total * Math.min(100, Math.max(0, percentile)) / 100D);
+        long cumulative = 0;
+        for (int i = 0; i < counts.length; i++) {
+            cumulative += counts[i];
+            if (cumulative >= rank) {
+                return i == BOUNDS.length - 1 ? BOUNDS[i - 1] : BOUNDS[i];
+            }
+        }
+        return BOUNDS[BOUNDS.length - 2];
+    }
+
+    HttpLatencyStats stats() {
+        long[] counts = counts();
+        Map<String, Long> histogram = new LinkedHashMap<>();
+        for (int i = 0; i < counts.length; i++) {
+            histogram.put(i == BOUNDS.length - 1 ? "+Inf" : String.valueOf(BOUNDS[i]), counts[i]);
+        }
+        return new HttpLatencyStats()
+                .setCount(count.sum())
+                .setErrors(errors.sum())
+                .setEwma(ewma())
+                .setP50(percentile(50))
+                .setP95(percentile(95))
+                .setP99(percentile(99))
+                .setHistogram(histogram);
+    }
+
+    private void updateEwma(double millis) {
+        final double alpha = config.getEwmaAlpha();
+        long prev;
+        long next;
+        do {
+            prev = ewmaBits.get();
+            double old = Double.longBitsToDouble(prev);
+            next = Double.doubleToLongBits(old < 0 ? millis : old + alpha * (millis - old));
+        } while (!ewmaBits.compareAndSet(prev, next));
+    }
+
+    /**
+     * 当前窗口的延迟分布，窗口到期时轮换
+     */
+    private AtomicLongArray histogram() {
+        final long now = System.currentTimeMillis();
+        if (now - windowStart >= config.getWindow()) {
+            synchronized (this) {
+                if (now - windowStart >= config.getWindow()) {
+                    AtomicLongArray last = current;
+                    current = new AtomicLongArray(BOUNDS.length);
+                    // 超过两个窗口未请求时上一个窗口已无参考价值
+                    previous = now - windowStart >= 2 * config.getWindow() ? new AtomicLongArray(BOUNDS.length) : last;
+                    windowStart = now;
+                }
+            }
+        }
+        return current;
+    }
+
+    private long[] counts() {
+        AtomicLongArray cur = histogram();
+        AtomicLongArray prev = previous;
+        long[] counts = new long[BOUNDS.length];
+        for (int i = 0; i < counts.length; i++) {
+            counts[i] = cur.get(i) + prev.get(i);
+        }
+        return counts;
+    }
+
+    private static int bucket(long millis) {
+        for (int i = 0; i < BOUNDS.length; i++) {
+            if (millis <= BOUNDS[i]) {
+                return i;
+            }
+        }
+        return BOUNDS.length - 1;
+    }
+}
@@ -0,0 +1,29 @@
+package cn.zm1001.util.common.http;
+
+import lombok.Data;
+import lombok.experimental.Accessors;
+
+import java.util.Map;
+
+/**
+ * @Desc 单个主机的请求延迟统计
+ * @Author Dongd_Zhou
+ */
+@Data
+@Accessors(chain = true)
+public class HttpLatencyStats {
+    /** 完成的请求数（不含被取消的对冲请求） */
+    private long count;
+    /** 失败次数（异常或5xx响应） */
+    private long errors;
+    /** 延迟指数加权移动平均（毫秒），无样本时为-1 */
+    private double ewma;
+    /** 统计窗口内的50分位延迟（毫秒），样本不足时为-1 */
+    private long p50;
+    /** 统计窗口内的95分位延迟（毫秒），样本不足时为-1 */
+    private long p95;
+    /** 统计窗口内的99分位延迟（毫秒），样本不足时为-1 */
+    private long p99;
+    /** 统计窗口内的延迟分布：桶上限（毫秒，最后为+Inf） -> 请求数 */
+    private Map<String, Long> histogram;
+}
@@ -0,0 +1,60 @@
+package cn.zm1001.util.common.http;
+
+import lombok.Data;
+import lombok.experimental.Accessors;
+
+import java.util.Set;
+import java.util.TreeSet;
+
+/**
+ * @Desc HTTP请求日志策略
+ * @Author Dongd_Zhou
+ */
+@Data
+@Accessors(chain = true)
+public class HttpLogPolicy {
+    /** 是否记录日志 */
+    private boolean enabled = true;
+    /** 请求体、响应体最多记录的字节数（UTF-8），超出部分截断，小于0时不截断 */
+    private int maxBodyBytes = 2048;
+    /** 成功请求采样率，每N次记录1次，小于等于1时全部记录；失败请求不采样 */
+    private int sampleRate = 1;
+    /** 是否仅记录失败请求（异常或非200响应） */
+    private boolean onlyFailure = false;
+    /** 慢请求阈值（毫秒），大于0时成功请求仅在耗时不小于阈值时记录 */
+    private long slowThreshold = 0L;
+    /** 需要脱敏的头部名称，不区分大小写 */
+    private Set<String> redactHeaders = defaultRedactHeaders();
+
+    private static Set<String> defaultRedactHeaders() {
+        Set<String> headers = new TreeSet<>(String.CASE_INSENSITIVE_ORDER);
+        headers.add("Authorization");
+        headers.add("Proxy-Authorization");
+        headers.add("Cookie");
+        return headers;
+    }
+
+    /**
+     * 设置需要脱敏的头部名称，不区分大小写
+     *
+     * @param redactHeaders 头部名称
+     * @return 日志策略
+     */
+    public HttpLogPolicy setRedactHeaders(Set<String> redactHeaders) {
+        Set<String> headers = new TreeSet<>(String.CASE_INSENSITIVE_ORDER);
+        if (null != redactHeaders) {
+            headers.addAll(redactHeaders);
+        }
+        this.redactHeaders = headers;
+        return this;
+    }
+
+    /**
+     * 默认策略
+     *
+     * @return 默认策略
+     */
+    public static HttpLogPolicy defaultPolicy() {
+        return new HttpLogPolicy();
+    }
+}
@@ -0,0 +1,150 @@
+package cn.zm1001.util.common.http;
+
+import cn.zm1001.util.common.JacksonUtils;
+import org.apache.commons.collections4.MapUtils;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.function.Supplier;
+
+/**
+ * @Desc HTTP请求日志，按{@link HttpLogPolicy}决定是否记录
+ * 头部、参数在确定需要记录后才序列化，请求体、响应体按字节截断
+ * @Author Dongd_Zhou
+ */
+public class HttpLogger {
+    /** 沿用HttpUtils的日志名称，便于按原有方式配置日志级别 */
+    private static final Logger log = LoggerFactory.getLogger(HttpUtils.class);
+    private static final String REDACTED = "******";
+
+    private static volatile HttpLogPolicy policy = HttpLogPolicy.defaultPolicy();
+
+    private HttpLogger() {
+        throw new UnsupportedOperationException();
+    }
+
+    public static HttpLogPolicy getPolicy() {
+        return policy;
+    }
+
+    public static void setPolicy(HttpLogPolicy policy) {
+        HttpLogger.policy = null == policy ? HttpLogPolicy.defaultPolicy() : policy;
+    }
+
+    /**
+     * 记录请求日志
+     *
+     * @param action    请求类型，如get、post
+     * @param url       请求地址
+     * @param headerMap 请求头部
+     * @param param     请求参数，Map等对象及{@link Supplier}在需要记录时才转为文本
+     * @param result    响应结果，null表示非200响应
+     * @param error     请求异常
+     * @param elapsed   耗时（毫秒）
+     */
+    public static void log(String action, String url, Map<String, String> headerMap, Object param, Object result,
+                           Throwable error, long elapsed) {
+        final HttpLogPolicy current = policy;
+        if (!current.isEnabled()) {
+            return;
+        }
+        if (null != error) {
+            if (log.isErrorEnabled()) {
+                log.error("#{}# #exception# #{}# {} {} {} {}ms", action, HttpUtils.getUrl(url), url,
+                        headers(headerMap, current), text(param, current), elapsed, error);
+            }
+            return;
+        }
+        if (!log.isInfoEnabled()) {
+            return;
+        }
+        // 非200响应视为失败，不受采样及慢请求阈值限制
+        if (null != result) {
+            if (current.isOnlyFailure()) {
+                return;
+            }
+            if (current.getSlowThreshold() > 0 && elapsed < current.getSlowThreshold()) {
+                return;
+            }
+            if (current.getSampleRate() > 1 && ThreadLocalRandom.current().nextInt(current.getSampleRate()) != 0) {
+                return;
+            }
+        }
+        log.info("#{}# #result# #{}# {} {} {} {} {}ms", action, HttpUtils.getUrl(url), url,
+                headers(headerMap, current), text(param, current), text(result, current), elapsed);
+    }
+
+    /**
+     * 头部转为JSON，脱敏指定头部
+     */
+    private static String headers(Map<String, String> headerMap, HttpLogPolicy policy) {
+        if (MapUtils.isEmpty(headerMap) || policy.getRedactHeaders().isEmpty()) {
+            return JacksonUtils.toJson(headerMap);
+        }
+        Map<String, String> headers = new LinkedHashMap<>(headerMap);
+        for (Map.Entry<String, String> entry : headers.entrySet()) {
+            if (policy.getRedactHeaders().contains(entry.getKey())) {
+                entry.setValue(REDACTED);
+            }
+        }
+        return JacksonUtils.toJson(headers);
+    }
+
+    /**
+     * 参数、响应转为日志文本
+     * {@link Supplier}在此时才取值，字符串按字节截断，数字及布尔原样输出，流式处理结果等其他对象仅输出类型
+     */
+    private static Object text(Object obj, HttpLogPolicy policy) {
+        if (obj instanceof Supplier) {
+            obj = ((Supplier<?>) obj).get();
+        }
+        if (null == obj || obj instanceof Number || obj instanceof Boolean) {
+            return obj;
+        }
+        if (obj instanceof Map || obj instanceof Iterable) {
+            return truncate(JacksonUtils.toJson(obj), policy.getMaxBodyBytes());
+        }
+        if (obj instanceof CharSequence) {
+            return truncate(obj.toString(), policy.getMaxBodyBytes());
+        }
+        return obj.getClass().getSimpleName();
+    }
+
+    /**
+     * 按UTF-8字节数截断字符串
+     *
+     * @param str      字符串
+     * @param maxBytes 最大字节数，小于0时不截断
+     * @return 截断后的字符串
+     */
+    static String truncate(String str, int maxBytes) {
+        if (null == str || maxBytes < 0 || str.length() * 3 <= maxBytes) {
+            return str;
+        }
+        int bytes = 0;
+        for (int i = 0, len = str.length(); i < len; i++) {
+            char c = str.charAt(i);
+            int size;
+            if (c < 0x80) {
+                size = 1;
+            } else if (c < 0x800) {
+                size = 2;
+            } else if (Character.isHighSurrogate(c) && i + 1 < len && Character.isLowSurrogate(str.charAt(i + 1))) {
+                size = 4;
+            } else {
+                size = 3;
+            }
+            if (bytes + size > maxBytes) {
+                return str.substring(0, i) + "...(" + len + " chars)";
+            }
+            bytes += size;
+            if (size == 4) {
+                i++;
+            }
+        }
+        return str;
+    }
+}
@@ -0,0 +1,226 @@
+package cn.zm1001.util.common.http;
+
+import cn.zm1001.util.common.exception.HttpException;
+import lombok.extern.slf4j.Slf4j;
+import org.apache.http.HttpEntity;
+import org.apache.http.HttpEntityEnclosingRequest;
+import org.apache.http.client.ResponseHandler;
+import org.apache.http.client.methods.CloseableHttpResponse;
+import org.apache.http.client.methods.HttpUriRequest;
+import org.apache.http.impl.client.CloseableHttpClient;
+import org.apache.http.util.EntityUtils;
+
+import java.io.IOException;
+import java.net.URI;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * @Desc 按目标主机配置的请求策略：重试（指数退避+随机抖动）、滑动窗口熔断、并发限制
+ * 主机名称为"host"或"host:port"，优先匹配"host:port"；未配置策略的主机直接请求
+ * 如：{@code HttpPolicies.register("api.example.com", new HttpPolicy().setMaxRetries(2).setCircuitBreakerEnabled(true))}
+ * @Author Dongd_Zhou
+ */
+@Slf4j
+public class HttpPolicies {
+    /** 幂等请求方法 */
+    private static final Set<String> IDEMPOTENT_METHODS = new HashSet<>(Arrays.asList("GET", "HEAD", "OPTIONS", "PUT", "DELETE", "TRACE"));
+
+    private static final ConcurrentMap<String, HttpPolicy> POLICIES = new ConcurrentHashMap<>();
+    private static final ConcurrentMap<String, HttpHostGuard> GUARDS = new ConcurrentHashMap<>();
+    /** 未单独配置主机时使用的策略，为null时不启用 */
+    private static volatile HttpPolicy defaultPolicy;
+
+    private HttpPolicies() {
+        throw new UnsupportedOperationException();
+    }
+
+    /**
+     * 配置主机策略，会重置该主机的熔断状态及统计
+     *
+     * @param host   主机，"host"或"host:port"
+     * @param policy 策略，为null时移除
+     */
+    public static void register(String host, HttpPolicy policy) {
+        if (null == policy) {
+            POLICIES.remove(host);
+        } else {
+            POLICIES.put(host, policy);
+        }
+        GUARDS.remove(host);
+    }
+
+    /**
+     * 配置默认策略，适用于所有未单独配置的主机
+     *
+     * @param policy 策略，为null时不启用
+     */
+    public static void setDefaultPolicy(HttpPolicy policy) {
+        defaultPolicy = policy;
+        GUARDS.keySet().removeIf(host -> !POLICIES.containsKey(host));
+    }
+
+    /**
+     * 各主机策略统计
+     *
+     * @return 主机 -> 统计
+     */
+    public static Map<String, HttpPolicyStats> getStats() {
+        Map<String, HttpPolicyStats> stats = new LinkedHashMap<>();
+        GUARDS.forEach((host, guard) -> stats.put(host, guard.stats()));
+        return stats;
+    }
+
+    /**
+     * 查找请求对应主机的策略状态
+     *
+     * @param uri 请求地址
+     * @return 策略状态，未配置策略时返回null
+     */
+    private static HttpHostGuard guard(URI uri) {
+        if (POLICIES.isEmpty() && null == defaultPolicy) {
+            return null;
+        }
+        final String host = uri.getHost();
+        if (null == host) {
+            return null;
+        }
+        final String hostPort = uri.getPort() > 0 ? host + ":" + uri.getPort() : host;
+        String key = hostPort;
+        HttpPolicy policy = POLICIES.get(hostPort);
+        if (null == policy && !hostPort.equals(host)) {
+            key = host;
+            policy = POLICIES.get(host);
+        }
+        if (null == policy) {
+            policy = defaultPolicy;
+            key = hostPort;
+        }
+        if (null == policy) {
+            return null;
+        }
+        final HttpPolicy hostPolicy = policy;
+        final String guardKey = key;
+        return GUARDS.computeIfAbsent(guardKey, k -> new HttpHostGuard(guardKey, hostPolicy));
+    }
+
+    /**
+     * 按主机策略执行请求
+     *
+     * @param httpClient 客户端
+     * @param request    请求
+     * @param handler    响应处理
+     * @return 响应处理结果
+     * @throws IOException 请求异常
+     */
+    static <T> T execute(CloseableHttpClient httpClient, HttpUriRequest request, ResponseHandler<? extends T> handler) throws IOException {
+        final HttpHostGuard guard = guard(request.getURI());
+        if (null == guard) {
+            return httpClient.execute(request, handler);
+        }
+        guard.calls.increment();
+        try {
+            if (!guard.tryAcquire()) {
+                throw new HttpException("bulkhead full: " + request.getURI().getHost());
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new HttpException("bulkhead wait interrupted", e);
+        }
+        try {
+            if (!guard.tryPass()) {
+                throw new HttpException("circuit breaker open: " + request.getURI().getHost());
+            }
+            return executeWithRetry(httpClient, request, handler, guard);
+        } finally {
+            guard.release();
+        }
+    }
+
+    private static <T> T executeWithRetry(CloseableHttpClient httpClient, HttpUriRequest request,
+                                          ResponseHandler<? extends T> handler, HttpHostGuard guard) throws IOException {
+        final HttpPolicy policy = guard.getPolicy();
+        final int maxRetries = retryable(request, policy) ? policy.getMaxRetries() : 0;
+        for (int attempt = 0; ; attempt++) {
+            CloseableHttpResponse response;
+            try {
+                response = httpClient.execute(request);
+            } catch (IOException e) {
+                if (attempt >= maxRetries) {
+                    guard.onFailure();
+                    throw e;
+                }
+                try {
+                    backoff(request, policy, attempt, e.toString());
+                } catch (IOException interrupted) {
+                    // 等待被中断时本次请求按失败结束，归还半开状态的试探许可
+                    guard.onFailure();
+                    throw interrupted;
+                }
+                guard.retries.increment();
+                continue;
+            }
+            try {
+                final int status = response.getStatusLine().getStatusCode();
+                if (policy.getRetryStatus().contains(status) && attempt < maxRetries) {
+                    EntityUtils.consumeQuietly(response.getEntity());
+                    backoff(request, policy, attempt, "status " + status);
+                    guard.retries.increment();
+                    continue;
+                }
+                T result = handler.handleResponse(response);
+                EntityUtils.consume(response.getEntity());
+                if (status >= 500) {
+                    guard.onFailure();
+                } else {
+                    guard.onSuccess();
+                }
+                return result;
+            } catch (IOException | RuntimeException e) {
+                guard.onFailure();
+                throw e;
+            } finally {
+                response.close();
+            }
+        }
+    }
+
+    /**
+     * 请求是否可重试：幂等方法（或配置允许非幂等）且请求体可重复发送
+     */
+    private static boolean retryable(HttpUriRequest request, HttpPolicy policy) {
+        if (policy.getMaxRetries() <= 0) {
+            return false;
+        }
+        if (!policy.isRetryNonIdempotent() && !IDEMPOTENT_METHODS.contains(request.getMethod())) {
+            return false;
+        }
+        if (request instanceof HttpEntityEnclosingRequest) {
+            HttpEntity entity = ((HttpEntityEnclosingRequest) request).getEntity();
+            return null == entity || entity.isRepeatable();
+        }
+        return true;
+    }
+
+    /**
+     * 指数退避等待，等待时间在[backoff * (1 - jitter), backoff]之间随机
+     */
+    private static void backoff(HttpUriRequest request, HttpPolicy policy, int attempt, String reason) throws IOException {
+        double backoff = Math.min(policy.getMaxRetryBackoff(), policy.getRetryBackoff() * Math.pow(policy.getRetryMultiplier(), attempt));
+        double jitter = Math.min(1D, Math.max(0D, policy.getRetryJitter()));
+        long sleep = (long) (backoff * (1D - jitter * ThreadLocalRandom.current().nextDouble()));
+        log.warn("#retry# #{}# #{}# attempt {} after {}ms, {}", request.getMethod(), request.getURI(), attempt + 1, sleep, reason);
+        try {
+            Thread.sleep(sleep);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IOException("retry interrupted", e);
+        }
+    }
+}
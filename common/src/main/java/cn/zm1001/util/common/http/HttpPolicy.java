@@ -0,0 +1,60 @@
+package cn.zm1001.util.common.http;
+
+import lombok.Data;
+import lombok.experimental.Accessors;
+
+import java.util.HashSet;
+import java.util.Set;
+
+/**
+ * @Desc 目标主机的请求策略：重试、熔断、并发限制
+ * 默认均不启用，按需开启
+ * @Author Dongd_Zhou
+ */
+@Data
+@Accessors(chain = true)
+public class HttpPolicy {
+    /* ---------- 重试 ---------- */
+    /** 最大重试次数，0为不重试 */
+    private int maxRetries = 0;
+    /** 首次重试等待时间（毫秒） */
+    private long retryBackoff = 100L;
+    /** 重试等待时间倍数 */
+    private double retryMultiplier = 2.0D;
+    /** 最大重试等待时间（毫秒） */
+    private long maxRetryBackoff = 2000L;
+    /** 重试等待时间随机抖动比例（0~1），实际等待时间在[backoff * (1 - jitter), backoff]之间 */
+    private double retryJitter = 0.5D;
+    /** 是否重试非幂等请求（POST等），默认仅重试GET、HEAD、OPTIONS、PUT、DELETE、TRACE */
+    private boolean retryNonIdempotent = false;
+    /** 需要重试的响应状态码 */
+    private Set<Integer> retryStatus = defaultRetryStatus();
+
+    /* ---------- 熔断 ---------- */
+    /** 是否启用熔断 */
+    private boolean circuitBreakerEnabled = false;
+    /** 滑动窗口大小（最近N次请求） */
+    private int slidingWindowSize = 50;
+    /** 窗口内至少请求多少次后才计算失败率 */
+    private int minimumCalls = 20;
+    /** 失败率阈值（百分比），达到后熔断 */
+    private int failureRateThreshold = 50;
+    /** 熔断持续时间（毫秒），之后进入半开状态 */
+    private long openDuration = 10000L;
+    /** 半开状态允许的试探请求数 */
+    private int halfOpenCalls = 3;
+
+    /* ---------- 并发限制 ---------- */
+    /** 最大并发请求数，小于等于0时不限制 */
+    private int maxConcurrentCalls = 0;
+    /** 达到并发上限时最大等待时间（毫秒），0为不等待直接拒绝 */
+    private long maxWait = 0L;
+
+    private static Set<Integer> defaultRetryStatus() {
+        Set<Integer> status = new HashSet<>();
+        status.add(502);
+        status.add(503);
+        status.add(504);
+        return status;
+    }
+}
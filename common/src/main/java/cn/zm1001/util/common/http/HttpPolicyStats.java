@@ -0,0 +1,31 @@
+package cn.zm1001.util.common.http;
+
+import lombok.Data;
+import lombok.experimental.Accessors;
+
+/**
+ * @Desc 目标主机请求策略统计
+ * @Author Dongd_Zhou
+ */
+@Data
+@Accessors(chain = true)
+public class HttpPolicyStats {
+    /** 请求次数（不含重试） */
+    private long calls;
+    /** 成功次数 */
+    private long successes;
+    /** 失败次数（异常或5xx响应，重试后仍失败） */
+    private long failures;
+    /** 重试次数 */
+    private long retries;
+    /** 熔断拒绝次数 */
+    private long circuitRejected;
+    /** 熔断打开次数 */
+    private long circuitOpened;
+    /** 并发限制拒绝次数 */
+    private long bulkheadRejected;
+    /** 当前熔断状态 */
+    private String circuitState;
+    /** 当前并发请求数 */
+    private int activeCalls;
+}
@@ -0,0 +1,35 @@
+package cn.zm1001.util.common.http;
+
+import lombok.Data;
+import lombok.experimental.Accessors;
+
+import java.util.Map;
+
+/**
+ * @Desc HTTP连接池统计
+ * @Author Dongd_Zhou
+ */
+@Data
+@Accessors(chain = true)
+public class HttpPoolStats {
+    /** 连接池整体统计 */
+    private Stats total;
+    /** 各路由（目标主机）统计 */
+    private Map<String, Stats> routes;
+
+    /**
+     * 单项统计
+     */
+    @Data
+    @Accessors(chain = true)
+    public static class Stats {
+        /** 已租用（使用中）连接数 */
+        private int leased;
+        /** 空闲可用连接数 */
+        private int available;
+        /** 等待获取连接的请求数 */
+        private int pending;
+        /** 最大连接数 */
+        private int max;
+    }
+}
@@ -0,0 +1,293 @@
+package cn.zm1001.util.common.http;
+
+import org.apache.commons.lang3.Validate;
+import org.apache.commons.lang3.concurrent.BasicThreadFactory;
+import org.apache.http.client.methods.HttpGet;
+import org.apache.http.client.methods.HttpUriRequest;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Function;
+
+/**
+ * @Desc 多副本请求：同一服务部署在多个等价地址时，按延迟选择地址并发送对冲请求降低尾延迟
+ * 1. 优先请求延迟移动平均最低的地址，尚无样本的地址按已有样本地址的中位数排序
+ * 2. 超过该地址观测的分位延迟（默认p95）仍未响应时，向下一个地址发送相同请求，取先返回的响应并取消其他请求
+ * 3. 请求失败或5xx响应时立即切换下一个地址
+ * 对冲会重复发送请求，仅适用于幂等请求
+ * 如：{@code HttpReplicas replicas = HttpUtils.replicas("http://10.0.0.1:8080", "http://10.0.0.2:8080"); replicas.doGet("/dict?type=1")}
+ * @Author Dongd_Zhou
+ */
+public class HttpReplicas {
+    /** 对冲请求定时器，所有实例共享 */
+    private static final ScheduledExecutorService HEDGE_TIMER = Executors.newSingleThreadScheduledExecutor(
+            new BasicThreadFactory.Builder().namingPattern("http-hedge-timer-%d").daemon(true).build());
+
+    private final HttpHedgeConfig config;
+    private final List<Replica> replicas;
+
+    public HttpReplicas(HttpHedgeConfig config, List<String> baseUrls) {
+        Validate.notEmpty(baseUrls, "baseUrls must not be empty");
+        this.config = config;
+        List<Replica> list = new ArrayList<>(baseUrls.size());
+        for (String baseUrl : baseUrls) {
+            list.add(new Replica(baseUrl, new HttpLatencyRecorder(config)));
+        }
+        this.replicas = Collections.unmodifiableList(list);
+    }
+
+    /**
+     * GET请求
+     *
+     * @param path      请求路径及参数，拼接在地址之后
+     * @param headerMap 头部
+     * @return 响应消息，非200或请求异常时返回null
+     */
+    public String doGet(String path, Map<String, String> headerMap) {
+        try {
+            HttpResult result = getAsync(path, headerMap).join();
+            return result.isSuccess() ? result.getBody() : null;
+        } catch (CompletionException e) {
+            return null;
+        }
+    }
+
+    /**
+     * GET请求
+     *
+     * @param path      请求路径及参数，拼接在地址之后
+     * @param headerMap 头部
+     * @return 响应结果
+     */
+    public CompletableFuture<HttpResult> getAsync(String path, Map<String, String> headerMap) {
+        final long start = System.currentTimeMillis();
+        CompletableFuture<HttpResult> future = execute(baseUrl -> {
+            HttpGet httpGet = new HttpGet(baseUrl + path);
+            HttpUtils.setHeader(httpGet, headerMap);
+            return httpGet;
+        });
+        future.whenComplete((result, e) -> HttpLogger.log("hedge-get", path, headerMap, null,
+                null == result || !result.isSuccess() ? null : result.getBody(), e, System.currentTimeMillis() - start));
+        return future;
+    }
+
+    /**
+     * 按延迟选择地址执行请求，必要时发送对冲请求
+     *
+     * @param request 请求构建，参数为地址，每次发送都需要构建新的请求
+     * @return 先返回的非5xx响应；全部失败时为最后一个5xx响应或异常
+     */
+    public CompletableFuture<HttpResult> execute(Function<String, ? extends HttpUriRequest> request) {
+        final List<Replica> ranked = ranked();
+        final Exchange exchange = new Exchange(ranked, request);
+        exchange.fire();
+        exchange.scheduleHedge(hedgeDelay(ranked.get(0)));
+        return exchange.result;
+    }
+
+    /**
+     * 按延迟移动平均排序的地址，排序前取一次快照，避免排序过程中移动平均变化
+     * 无样本的地址按已有样本地址的中位数计算：不会总排在已验证的低延迟地址之前，也不会因从未请求而一直排在最后
+     *
+     * @return 排序后的地址
+     */
+    List<Replica> ranked() {
+        final int size = replicas.size();
+        final double[] scores = new double[size];
+        final double[] sampled = new double[size];
+        int n = 0;
+        for (int i = 0; i < size; i++) {
+            scores[i] = replicas.get(i).recorder.ewma();
+            if (scores[i] >= 0) {
+                sampled[n++] = scores[i];
+            }
+        }
+        if (n < size) {
+            double median = 0D;
+            if (n > 0) {
+                Arrays.sort(sampled, 0, n);
+                median = n % 2 == 1 ? sampled[n / 2] : (sampled[n / 2 - 1] + sampled[n / 2]) / 2D;
+            }
+            for (int i = 0; i < size; i++) {
+                if (scores[i] < 0) {
+                    scores[i] = median;
+                }
+            }
+        }
+        final List<Integer> order = new ArrayList<>(size);
+        for (int i = 0; i < size; i++) {
+            order.add(i);
+        }
+        order.sort(Comparator.comparingDouble(i -> scores[i]));
+        final List<Replica> ranked = new ArrayList<>(size);
+        for (int i : order) {
+            ranked.add(replicas.get(i));
+        }
+        return ranked;
+    }
+
+    /**
+     * 各地址的延迟统计
+     *
+     * @return 地址 -> 延迟统计
+     */
+    public Map<String, HttpLatencyStats> getStats() {
+        Map<String, HttpLatencyStats> stats = new LinkedHashMap<>();
+        for (Replica replica : replicas) {
+            stats.put(replica.baseUrl, replica.recorder.stats());
+        }
+        return stats;
+    }
+
+    /**
+     * 发送对冲请求前的等待时间，按地址观测的分位延迟，样本不足时使用配置的默认值
+     */
+    private long hedgeDelay(Replica replica) {
+        long delay = replica.recorder.percentile(config.getHedgePercentile());
+        return Math.max(config.getMinHedgeDelay(), delay < 0 ? config.getHedgeDelay() : delay);
+    }
+
+    static class Replica {
+        final String baseUrl;
+        final HttpLatencyRecorder recorder;
+
+        Replica(String baseUrl, HttpLatencyRecorder recorder) {
+            this.baseUrl = baseUrl;
+            this.recorder = recorder;
+        }
+    }
+
+    /**
+     * 一次请求及其对冲请求
+     */
+    private class Exchange {
+        private final CompletableFuture<HttpResult> result = new CompletableFuture<>();
+        private final List<Replica> ranked;
+        private final Function<String, ? extends HttpUriRequest> request;
+        private final List<CompletableFuture<HttpResult>> attempts = new ArrayList<>(2);
+        /** 下一个请求的地址 */
+        private int next;
+        /** 进行中的请求数 */
+        private int pending;
+        /** 已发送的对冲请求数 */
+        private int hedges;
+        private HttpResult lastResult;
+        private Throwable lastError;
+        private ScheduledFuture<?> hedgeTimer;
+
+        Exchange(List<Replica> ranked, Function<String, ? extends HttpUriRequest> request) {
+            this.ranked = ranked;
+            this.request = request;
+            // 调用方取消或任一请求返回后，取消其他请求及定时器
+            result.whenComplete((r, e) -> cancelOthers());
+        }
+
+        /**
+         * 向下一个地址发送请求
+         *
+         * @return 是否已发送
+         */
+        synchronized boolean fire() {
+            if (result.isDone() || next >= ranked.size()) {
+                return false;
+            }
+            final Replica replica = ranked.get(next++);
+            final long start = System.nanoTime();
+            CompletableFuture<HttpResult> attempt;
+            try {
+                attempt = HttpUtils.asyncEngine().execute(request.apply(replica.baseUrl));
+            } catch (Exception e) {
+                attempt = new CompletableFuture<>();
+                attempt.completeExceptionally(e);
+            }
+            pending++;
+            attempts.add(attempt);
+            final CompletableFuture<HttpResult> current = attempt;
+            attempt.whenComplete((r, e) -> onComplete(replica, current, TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start), r, e));
+            return true;
+        }
+
+        /**
+         * 超过等待时间仍未响应时发送对冲请求，之后按同样的等待时间继续对冲，直到达到最多对冲请求数
+         */
+        void scheduleHedge(long delay) {
+            synchronized (this) {
+                if (result.isDone() || next >= ranked.size() || hedges >= config.getMaxHedges()) {
+                    return;
+                }
+                hedgeTimer = HEDGE_TIMER.schedule(() -> {
+                    if (hedge()) {
+                        scheduleHedge(delay);
+                    }
+                }, delay, TimeUnit.MILLISECONDS);
+            }
+        }
+
+        private synchronized boolean hedge() {
+            if (hedges >= config.getMaxHedges() || !fire()) {
+                return false;
+            }
+            hedges++;
+            return true;
+        }
+
+        private void onComplete(Replica replica, CompletableFuture<HttpResult> attempt, long millis, HttpResult r, Throwable e) {
+            if (attempt.isCancelled()) {
+                // 被取消的请求延迟未知，不计入统计
+                return;
+            }
+            if (null == e && r.getStatusCode() < 500) {
+                replica.recorder.record(millis);
+                result.complete(r);
+                return;
+            }
+            replica.recorder.recordFailure(millis);
+            synchronized (this) {
+                pending--;
+                if (null != r) {
+                    lastResult = r;
+                }
+                if (null != e) {
+                    lastError = e;
+                }
+                if (result.isDone() || fire()) {
+                    // 失败后立即切换下一个地址
+                    return;
+                }
+                if (pending == 0) {
+                    if (null != lastResult) {
+                        result.complete(lastResult);
+                    } else {
+                        result.completeExceptionally(lastError);
+                    }
+                }
+            }
+        }
+
+        private void cancelOthers() {
+            List<CompletableFuture<HttpResult>> running;
+            synchronized (this) {
+                if (null != hedgeTimer) {
+                    hedgeTimer.cancel(false);
+                }
+                running = new ArrayList<>(attempts);
+            }
+            for (CompletableFuture<HttpResult> attempt : running) {
+                if (!attempt.isDone()) {
+                    attempt.cancel(true);
+                }
+            }
+        }
+    }
+}
@@ -0,0 +1,41 @@
+package cn.zm1001.util.common.http;
+
+import lombok.Data;
+import lombok.experimental.Accessors;
+import org.apache.http.HttpStatus;
+
+import java.util.Map;
+
+/**
+ * @Desc HTTP响应结果
+ * @Author Dongd_Zhou
+ */
+@Data
+@Accessors(chain = true)
+public class HttpResult {
+    /** 响应状态码 */
+    private int statusCode;
+    /** 响应头部，名称不区分大小写 */
+    private Map<String, String> headers;
+    /** 响应消息 */
+    private String body;
+
+    /**
+     * 是否响应200
+     *
+     * @return 是否成功
+     */
+    public boolean isSuccess() {
+        return statusCode == HttpStatus.SC_OK;
+    }
+
+    /**
+     * 获取响应头部
+     *
+     * @param name 头部名称
+     * @return 头部值
+     */
+    public String getHeader(String name) {
+        return null == headers ? null : headers.get(name);
+    }
+}
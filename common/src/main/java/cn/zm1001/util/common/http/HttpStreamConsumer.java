@@ -0,0 +1,19 @@
+package cn.zm1001.util.common.http;
+
+import java.io.IOException;
+import java.io.InputStream;
+
+/**
+ * @Desc 响应体流处理，流由调用方读取，读取完成后由HttpUtils负责关闭
+ * @Author Dongd_Zhou
+ */
+@FunctionalInterface
+public interface HttpStreamConsumer {
+    /**
+     * 处理响应体
+     *
+     * @param in 响应体输入流
+     * @throws IOException 读取异常
+     */
+    void accept(InputStream in) throws IOException;
+}
@@ -0,0 +1,16 @@
+package cn.zm1001.util.common.http;
+
+/**
+ * @Desc 上传进度监听，在发送请求的线程中回调
+ * @Author Dongd_Zhou
+ */
+@FunctionalInterface
+public interface HttpUploadListener {
+    /**
+     * 上传进度
+     *
+     * @param transferred 已发送的字节数（含分段头部）
+     * @param total       请求体总字节数，包含未知长度的流时为-1
+     */
+    void onProgress(long transferred, long total);
+}
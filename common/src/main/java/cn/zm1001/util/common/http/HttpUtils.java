@@ -2,39 +2,297 @@ package cn.zm1001.util.common.http;
 
 import cn.zm1001.util.common.JacksonUtils;
 import cn.zm1001.util.common.StringUtils;
-import lombok.extern.slf4j.Slf4j;
+import cn.zm1001.util.common.json.JsonFormat;
+import com.fasterxml.jackson.core.type.TypeReference;
 import org.apache.commons.collections4.MapUtils;
 import org.apache.http.Consts;
 import org.apache.http.HttpEntity;
+import org.apache.http.HttpHeaders;
 import org.apache.http.HttpMessage;
-import org.apache.http.HttpStatus;
 import org.apache.http.NameValuePair;
+import org.apache.http.client.ResponseHandler;
 import org.apache.http.client.entity.UrlEncodedFormEntity;
-import org.apache.http.client.methods.CloseableHttpResponse;
 import org.apache.http.client.methods.HttpDelete;
+import org.apache.http.client.methods.HttpEntityEnclosingRequestBase;
 import org.apache.http.client.methods.HttpGet;
 import org.apache.http.client.methods.HttpPost;
 import org.apache.http.client.methods.HttpPut;
+import org.apache.http.client.methods.HttpUriRequest;
+import org.apache.http.entity.ByteArrayEntity;
 import org.apache.http.entity.StringEntity;
-import org.apache.http.entity.mime.MultipartEntityBuilder;
-import org.apache.http.impl.client.CloseableHttpClient;
-import org.apache.http.impl.client.HttpClients;
 import org.apache.http.message.BasicNameValuePair;
-import org.apache.http.util.EntityUtils;
 
 import java.io.File;
+import java.io.IOException;
 import java.io.InputStream;
+import java.net.URI;
+import java.nio.file.Path;
 import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.Map.Entry;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ConcurrentHashMap;
 
 /**
  * @Desc HTTP工具类
  * @Author Dongd_Zhou
  */
-@Slf4j
 public class HttpUtils {
+    /** JSON请求体类型 */
+    static final String CONTENT_TYPE_JSON = "application/json;charset=UTF-8";
+
+    /** 共享的连接池客户端 */
+    private static volatile HttpClientEngine engine;
+    /** 共享的异步客户端，首次使用异步请求时创建 */
+    private static volatile HttpAsyncEngine asyncEngine;
+    /** GET响应缓存，为null时不启用 */
+    private static volatile HttpCache cache;
+    /** 按目标主机（"host"或"host:port"）配置的请求体压缩 */
+    private static final Map<String, HttpCompression> COMPRESSIONS = new ConcurrentHashMap<>();
+    /** 未单独配置主机时的请求体压缩，为null时不压缩 */
+    private static volatile HttpCompression defaultCompression;
+    /** 解析为对象的请求通过Accept请求的响应格式 */
+    private static volatile JsonFormat acceptFormat = JsonFormat.JSON;
+
+    /**
+     * 使用指定配置初始化连接池，已存在的连接池会被关闭
+     * 建议在应用启动时调用，未调用时使用默认配置
+     *
+     * @param config 连接池配置
+     */
+    public static synchronized void init(HttpClientConfig config) {
+        HttpClientEngine old = engine;
+        engine = new HttpClientEngine(config);
+        if (null != old) {
+            old.close();
+        }
+        // 异步客户端在下次使用时按新配置创建
+        if (null != asyncEngine) {
+            asyncEngine.close();
+            asyncEngine = null;
+        }
+    }
+
+    /**
+     * 获取共享的连接池客户端，未初始化时使用默认配置
+     *
+     * @return 连接池客户端
+     */
+    public static HttpClientEngine engine() {
+        HttpClientEngine current = engine;
+        if (null == current) {
+            synchronized (HttpUtils.class) {
+                current = engine;
+                if (null == current) {
+                    current = engine = new HttpClientEngine(HttpClientConfig.defaultConfig());
+                }
+            }
+        }
+        return current;
+    }
+
+    /**
+     * 获取共享的异步客户端，使用与同步客户端相同的配置
+     *
+     * @return 异步客户端
+     */
+    public static HttpAsyncEngine asyncEngine() {
+        HttpAsyncEngine current = asyncEngine;
+        if (null == current) {
+            synchronized (HttpUtils.class) {
+                current = asyncEngine;
+                if (null == current) {
+                    current = asyncEngine = new HttpAsyncEngine(engine().getConfig());
+                }
+            }
+        }
+        return current;
+    }
+
+    /**
+     * 异步请求入口
+     * 如：{@code HttpUtils.async().getAsync(url, headerMap).thenApply(HttpResult::getBody)}
+     *
+     * @return 异步请求
+     */
+    public static HttpAsync async() {
+        return HttpAsync.INSTANCE;
+    }
+
+    /**
+     * 多副本请求，按延迟选择地址并发送对冲请求，使用默认配置
+     * 返回的实例保存各地址的延迟统计，应复用
+     *
+     * @param baseUrls 等价的地址，如"http://10.0.0.1:8080"
+     * @return 多副本请求
+     */
+    public static HttpReplicas replicas(String... baseUrls) {
+        return new HttpReplicas(HttpHedgeConfig.defaultConfig(), Arrays.asList(baseUrls));
+    }
+
+    /**
+     * 多副本请求，按延迟选择地址并发送对冲请求
+     * 返回的实例保存各地址的延迟统计，应复用
+     *
+     * @param config   对冲配置
+     * @param baseUrls 等价的地址，如"http://10.0.0.1:8080"
+     * @return 多副本请求
+     */
+    public static HttpReplicas replicas(HttpHedgeConfig config, List<String> baseUrls) {
+        return new HttpReplicas(config, baseUrls);
+    }
+
+    /**
+     * 关闭连接池，之后的请求会以默认配置重新创建连接池
+     */
+    public static synchronized void shutdown() {
+        if (null != engine) {
+            engine.close();
+            engine = null;
+        }
+        if (null != asyncEngine) {
+            asyncEngine.close();
+            asyncEngine = null;
+        }
+    }
+
+    /**
+     * 连接池统计
+     *
+     * @return 整体及各路由的已租用/可用/等待连接数
+     */
+    public static HttpPoolStats getPoolStats() {
+        return engine().getPoolStats();
+    }
+
+    /**
+     * 通过共享连接池执行请求，由指定的响应处理读取响应，之后响应被关闭，连接归还连接池
+     * 目标主机配置了{@link HttpPolicy}时按策略重试、熔断、限制并发
+     *
+     * @param request 请求
+     * @param handler 响应处理，常用处理见{@link ResponseHandlers}
+     * @return 响应处理结果
+     * @throws IOException 请求异常
+     */
+    public static <T> T execute(HttpUriRequest request, ResponseHandler<? extends T> handler) throws IOException {
+        return HttpPolicies.execute(engine().getHttpClient(), request, handler);
+    }
+
+    /**
+     * 构建并执行请求，按{@link HttpLogPolicy}记录日志
+     *
+     * @param action    请求类型，用于日志
+     * @param url       请求地址
+     * @param headerMap 头部，用于日志
+     * @param param     请求参数，用于日志，需要记录时才转为文本
+     * @param request   请求构建
+     * @param handler   响应处理
+     * @return 响应处理结果，请求异常时返回null
+     */
+    private static <T> T execute(String action, String url, Map<String, String> headerMap, Object param,
+                                 Callable<? extends HttpUriRequest> request, ResponseHandler<T> handler) {
+        final long start = System.currentTimeMillis();
+        T result = null;
+        Exception error = null;
+        try {
+            result = execute(request.call(), handler);
+        } catch (Exception e) {
+            error = e;
+        }
+        HttpLogger.log(action, url, headerMap, param, result, error, System.currentTimeMillis() - start);
+        return result;
+    }
+
+    /**
+     * 设置日志策略
+     *
+     * @param policy 日志策略
+     */
+    public static void setLogPolicy(HttpLogPolicy policy) {
+        HttpLogger.setPolicy(policy);
+    }
+
+    /**
+     * 配置目标主机的请求策略
+     *
+     * @param host   主机，"host"或"host:port"
+     * @param policy 请求策略，为null时移除
+     */
+    public static void setPolicy(String host, HttpPolicy policy) {
+        HttpPolicies.register(host, policy);
+    }
+
+    /**
+     * 各目标主机的请求策略统计
+     *
+     * @return 主机 -> 统计
+     */
+    public static Map<String, HttpPolicyStats> getPolicyStats() {
+        return HttpPolicies.getStats();
+    }
+
+    /**
+     * 配置目标主机的请求体压缩，适用于JSON请求体
+     *
+     * @param host        主机，"host"或"host:port"
+     * @param compression 压缩配置，为null时移除
+     */
+    public static void setCompression(String host, HttpCompression compression) {
+        if (null == compression) {
+            COMPRESSIONS.remove(host);
+        } else {
+            COMPRESSIONS.put(host, compression);
+        }
+    }
+
+    /**
+     * 配置默认的请求体压缩，适用于所有未单独配置的主机
+     *
+     * @param compression 压缩配置，为null时不压缩
+     */
+    public static void setDefaultCompression(HttpCompression compression) {
+        defaultCompression = compression;
+    }
+
+    /**
+     * 设置解析为对象的请求（指定Class或TypeReference）通过Accept请求的响应格式，如Smile、CBOR
+     * 响应体按响应的Content-Type解码，服务端不支持时仍可返回Json；调用方已设置Accept或使用缓存时不生效
+     *
+     * @param format 响应格式，为null时为Json
+     */
+    public static void setAcceptFormat(JsonFormat format) {
+        acceptFormat = null == format ? JsonFormat.JSON : format;
+    }
+
+    /**
+     * 启用GET响应缓存，已存在的缓存会被丢弃
+     * 启用后{@link #doGet(String)}、{@link #doGetWithHeader(String, Map)}及解析为对象的GET请求优先使用缓存
+     *
+     * @param config 缓存配置
+     */
+    public static void enableCache(HttpCacheConfig config) {
+        cache = new HttpCache(config);
+    }
+
+    /**
+     * 停用GET响应缓存
+     */
+    public static void disableCache() {
+        cache = null;
+    }
+
+    /**
+     * GET响应缓存统计
+     *
+     * @return 缓存统计，未启用缓存时返回null
+     */
+    public static HttpCacheStats getCacheStats() {
+        HttpCache current = cache;
+        return null == current ? null : current.getStats();
+    }
 
     /**
      * 获取请求地址，提出URL参数
@@ -42,7 +300,7 @@ public class HttpUtils {
      * @param url 请求URL
      * @return 请求地址
      */
-    private static String getUrl(String url) {
+    static String getUrl(String url) {
         if (url.contains("?")) {
             int index = url.indexOf("?");
             return StringUtils.substring(url, 0, index);
@@ -56,7 +314,7 @@ public class HttpUtils {
      * @param request   请求
      * @param headerMap 头部
      */
-    private static void setHeader(HttpMessage request, Map<String, String> headerMap) {
+    static void setHeader(HttpMessage request, Map<String, String> headerMap) {
         if (MapUtils.isNotEmpty(headerMap)) {
             for (Map.Entry<String, String> entry : headerMap.entrySet()) {
                 request.setHeader(entry.getKey(), entry.getValue());
@@ -64,6 +322,122 @@ public class HttpUtils {
         }
     }
 
+    /**
+     * 设置头部及JSON请求体
+     *
+     * @param request   请求
+     * @param headerMap 头部
+     * @param json      请求体（JSON）
+     * @return 请求
+     */
+    static <R extends HttpEntityEnclosingRequestBase> R jsonRequest(R request, Map<String, String> headerMap, String json) {
+        return jsonRequest(request, headerMap, json, null);
+    }
+
+    /**
+     * 设置头部及JSON请求体，请求体达到压缩阈值时以gzip压缩
+     *
+     * @param request     请求
+     * @param headerMap   头部
+     * @param json        请求体（JSON）
+     * @param compression 压缩配置，为null时使用目标主机的配置
+     * @return 请求
+     */
+    static <R extends HttpEntityEnclosingRequestBase> R jsonRequest(R request, Map<String, String> headerMap, String json,
+                                                                    HttpCompression compression) {
+        return bodyRequest(request, headerMap, CONTENT_TYPE_JSON, json.getBytes(Consts.UTF_8), compression);
+    }
+
+    /**
+     * 设置头部及请求体，请求体达到压缩阈值时以gzip压缩
+     *
+     * @param request     请求
+     * @param headerMap   头部
+     * @param contentType 请求体类型
+     * @param content     请求体
+     * @param compression 压缩配置，为null时使用目标主机的配置
+     * @return 请求
+     */
+    static <R extends HttpEntityEnclosingRequestBase> R bodyRequest(R request, Map<String, String> headerMap, String contentType,
+                                                                    byte[] content, HttpCompression compression) {
+        // 请求头部
+        request.setHeader("Content-Type", contentType);
+        setHeader(request, headerMap);
+        // 请求体
+        if (null == compression) {
+            compression = getCompression(request.getURI());
+        }
+        if (null != compression && content.length >= compression.getThreshold() && !request.containsHeader(HttpHeaders.CONTENT_ENCODING)) {
+            request.setEntity(new GzipEntity(content, compression.getLevel()));
+        } else {
+            request.setEntity(new ByteArrayEntity(content));
+        }
+        return request;
+    }
+
+    /**
+     * 未设置Accept时按{@link #setAcceptFormat(JsonFormat)}添加Accept
+     *
+     * @param headerMap 头部
+     * @return 头部，需要添加时为副本
+     */
+    private static Map<String, String> accept(Map<String, String> headerMap) {
+        final JsonFormat format = acceptFormat;
+        if (format == JsonFormat.JSON) {
+            return headerMap;
+        }
+        if (MapUtils.isNotEmpty(headerMap)) {
+            for (String name : headerMap.keySet()) {
+                if (HttpHeaders.ACCEPT.equalsIgnoreCase(name)) {
+                    return headerMap;
+                }
+            }
+        }
+        final Map<String, String> headers = MapUtils.isEmpty(headerMap) ? new HashMap<>() : new HashMap<>(headerMap);
+        headers.put(HttpHeaders.ACCEPT, format.accept());
+        return headers;
+    }
+
+    /**
+     * 目标主机的请求体压缩配置，优先匹配"host:port"
+     *
+     * @param uri 请求地址
+     * @return 压缩配置，未配置时返回null
+     */
+    private static HttpCompression getCompression(URI uri) {
+        if (COMPRESSIONS.isEmpty() || null == uri.getHost()) {
+            return defaultCompression;
+        }
+        HttpCompression compression = null;
+        if (uri.getPort() > 0) {
+            compression = COMPRESSIONS.get(uri.getHost() + ":" + uri.getPort());
+        }
+        if (null == compression) {
+            compression = COMPRESSIONS.get(uri.getHost());
+        }
+        return null == compression ? defaultCompression : compression;
+    }
+
+    /**
+     * 设置头部及表单请求体
+     *
+     * @param request   请求
+     * @param headerMap 头部
+     * @param paramMap  参数
+     * @return 请求
+     */
+    static <R extends HttpEntityEnclosingRequestBase> R formRequest(R request, Map<String, String> headerMap, Map<String, String> paramMap) {
+        // 请求头部
+        setHeader(request, headerMap);
+        // 请求体
+        List<NameValuePair> formParams = new ArrayList<>();
+        for (Entry<String, String> entry : paramMap.entrySet()) {
+            formParams.add(new BasicNameValuePair(entry.getKey(), entry.getValue()));
+        }
+        request.setEntity(new UrlEncodedFormEntity(formParams, Consts.UTF_8));
+        return request;
+    }
+
     /**
      * GET请求
      *
@@ -81,25 +455,120 @@ public class HttpUtils {
      * @return 响应消息
      */
     public static String doGetWithHeader(String url, Map<String, String> headerMap) {
-        String content = null;
-        try (CloseableHttpClient httpClient = HttpClients.createDefault()) {
+        HttpCache current = cache;
+        if (null != current) {
+            return current.get(url, headerMap);
+        }
+        return doGet(url, headerMap, ResponseHandlers.ofString());
+    }
+
+    /**
+     * GET请求，响应体由指定的响应处理按流读取
+     *
+     * @param url       请求地址及参数
+     * @param headerMap 头部
+     * @param handler   响应处理，常用处理见{@link ResponseHandlers}
+     * @return 响应处理结果，请求异常时返回null
+     */
+    public static <T> T doGet(String url, Map<String, String> headerMap, ResponseHandler<T> handler) {
+        return execute("get", url, headerMap, null, () -> {
             HttpGet httpGet = new HttpGet(url);
             // 设置头信息
             setHeader(httpGet, headerMap);
+            return httpGet;
+        }, handler);
+    }
 
-            // 执行请求
-            CloseableHttpResponse response = httpClient.execute(httpGet);
+    /**
+     * GET请求，响应体交由调用方按流处理
+     *
+     * @param url       请求地址及参数
+     * @param headerMap 头部
+     * @param consumer  响应流处理
+     * @return 是否响应200并处理完成
+     */
+    public static boolean doGetStream(String url, Map<String, String> headerMap, HttpStreamConsumer consumer) {
+        return Boolean.TRUE.equals(doGet(url, headerMap, ResponseHandlers.ofStream(consumer)));
+    }
 
-            // 返回200
-            if (response.getStatusLine().getStatusCode() == HttpStatus.SC_OK) {
-                content = EntityUtils.toString(response.getEntity(), Consts.UTF_8);
-            }
-        } catch (Exception e) {
-            log.error("#get# #exception# #{}# {} {}", getUrl(url), url, JacksonUtils.toJson(headerMap), e);
-        } finally {
-            log.info("#get# #result# #{}# {} {} {}", getUrl(url), url, JacksonUtils.toJson(headerMap), content);
+    /**
+     * GET请求，响应体直接从流中解析为对象
+     *
+     * @param url   请求地址及参数
+     * @param clazz 对象类型
+     * @return 响应对象
+     */
+    public static <T> T doGet(String url, Class<T> clazz) {
+        return doGet(url, null, clazz);
+    }
+
+    /**
+     * GET请求，响应体直接从流中解析为对象
+     * 启用缓存时从缓存的响应消息解析
+     *
+     * @param url       请求地址及参数
+     * @param headerMap 头部
+     * @param clazz     对象类型
+     * @return 响应对象
+     */
+    public static <T> T doGet(String url, Map<String, String> headerMap, Class<T> clazz) {
+        HttpCache current = cache;
+        if (null != current) {
+            return JacksonUtils.parse(current.get(url, headerMap), clazz);
         }
-        return content;
+        return doGet(url, accept(headerMap), ResponseHandlers.ofJson(clazz));
+    }
+
+    /**
+     * GET请求，响应体直接从流中解析为对象
+     *
+     * @param url           请求地址及参数
+     * @param typeReference 指定类型
+     * @return 响应对象
+     */
+    public static <T> T doGet(String url, TypeReference<T> typeReference) {
+        return doGet(url, null, typeReference);
+    }
+
+    /**
+     * GET请求，响应体直接从流中解析为对象
+     * 启用缓存时从缓存的响应消息解析
+     *
+     * @param url           请求地址及参数
+     * @param headerMap     头部
+     * @param typeReference 指定类型
+     * @return 响应对象
+     */
+    public static <T> T doGet(String url, Map<String, String> headerMap, TypeReference<T> typeReference) {
+        HttpCache current = cache;
+        if (null != current) {
+            return JacksonUtils.toObject(current.get(url, headerMap), typeReference);
+        }
+        return doGet(url, accept(headerMap), ResponseHandlers.ofJson(typeReference));
+    }
+
+    /**
+     * 下载，响应体通过{@link java.nio.channels.FileChannel}直接写入文件
+     *
+     * @param url    请求地址及参数
+     * @param target 目标文件，已存在时覆盖
+     * @return 写入的字节数，下载失败时返回-1
+     */
+    public static long download(String url, Path target) {
+        return download(url, null, target);
+    }
+
+    /**
+     * 下载，响应体通过{@link java.nio.channels.FileChannel}直接写入文件
+     *
+     * @param url       请求地址及参数
+     * @param headerMap 头部
+     * @param target    目标文件，已存在时覆盖
+     * @return 写入的字节数，下载失败时返回-1
+     */
+    public static long download(String url, Map<String, String> headerMap, Path target) {
+        Long size = doGet(url, headerMap, ResponseHandlers.ofFile(target));
+        return null == size ? -1L : size;
     }
 
     /**
@@ -110,26 +579,15 @@ public class HttpUtils {
      * @return 响应消息
      */
     public static String doPostXml(String url, String xml) {
-        String content = null;
-        try (CloseableHttpClient httpClient = HttpClients.createDefault()) {
+        return execute("postXml", url, null, xml, () -> {
             HttpPost httpPost = new HttpPost(url);
             httpPost.addHeader("Content-Type", "text/html;charset=UTF-8");
             // 解决中文乱码问题
             StringEntity stringEntity = new StringEntity(xml, Consts.UTF_8);
             stringEntity.setContentEncoding(Consts.UTF_8.name());
             httpPost.setEntity(stringEntity);
-
-            CloseableHttpResponse httpResponse = httpClient.execute(httpPost);
-
-            if (httpResponse.getStatusLine().getStatusCode() == HttpStatus.SC_OK) {
-                content = EntityUtils.toString(httpResponse.getEntity(), Consts.UTF_8);
-            }
-        } catch (Exception e) {
-            log.error("#postXml# #exception# #{}# {} {}", getUrl(url), url, xml, e);
-        } finally {
-            log.info("#postXml# #result# #{}# {} {} {}", getUrl(url), url, xml, content);
-        }
-        return content;
+            return httpPost;
+        }, ResponseHandlers.ofString());
     }
 
     /**
@@ -152,30 +610,8 @@ public class HttpUtils {
      * @return 响应消息
      */
     public static String doPostFormWithHeader(String url, Map<String, String> headerMap, Map<String, String> paramMap) {
-        String content = null;
-        try (CloseableHttpClient httpClient = HttpClients.createDefault()) {
-            HttpPost httpPost = new HttpPost(url);
-            // 请求头部
-            setHeader(httpPost, headerMap);
-            // 请求体
-            List<NameValuePair> formParams = new ArrayList<>();
-            for (Entry<String, String> entry : paramMap.entrySet()) {
-                formParams.add(new BasicNameValuePair(entry.getKey(), entry.getValue()));
-            }
-            httpPost.setEntity(new UrlEncodedFormEntity(formParams, Consts.UTF_8));
-
-            CloseableHttpResponse httpResponse = httpClient.execute(httpPost);
-
-            // 返回200
-            if (httpResponse.getStatusLine().getStatusCode() == HttpStatus.SC_OK) {
-                content = EntityUtils.toString(httpResponse.getEntity(), Consts.UTF_8);
-            }
-        } catch (Exception e) {
-            log.error("#post# #exception# #{}# {} {} {}", getUrl(url), url, JacksonUtils.toJson(headerMap), JacksonUtils.toJson(paramMap), e);
-        } finally {
-            log.info("#post# #result# #{}# {} {} {} {}", getUrl(url), url, JacksonUtils.toJson(headerMap), JacksonUtils.toJson(paramMap), content);
-        }
-        return content;
+        return execute("post", url, headerMap, paramMap,
+                () -> formRequest(new HttpPost(url), headerMap, paramMap), ResponseHandlers.ofString());
     }
 
     /**
@@ -198,29 +634,7 @@ public class HttpUtils {
      * @return 响应消息
      */
     public static String doPostWithHeader(String url, Map<String, String> headerMap, Map<String, Object> paramMap) {
-        String content = null;
-        try (CloseableHttpClient httpClient = HttpClients.createDefault()) {
-            HttpPost httpPost = new HttpPost(url);
-
-            // 请求头部
-            httpPost.setHeader("Content-Type", "application/json;charset=UTF-8");
-            setHeader(httpPost, headerMap);
-
-            // 请求体
-            String json = JacksonUtils.toJson(paramMap);
-            httpPost.setEntity(new StringEntity(json, Consts.UTF_8));
-
-            CloseableHttpResponse httpResponse = httpClient.execute(httpPost);
-            // 返回200
-            if (httpResponse.getStatusLine().getStatusCode() == HttpStatus.SC_OK) {
-                content = EntityUtils.toString(httpResponse.getEntity(), Consts.UTF_8);
-            }
-        } catch (Exception e) {
-            log.error("#post# #exception# #{}# {} {} {}", getUrl(url), url, JacksonUtils.toJson(headerMap), JacksonUtils.toJson(paramMap), e);
-        } finally {
-            log.info("#post# #result# #{}# {} {} {} {}", getUrl(url), url, JacksonUtils.toJson(headerMap), JacksonUtils.toJson(paramMap), content);
-        }
-        return content;
+        return doPostJsonWithHeader(url, headerMap, JacksonUtils.toJson(paramMap));
     }
 
     /**
@@ -243,27 +657,109 @@ public class HttpUtils {
      * @return 响应消息
      */
     public static String doPostJsonWithHeader(String url, Map<String, String> headerMap, String json) {
-        String content = null;
-        try (CloseableHttpClient httpClient = HttpClients.createDefault()) {
-            HttpPost httpPost = new HttpPost(url);
-            // 请求头部
-            httpPost.setHeader("Content-Type", "application/json;charset=UTF-8");
-            setHeader(httpPost, headerMap);
-            // 请求体
-            httpPost.setEntity(new StringEntity(json, Consts.UTF_8));
+        return doPostJson(url, headerMap, json, ResponseHandlers.ofString());
+    }
 
-            CloseableHttpResponse httpResponse = httpClient.execute(httpPost);
+    /**
+     * POST请求，请求体为JSON数据，按指定配置压缩请求体
+     *
+     * @param url         地址
+     * @param headerMap   头部
+     * @param json        请求体（JSON）
+     * @param compression 压缩配置，为null时使用目标主机的配置
+     * @return 响应消息
+     */
+    public static String doPostJson(String url, Map<String, String> headerMap, String json, HttpCompression compression) {
+        return execute("post", url, headerMap, json, () -> jsonRequest(new HttpPost(url), headerMap, json, compression),
+                ResponseHandlers.ofString());
+    }
 
-            // 返回200
-            if (httpResponse.getStatusLine().getStatusCode() == HttpStatus.SC_OK) {
-                content = EntityUtils.toString(httpResponse.getEntity(), Consts.UTF_8);
-            }
-        } catch (Exception e) {
-            log.error("#post# #exception# #{}# {} {} {}", getUrl(url), url, JacksonUtils.toJson(headerMap), json, e);
-        } finally {
-            log.info("#post# #result# #{}# {} {} {} {}", getUrl(url), url, JacksonUtils.toJson(headerMap), json, content);
+    /**
+     * POST请求，请求体为JSON数据，响应体由指定的响应处理按流读取
+     *
+     * @param url       地址
+     * @param headerMap 头部
+     * @param json      请求体（JSON）
+     * @param handler   响应处理，常用处理见{@link ResponseHandlers}
+     * @return 响应处理结果，请求异常时返回null
+     */
+    public static <T> T doPostJson(String url, Map<String, String> headerMap, String json, ResponseHandler<T> handler) {
+        return execute("post", url, headerMap, json, () -> jsonRequest(new HttpPost(url), headerMap, json), handler);
+    }
+
+    /**
+     * POST请求，请求体为JSON数据，响应体直接从流中解析为对象
+     *
+     * @param url       地址
+     * @param headerMap 头部
+     * @param json      请求体（JSON）
+     * @param clazz     对象类型
+     * @return 响应对象
+     */
+    public static <T> T doPostJson(String url, Map<String, String> headerMap, String json, Class<T> clazz) {
+        return doPostJson(url, accept(headerMap), json, ResponseHandlers.ofJson(clazz));
+    }
+
+    /**
+     * POST请求，请求体为JSON数据，响应体直接从流中解析为对象
+     *
+     * @param url           地址
+     * @param headerMap     头部
+     * @param json          请求体（JSON）
+     * @param typeReference 指定类型
+     * @return 响应对象
+     */
+    public static <T> T doPostJson(String url, Map<String, String> headerMap, String json, TypeReference<T> typeReference) {
+        return doPostJson(url, accept(headerMap), json, ResponseHandlers.ofJson(typeReference));
+    }
+
+    /**
+     * POST请求，请求体按指定格式（Json、Smile、CBOR）编码，并通过Accept请求同一格式的响应
+     * 响应体按响应的Content-Type解码
+     *
+     * @param url       地址
+     * @param headerMap 头部
+     * @param body      请求对象
+     * @param format    请求体格式
+     * @param clazz     对象类型
+     * @return 响应对象
+     * @throws IllegalArgumentException 请求对象为null或编码失败
+     */
+    public static <T> T doPost(String url, Map<String, String> headerMap, Object body, JsonFormat format, Class<T> clazz) {
+        return doPost(url, headerMap, body, format, ResponseHandlers.ofJson(clazz));
+    }
+
+    /**
+     * POST请求，请求体按指定格式（Json、Smile、CBOR）编码，并通过Accept请求同一格式的响应
+     * 响应体按响应的Content-Type解码
+     *
+     * @param url           地址
+     * @param headerMap     头部
+     * @param body          请求对象
+     * @param format        请求体格式
+     * @param typeReference 指定类型
+     * @return 响应对象
+     * @throws IllegalArgumentException 请求对象为null或编码失败
+     */
+    public static <T> T doPost(String url, Map<String, String> headerMap, Object body, JsonFormat format, TypeReference<T> typeReference) {
+        return doPost(url, headerMap, body, format, ResponseHandlers.ofJson(typeReference));
+    }
+
+    private static <T> T doPost(String url, Map<String, String> headerMap, Object body, JsonFormat format, ResponseHandler<T> handler) {
+        if (null == body) {
+            throw new IllegalArgumentException("request body must not be null");
         }
-        return content;
+        // 编码失败时已记录日志，不发送请求
+        final byte[] content = format.encode(body);
+        if (null == content) {
+            throw new IllegalArgumentException("request body encode as " + format + " failed: " + body.getClass().getName());
+        }
+        return execute("post", url, headerMap, body, () -> {
+            HttpPost httpPost = new HttpPost(url);
+            httpPost.setHeader(HttpHeaders.ACCEPT, format.accept());
+            final String contentType = format == JsonFormat.JSON ? CONTENT_TYPE_JSON : format.getMediaType();
+            return bodyRequest(httpPost, headerMap, contentType, content, null);
+        }, handler);
     }
 
     /**
@@ -286,30 +782,7 @@ public class HttpUtils {
      * @return 响应消息
      */
     public static String doPutWithHeader(String url, Map<String, String> headerMap, Map<String, Object> paramMap) {
-        String content = null;
-        try (CloseableHttpClient httpClient = HttpClients.createDefault()) {
-            HttpPut httpPut = new HttpPut(url);
-
-            // 请求头部
-            httpPut.setHeader("Content-Type", "application/json;charset=UTF-8");
-            setHeader(httpPut, headerMap);
-
-            // 请求体
-            String json = JacksonUtils.toJson(paramMap);
-            httpPut.setEntity(new StringEntity(json, Consts.UTF_8));
-
-            CloseableHttpResponse httpResponse = httpClient.execute(httpPut);
-
-            // 返回200
-            if (httpResponse.getStatusLine().getStatusCode() == HttpStatus.SC_OK) {
-                content = EntityUtils.toString(httpResponse.getEntity(), Consts.UTF_8);
-            }
-        } catch (Exception e) {
-            log.error("#put# #exception# #{}# {} {} {}", getUrl(url), url, JacksonUtils.toJson(headerMap), JacksonUtils.toJson(paramMap), e);
-        } finally {
-            log.info("#put# #result# #{}# {} {} {} {}", getUrl(url), url, JacksonUtils.toJson(headerMap), JacksonUtils.toJson(paramMap), content);
-        }
-        return content;
+        return doPutJsonWithHeader(url, headerMap, JacksonUtils.toJson(paramMap));
     }
 
     /**
@@ -332,29 +805,21 @@ public class HttpUtils {
      * @return 响应消息
      */
     public static String doPutJsonWithHeader(String url, Map<String, String> headerMap, String json) {
-        String content = null;
-        try (CloseableHttpClient httpClient = HttpClients.createDefault()) {
-            HttpPut httpPut = new HttpPut(url);
-
-            // 请求头部
-            httpPut.setHeader("Content-Type", "application/json;charset=UTF-8");
-            setHeader(httpPut, headerMap);
-
-            // 请求体
-            httpPut.setEntity(new StringEntity(json, Consts.UTF_8));
-
-            CloseableHttpResponse httpResponse = httpClient.execute(httpPut);
+        return doPutJson(url, headerMap, json, (HttpCompression) null);
+    }
 
-            // 返回200
-            if (httpResponse.getStatusLine().getStatusCode() == HttpStatus.SC_OK) {
-                content = EntityUtils.toString(httpResponse.getEntity(), Consts.UTF_8);
-            }
-        } catch (Exception e) {
-            log.error("#put# #exception# #{}# {} {} {}", getUrl(url), url, JacksonUtils.toJson(headerMap), json, e);
-        } finally {
-            log.info("#put# #result# #{}# {} {} {} {}", getUrl(url), url, JacksonUtils.toJson(headerMap), json, content);
-        }
-        return content;
+    /**
+     * PUT请求，请求体为JSON数据，按指定配置压缩请求体
+     *
+     * @param url         地址
+     * @param headerMap   头部
+     * @param json        请求体（JSON）
+     * @param compression 压缩配置，为null时使用目标主机的配置
+     * @return 响应消息
+     */
+    public static String doPutJson(String url, Map<String, String> headerMap, String json, HttpCompression compression) {
+        return execute("put", url, headerMap, json, () -> jsonRequest(new HttpPut(url), headerMap, json, compression),
+                ResponseHandlers.ofString());
     }
 
     /**
@@ -375,25 +840,12 @@ public class HttpUtils {
      * @return 响应消息
      */
     public static String doDeleteWithHeader(String url, Map<String, String> headerMap) {
-        String content = null;
-        try (CloseableHttpClient httpClient = HttpClients.createDefault()) {
+        return execute("delete", url, headerMap, null, () -> {
             HttpDelete httpDel = new HttpDelete(url);
             // 设置头信息
             setHeader(httpDel, headerMap);
-
-            // 执行请求
-            CloseableHttpResponse httpResponse = httpClient.execute(httpDel);
-
-            // 返回200
-            if (httpResponse.getStatusLine().getStatusCode() == HttpStatus.SC_OK) {
-                content = EntityUtils.toString(httpResponse.getEntity(), Consts.UTF_8);
-            }
-        } catch (Exception e) {
-            log.error("#delete# #exception# #{}# {} {}", getUrl(url), url, JacksonUtils.toJson(headerMap), e);
-        } finally {
-            log.info("#delete# #result# #{}# {} {} {}", getUrl(url), url, JacksonUtils.toJson(headerMap), content);
-        }
-        return content;
+            return httpDel;
+        }, ResponseHandlers.ofString());
     }
 
     /**
@@ -416,30 +868,7 @@ public class HttpUtils {
      * @return 响应消息
      */
     public static String doDeleteWithBody(String url, Map<String, String> headerMap, Map<String, Object> paramMap) {
-        String content = null;
-        try (CloseableHttpClient httpClient = HttpClients.createDefault()) {
-            HttpDeleteWithBody httpDel = new HttpDeleteWithBody(url);
-
-            // 请求头部
-            httpDel.setHeader("Content-Type", "application/json;charset=UTF-8");
-            setHeader(httpDel, headerMap);
-
-            // 请求体
-            String json = JacksonUtils.toJson(paramMap);
-            httpDel.setEntity(new StringEntity(json, Consts.UTF_8));
-
-            CloseableHttpResponse httpResponse = httpClient.execute(httpDel);
-
-            // 返回200
-            if (httpResponse.getStatusLine().getStatusCode() == HttpStatus.SC_OK) {
-                content = EntityUtils.toString(httpResponse.getEntity(), Consts.UTF_8);
-            }
-        } catch (Exception e) {
-            log.error("#delete# #exception# #{}# {} {} {}", getUrl(url), url, JacksonUtils.toJson(headerMap), JacksonUtils.toJson(paramMap), e);
-        } finally {
-            log.info("#delete# #result# #{}# {} {} {} {}", getUrl(url), url, JacksonUtils.toJson(headerMap), JacksonUtils.toJson(paramMap), content);
-        }
-        return content;
+        return doDeleteJsonWithBody(url, headerMap, JacksonUtils.toJson(paramMap));
     }
 
     /**
@@ -462,29 +891,8 @@ public class HttpUtils {
      * @return 响应消息
      */
     public static String doDeleteJsonWithBody(String url, Map<String, String> headerMap, String json) {
-        String content = null;
-        try (CloseableHttpClient httpClient = HttpClients.createDefault()) {
-            HttpDeleteWithBody httpDel = new HttpDeleteWithBody(url);
-
-            // 请求头部
-            httpDel.setHeader("Content-Type", "application/json;charset=UTF-8");
-            setHeader(httpDel, headerMap);
-
-            // 请求体
-            httpDel.setEntity(new StringEntity(json, Consts.UTF_8));
-
-            CloseableHttpResponse httpResponse = httpClient.execute(httpDel);
-
-            // 返回200
-            if (httpResponse.getStatusLine().getStatusCode() == HttpStatus.SC_OK) {
-                content = EntityUtils.toString(httpResponse.getEntity(), Consts.UTF_8);
-            }
-        } catch (Exception e) {
-            log.error("#delete# #exception# #{}# {} {} {}", getUrl(url), url, JacksonUtils.toJson(headerMap), json, e);
-        } finally {
-            log.info("#delete# #result# #{}# {} {} {} {}", getUrl(url), url, JacksonUtils.toJson(headerMap), json, content);
-        }
-        return content;
+        return execute("delete", url, headerMap, json,
+                () -> jsonRequest(new HttpDeleteWithBody(url), headerMap, json), ResponseHandlers.ofString());
     }
 
     /**
@@ -499,7 +907,7 @@ public class HttpUtils {
     }
 
     /**
-     * 上传
+     * 上传，文件按流发送，不读入内存
      *
      * @param url      请求地址
      * @param file     上传文件
@@ -507,15 +915,21 @@ public class HttpUtils {
      * @return 响应消息
      */
     public static String upload(String url, File file, Map<String, String> paramMap) {
-        MultipartEntityBuilder builder = MultipartEntityBuilder.create();
-        builder.addBinaryBody("file", file);
-        if (MapUtils.isNotEmpty(paramMap)) {
-            for (Entry<String, String> entry : paramMap.entrySet()) {
-                builder.addTextBody(entry.getKey(), entry.getValue());
-            }
-        }
-        final HttpEntity dataEntity = builder.build();
-        return upload(url, null, dataEntity);
+        return upload(url, file.toPath(), paramMap, null);
+    }
+
+    /**
+     * 上传，文件通过{@link java.nio.channels.FileChannel#transferTo}按流发送，不读入内存
+     *
+     * @param url      请求地址
+     * @param path     上传文件
+     * @param paramMap 参数
+     * @param listener 上传进度监听，可为null
+     * @return 响应消息
+     */
+    public static String upload(String url, Path path, Map<String, String> paramMap, HttpUploadListener listener) {
+        MultipartStreamEntity entity = new MultipartStreamEntity().addFile("file", path).setListener(listener);
+        return upload(url, null, addText(entity, paramMap));
     }
 
     /**
@@ -527,19 +941,11 @@ public class HttpUtils {
      * @return 响应消息
      */
     public static String upload(String url, byte[] bytes, Map<String, String> paramMap) {
-        MultipartEntityBuilder builder = MultipartEntityBuilder.create();
-        builder.addBinaryBody("file", bytes);
-        if (MapUtils.isNotEmpty(paramMap)) {
-            for (Entry<String, String> entry : paramMap.entrySet()) {
-                builder.addTextBody(entry.getKey(), entry.getValue());
-            }
-        }
-        final HttpEntity dataEntity = builder.build();
-        return upload(url, null, dataEntity);
+        return upload(url, null, addText(new MultipartStreamEntity().addBytes("file", bytes, null), paramMap));
     }
 
     /**
-     * 上传
+     * 上传，输入流按流发送（chunked），发送完成后关闭
      *
      * @param url      请求地址
      * @param is       图片流
@@ -547,15 +953,38 @@ public class HttpUtils {
      * @return 响应消息
      */
     public static String upload(String url, InputStream is, Map<String, String> paramMap) {
-        MultipartEntityBuilder builder = MultipartEntityBuilder.create();
-        builder.addBinaryBody("file", is);
+        return upload(url, is, -1L, paramMap, null);
+    }
+
+    /**
+     * 上传，输入流按流发送，发送完成后关闭
+     *
+     * @param url      请求地址
+     * @param is       输入流
+     * @param length   流长度，未知时为-1，以chunked方式发送
+     * @param paramMap 参数
+     * @param listener 上传进度监听，可为null
+     * @return 响应消息
+     */
+    public static String upload(String url, InputStream is, long length, Map<String, String> paramMap, HttpUploadListener listener) {
+        MultipartStreamEntity entity = new MultipartStreamEntity().addStream("file", is, null, length).setListener(listener);
+        return upload(url, null, addText(entity, paramMap));
+    }
+
+    /**
+     * 添加文本参数
+     *
+     * @param entity   请求体
+     * @param paramMap 参数
+     * @return 请求体
+     */
+    private static MultipartStreamEntity addText(MultipartStreamEntity entity, Map<String, String> paramMap) {
         if (MapUtils.isNotEmpty(paramMap)) {
             for (Entry<String, String> entry : paramMap.entrySet()) {
-                builder.addTextBody(entry.getKey(), entry.getValue());
+                entity.addText(entry.getKey(), entry.getValue());
             }
         }
-        final HttpEntity dataEntity = builder.build();
-        return upload(url, null, dataEntity);
+        return entity;
     }
 
     /**
@@ -567,25 +996,13 @@ public class HttpUtils {
      * @return 响应消息
      */
     public static String upload(String url, Map<String, String> headerMap, HttpEntity dataEntity) {
-        String content = null;
-        try (CloseableHttpClient httpClient = HttpClients.createDefault()) {
+        return execute("upload", url, headerMap, null, () -> {
             HttpPost httpPost = new HttpPost(url);
             // 请求头部
             setHeader(httpPost, headerMap);
             // 请求体
             httpPost.setEntity(dataEntity);
-
-            CloseableHttpResponse httpResponse = httpClient.execute(httpPost);
-
-            // 返回200
-            if (httpResponse.getStatusLine().getStatusCode() == HttpStatus.SC_OK) {
-                content = EntityUtils.toString(httpResponse.getEntity(), Consts.UTF_8);
-            }
-        } catch (Exception e) {
-            log.error("#upload# #exception# #{}# {} ", getUrl(url), url, e);
-        } finally {
-            log.info("#upload# #result# #{}# {} {}", getUrl(url), url, content);
-        }
-        return content;
+            return httpPost;
+        }, ResponseHandlers.ofString());
     }
 }
@@ -0,0 +1,319 @@
+package cn.zm1001.util.common.http;
+
+import org.apache.http.Consts;
+import org.apache.http.entity.AbstractHttpEntity;
+import org.apache.http.util.Args;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.channels.WritableByteChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * @Desc 流式multipart/form-data请求体，发送时逐个分段写出，内存占用与文件大小无关
+ * 1. 文件分段通过{@link FileChannel#transferTo}写出
+ * 2. 输入流分段按固定缓冲区复制，长度未知时请求体以chunked方式发送
+ * 3. 可通过{@link HttpUploadListener}获取上传进度
+ * 如：{@code new MultipartStreamEntity().addFile("file", path).addText("type", "COMMON").setListener(listener)}
+ * @Author Dongd_Zhou
+ */
+public class MultipartStreamEntity extends AbstractHttpEntity {
+    private static final byte[] CRLF = {'\r', '\n'};
+    private static final byte[] DASHES = {'-', '-'};
+    private static final char[] BOUNDARY_CHARS = "-_1234567890abcdefghijklmnopqrstuvwxyzABCDEFGHIJKLMNOPQRSTUVWXYZ".toCharArray();
+    private static final String OCTET_STREAM = "application/octet-stream";
+    /** 文件分段单次transferTo的最大字节数，同时决定进度回调频率 */
+    private static final long TRANSFER_CHUNK = 1024L * 1024;
+    private static final int BUFFER_SIZE = 8 * 1024;
+
+    private final String boundary;
+    private final List<Part> parts = new ArrayList<>();
+    private HttpUploadListener listener;
+
+    public MultipartStreamEntity() {
+        StringBuilder sb = new StringBuilder(32);
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        for (int i = 0; i < 32; i++) {
+            sb.append(BOUNDARY_CHARS[random.nextInt(BOUNDARY_CHARS.length)]);
+        }
+        this.boundary = sb.toString();
+        setContentType("multipart/form-data; boundary=" + boundary);
+    }
+
+    /**
+     * 文本分段
+     *
+     * @param name  参数名
+     * @param value 参数值
+     * @return this
+     */
+    public MultipartStreamEntity addText(String name, String value) {
+        byte[] bytes = null == value ? new byte[0] : value.getBytes(Consts.UTF_8);
+        parts.add(new Part(header(name, null, "text/plain; charset=UTF-8"), bytes, null, null, bytes.length));
+        return this;
+    }
+
+    /**
+     * 文件分段，文件名为上传文件名
+     *
+     * @param name 参数名
+     * @param file 文件
+     * @return this
+     */
+    public MultipartStreamEntity addFile(String name, File file) {
+        return addFile(name, file.toPath());
+    }
+
+    /**
+     * 文件分段，文件名为上传文件名
+     *
+     * @param name 参数名
+     * @param path 文件
+     * @return this
+     */
+    public MultipartStreamEntity addFile(String name, Path path) {
+        Args.notNull(path, "Path");
+        long length;
+        try {
+            length = Files.size(path);
+        } catch (IOException e) {
+            throw new IllegalArgumentException("file not readable: " + path, e);
+        }
+        parts.add(new Part(header(name, String.valueOf(path.getFileName()), OCTET_STREAM), null, path, null, length));
+        return this;
+    }
+
+    /**
+     * 字节数组分段
+     *
+     * @param name     参数名
+     * @param bytes    内容
+     * @param fileName 文件名，可为null
+     * @return this
+     */
+    public MultipartStreamEntity addBytes(String name, byte[] bytes, String fileName) {
+        Args.notNull(bytes, "Bytes");
+        parts.add(new Part(header(name, fileName, OCTET_STREAM), bytes, null, null, bytes.length));
+        return this;
+    }
+
+    /**
+     * 输入流分段，发送完成后关闭输入流，包含输入流分段的请求体不可重复发送
+     *
+     * @param name     参数名
+     * @param in       输入流
+     * @param fileName 文件名，可为null
+     * @param length   流长度，未知时为-1，请求体以chunked方式发送；发送时实际长度与之不一致则抛出IOException
+     * @return this
+     */
+    public MultipartStreamEntity addStream(String name, InputStream in, String fileName, long length) {
+        Args.notNull(in, "Input stream");
+        parts.add(new Part(header(name, fileName, OCTET_STREAM), null, null, in, length < 0 ? -1L : length));
+        return this;
+    }
+
+    /**
+     * 上传进度监听
+     *
+     * @param listener 监听
+     * @return this
+     */
+    public MultipartStreamEntity setListener(HttpUploadListener listener) {
+        this.listener = listener;
+        return this;
+    }
+
+    @Override
+    public boolean isRepeatable() {
+        for (Part part : parts) {
+            if (null != part.in) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    @Override
+    public boolean isStreaming() {
+        return !isRepeatable();
+    }
+
+    @Override
+    public boolean isChunked() {
+        return getContentLength() < 0;
+    }
+
+    @Override
+    public long getContentLength() {
+        long length = 0;
+        for (Part part : parts) {
+            if (part.length < 0) {
+                return -1L;
+            }
+            length += DASHES.length + boundary.length() + CRLF.length + part.header.length + part.length + CRLF.length;
+        }
+        return length + DASHES.length + boundary.length() + DASHES.length + CRLF.length;
+    }
+
+    /**
+     * 与{@link org.apache.http.entity.mime.MultipartFormEntity}一致，不支持按输入流读取
+     */
+    @Override
+    public InputStream getContent() {
+        throw new UnsupportedOperationException("Multipart stream entity does not implement #getContent()");
+    }
+
+    @Override
+    public void writeTo(OutputStream out) throws IOException {
+        Args.notNull(out, "Output stream");
+        final Progress progress = new Progress(listener, getContentLength());
+        final byte[] boundaryBytes = boundary.getBytes(Consts.ASCII);
+        WritableByteChannel channel = null;
+        byte[] buffer = null;
+        for (Part part : parts) {
+            progress.write(out, DASHES);
+            progress.write(out, boundaryBytes);
+            progress.write(out, CRLF);
+            progress.write(out, part.header);
+            if (null != part.bytes) {
+                out.write(part.bytes);
+                progress.advance(part.bytes.length);
+            } else if (null != part.path) {
+                if (null == channel) {
+                    channel = Channels.newChannel(out);
+                }
+                transfer(part.path, part.length, channel, progress);
+            } else {
+                if (null == buffer) {
+                    buffer = new byte[BUFFER_SIZE];
+                }
+                copy(part.in, part.length, out, buffer, progress);
+            }
+            progress.write(out, CRLF);
+        }
+        progress.write(out, DASHES);
+        progress.write(out, boundaryBytes);
+        progress.write(out, DASHES);
+        progress.write(out, CRLF);
+        out.flush();
+        progress.advance(0);
+    }
+
+    /**
+     * 按添加分段时的文件大小写出，与请求体长度保持一致
+     */
+    private static void transfer(Path path, long size, WritableByteChannel target, Progress progress) throws IOException {
+        try (FileChannel fileChannel = FileChannel.open(path, StandardOpenOption.READ)) {
+            long position = 0;
+            while (position < size) {
+                long count = fileChannel.transferTo(position, Math.min(TRANSFER_CHUNK, size - position), target);
+                if (count <= 0) {
+                    throw new IOException("file truncated while uploading: " + path);
+                }
+                position += count;
+                progress.advance(count);
+            }
+        }
+    }
+
+    /**
+     * 复制输入流，声明了长度时按长度写出，流的实际长度与声明不一致时抛出异常，避免破坏分段边界
+     *
+     * @param length 声明的长度，未知时为-1
+     */
+    private static void copy(InputStream in, long length, OutputStream out, byte[] buffer, Progress progress) throws IOException {
+        try (InputStream input = in) {
+            long remaining = length < 0 ? Long.MAX_VALUE : length;
+            int count;
+            while (remaining > 0 && (count = input.read(buffer, 0, (int) Math.min(buffer.length, remaining))) != -1) {
+                out.write(buffer, 0, count);
+                progress.advance(count);
+                remaining -= count;
+            }
+            if (length < 0) {
+                return;
+            }
+            if (remaining > 0) {
+                throw new IOException("input stream shorter than declared length " + length + ", missing " + remaining + " bytes");
+            }
+            if (input.read() != -1) {
+                throw new IOException("input stream longer than declared length " + length);
+            }
+        }
+    }
+
+    /**
+     * 分段头部：Content-Disposition及Content-Type，参数名及文件名按UTF-8编码
+     */
+    private static byte[] header(String name, String fileName, String contentType) {
+        Args.notNull(name, "Name");
+        StringBuilder sb = new StringBuilder(128);
+        sb.append("Content-Disposition: form-data; name=\"").append(escape(name)).append('"');
+        if (null != fileName) {
+            sb.append("; filename=\"").append(escape(fileName)).append('"');
+        }
+        sb.append("\r\nContent-Type: ").append(contentType).append("\r\n\r\n");
+        return sb.toString().getBytes(Consts.UTF_8);
+    }
+
+    private static String escape(String value) {
+        return value.replace("\"", "%22").replace("\r", "%0D").replace("\n", "%0A");
+    }
+
+    /**
+     * 分段，内容为字节数组、文件或输入流之一
+     */
+    private static class Part {
+        private final byte[] header;
+        private final byte[] bytes;
+        private final Path path;
+        private final InputStream in;
+        private final long length;
+
+        Part(byte[] header, byte[] bytes, Path path, InputStream in, long length) {
+            this.header = header;
+            this.bytes = bytes;
+            this.path = path;
+            this.in = in;
+            this.length = length;
+        }
+    }
+
+    /**
+     * 已发送字节数统计及进度回调
+     */
+    private static class Progress {
+        private final HttpUploadListener listener;
+        private final long total;
+        private long transferred;
+
+        Progress(HttpUploadListener listener, long total) {
+            this.listener = listener;
+            this.total = total;
+        }
+
+        /**
+         * 写出分隔符及分段头部，只统计不回调
+         */
+        void write(OutputStream out, byte[] bytes) throws IOException {
+            out.write(bytes);
+            transferred += bytes.length;
+        }
+
+        void advance(long count) {
+            transferred += count;
+            if (null != listener) {
+                listener.onProgress(transferred, total);
+            }
+        }
+    }
+}
@@ -0,0 +1,177 @@
+package cn.zm1001.util.common.http;
+
+import cn.zm1001.util.common.JacksonUtils;
+import cn.zm1001.util.common.json.JsonExtractor;
+import cn.zm1001.util.common.json.JsonFormat;
+import com.fasterxml.jackson.core.type.TypeReference;
+import org.apache.http.Consts;
+import org.apache.http.HttpEntity;
+import org.apache.http.HttpResponse;
+import org.apache.http.HttpStatus;
+import org.apache.http.client.ResponseHandler;
+import org.apache.http.util.EntityUtils;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.channels.ReadableByteChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.Map;
+
+/**
+ * @Desc 常用响应处理，仅处理响应200的响应体，其他响应丢弃响应体并返回null
+ * 除{@link #ofString()}外均直接读取响应流，不生成中间字符串
+ * @Author Dongd_Zhou
+ */
+public class ResponseHandlers {
+    /** 单次从响应流写入文件的最大字节数 */
+    private static final long TRANSFER_CHUNK = 8L * 1024 * 1024;
+
+    private static final ResponseHandler<String> STRING_HANDLER = response -> {
+        HttpEntity entity = okEntity(response);
+        return null == entity ? null : EntityUtils.toString(entity, Consts.UTF_8);
+    };
+
+    private ResponseHandlers() {
+        throw new UnsupportedOperationException();
+    }
+
+    /**
+     * 获取响应200的响应体，其他响应丢弃响应体以便连接归还连接池
+     *
+     * @param response 响应
+     * @return 响应体，非200或无响应体时返回null
+     */
+    static HttpEntity okEntity(HttpResponse response) throws IOException {
+        HttpEntity entity = response.getEntity();
+        if (response.getStatusLine().getStatusCode() == HttpStatus.SC_OK) {
+            return entity;
+        }
+        EntityUtils.consume(entity);
+        return null;
+    }
+
+    /**
+     * 响应体的格式，按Content-Type识别Json、Smile、CBOR
+     *
+     * @param entity 响应体
+     * @return 格式，未识别时为Json
+     */
+    static JsonFormat format(HttpEntity entity) {
+        return JsonFormat.fromContentType(null == entity.getContentType() ? null : entity.getContentType().getValue());
+    }
+
+    /**
+     * 响应体转为字符串
+     *
+     * @return 响应处理
+     */
+    public static ResponseHandler<String> ofString() {
+        return STRING_HANDLER;
+    }
+
+    /**
+     * 响应体交由调用方按流处理
+     *
+     * @param consumer 响应流处理
+     * @return 响应处理，响应200并处理完成时返回true
+     */
+    public static ResponseHandler<Boolean> ofStream(final HttpStreamConsumer consumer) {
+        return response -> {
+            HttpEntity entity = okEntity(response);
+            if (null == entity) {
+                return Boolean.FALSE;
+            }
+            try (InputStream in = entity.getContent()) {
+                consumer.accept(in);
+            }
+            return Boolean.TRUE;
+        };
+    }
+
+    /**
+     * 响应体直接从流中解析为对象，按Content-Type解码Json、Smile、CBOR
+     *
+     * @param clazz 对象类型
+     * @return 响应处理
+     */
+    public static <T> ResponseHandler<T> ofJson(final Class<T> clazz) {
+        return response -> {
+            HttpEntity entity = okEntity(response);
+            if (null == entity) {
+                return null;
+            }
+            final JsonFormat format = format(entity);
+            try (InputStream in = entity.getContent()) {
+                return format == JsonFormat.JSON ? JacksonUtils.parse(in, clazz) : format.read(in, clazz);
+            }
+        };
+    }
+
+    /**
+     * 响应体直接从流中解析为对象，按Content-Type解码Json、Smile、CBOR
+     *
+     * @param typeReference 指定类型
+     * @return 响应处理
+     */
+    public static <T> ResponseHandler<T> ofJson(final TypeReference<T> typeReference) {
+        return response -> {
+            HttpEntity entity = okEntity(response);
+            if (null == entity) {
+                return null;
+            }
+            final JsonFormat format = format(entity);
+            try (InputStream in = entity.getContent()) {
+                return format == JsonFormat.JSON ? JacksonUtils.toObject(in, typeReference) : format.read(in, typeReference);
+            }
+        };
+    }
+
+    /**
+     * 从响应流中只提取指定路径的值，不解析为完整对象，按Content-Type支持Json、Smile、CBOR
+     *
+     * @param extractor 路径提取器
+     * @return 响应处理，返回路径及对应的值
+     */
+    public static ResponseHandler<Map<String, Object>> ofFields(final JsonExtractor extractor) {
+        return response -> {
+            HttpEntity entity = okEntity(response);
+            if (null == entity) {
+                return null;
+            }
+            return extractor.extract(entity.getContent(), format(entity));
+        };
+    }
+
+    /**
+     * 响应体通过{@link FileChannel}直接写入文件，已存在的文件会被覆盖，写入失败时删除不完整的文件
+     *
+     * @param target 目标文件
+     * @return 响应处理，返回写入的字节数，非200响应返回null
+     */
+    public static ResponseHandler<Long> ofFile(final Path target) {
+        return response -> {
+            HttpEntity entity = okEntity(response);
+            if (null == entity) {
+                return null;
+            }
+            long position = 0;
+            try (InputStream in = entity.getContent();
+                 ReadableByteChannel source = Channels.newChannel(in);
+                 FileChannel channel = FileChannel.open(target, StandardOpenOption.CREATE, StandardOpenOption.WRITE,
+                         StandardOpenOption.TRUNCATE_EXISTING)) {
+                long count;
+                while ((count = channel.transferFrom(source, position, TRANSFER_CHUNK)) > 0) {
+                    position += count;
+                }
+            } catch (IOException e) {
+                Files.deleteIfExists(target);
+                throw e;
+            }
+            return position;
+        };
+    }
+}
@@ -0,0 +1,125 @@
+package cn.zm1001.util.common.id;
+
+import lombok.extern.slf4j.Slf4j;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.channels.FileLock;
+import java.nio.channels.OverlappingFileLockException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * @Desc 基于文件锁的节点id租约，每个id对应目录下的一个锁文件，适用于同一主机上的多个进程
+ * 1. 租用成功后持有文件锁直到释放，进程退出时由操作系统释放，不依赖租期过期
+ * 2. 锁文件中记录持有者及到期时间，仅用于排查
+ * 锁只在本机有效，多台主机需使用共享存储（数据库、Redis、ZooKeeper等）实现{@link WorkerIdLeaseStore}
+ * @Author Dongd_Zhou
+ */
+@Slf4j
+public class FileLockLeaseStore implements WorkerIdLeaseStore {
+    private final Path dir;
+    /** 本进程持有的租约，节点id -> 租约 */
+    private final Map<Long, Lease> leases = new HashMap<>();
+
+    public FileLockLeaseStore(Path dir) {
+        try {
+            this.dir = Files.createDirectories(dir);
+        } catch (IOException e) {
+            throw new IllegalArgumentException("lease directory not writable: " + dir, e);
+        }
+    }
+
+    @Override
+    public synchronized boolean tryAcquire(long nodeId, String owner, long ttl) {
+        Lease lease = leases.get(nodeId);
+        if (null != lease) {
+            return lease.owner.equals(owner) && lease.lock.isValid();
+        }
+        FileChannel channel = null;
+        try {
+            channel = FileChannel.open(dir.resolve("worker-" + nodeId + ".lock"), StandardOpenOption.CREATE, StandardOpenOption.WRITE);
+            FileLock lock = channel.tryLock();
+            if (null == lock) {
+                channel.close();
+                return false;
+            }
+            lease = new Lease(owner, channel, lock);
+            write(lease, ttl);
+            leases.put(nodeId, lease);
+            return true;
+        } catch (OverlappingFileLockException e) {
+            // 本进程已通过其他实例持有该锁
+            close(channel);
+            return false;
+        } catch (IOException e) {
+            log.warn("#FileLockLeaseStore# #tryAcquire# ## acquire worker id {} failed", nodeId, e);
+            close(channel);
+            return false;
+        }
+    }
+
+    @Override
+    public synchronized boolean renew(long nodeId, String owner, long ttl) {
+        Lease lease = leases.get(nodeId);
+        if (null == lease || !lease.owner.equals(owner) || !lease.lock.isValid()) {
+            return false;
+        }
+        try {
+            write(lease, ttl);
+            return true;
+        } catch (IOException e) {
+            log.warn("#FileLockLeaseStore# #renew# ## renew worker id {} failed", nodeId, e);
+            return false;
+        }
+    }
+
+    @Override
+    public synchronized void release(long nodeId, String owner) {
+        Lease lease = leases.get(nodeId);
+        if (null == lease || !lease.owner.equals(owner)) {
+            return;
+        }
+        leases.remove(nodeId);
+        try {
+            lease.lock.release();
+        } catch (IOException e) {
+            log.warn("#FileLockLeaseStore# #release# ## release worker id {} failed", nodeId, e);
+        }
+        close(lease.channel);
+    }
+
+    private static void write(Lease lease, long ttl) throws IOException {
+        byte[] bytes = (lease.owner + ' ' + (System.currentTimeMillis() + ttl) + '\n').getBytes(StandardCharsets.UTF_8);
+        lease.channel.truncate(0);
+        lease.channel.write(ByteBuffer.wrap(bytes), 0);
+    }
+
+    private static void close(FileChannel channel) {
+        if (null == channel) {
+            return;
+        }
+        try {
+            channel.close();
+        } catch (IOException e) {
+            log.warn("#FileLockLeaseStore# #close# ## close lock file failed", e);
+        }
+    }
+
+    private static class Lease {
+        private final String owner;
+        private final FileChannel channel;
+        private final FileLock lock;
+
+        Lease(String owner, FileChannel channel, FileLock lock) {
+            this.owner = owner;
+            this.channel = channel;
+            this.lock = lock;
+        }
+    }
+}
@@ -0,0 +1,67 @@
+package cn.zm1001.util.common.id;
+
+import cn.zm1001.util.common.exception.IdException;
+import org.apache.commons.lang3.StringUtils;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.channels.FileLock;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+
+/**
+ * @Desc 基于本地文件的号段存储，每个业务键对应目录下的一个文件，记录下一个号段的起始值
+ * 分配时持有文件锁，同一主机上的多个进程可共享；多台主机需使用{@link JdbcSegmentStore}等共享存储
+ * @Author Dongd_Zhou
+ */
+public class FileSegmentStore implements SegmentStore {
+    private final Path dir;
+    /** 业务键首次分配时的起始值 */
+    private final long initialValue;
+
+    public FileSegmentStore(Path dir) {
+        this(dir, 1L);
+    }
+
+    public FileSegmentStore(Path dir, long initialValue) {
+        try {
+            this.dir = Files.createDirectories(dir);
+        } catch (IOException e) {
+            throw new IllegalArgumentException("segment directory not writable: " + dir, e);
+        }
+        this.initialValue = initialValue;
+    }
+
+    /**
+     * 同一进程内的多个实例也需互斥，文件锁由JVM持有，不能在进程内重复加锁
+     */
+    @Override
+    public long allocate(String key, long step) {
+        if (!key.matches("[\\w.-]+")) {
+            throw new IllegalArgumentException("key can only contain letters, digits, '_', '.' and '-': " + key);
+        }
+        final Path file = dir.resolve(key + ".segment");
+        synchronized (FileSegmentStore.class) {
+            try (FileChannel channel = FileChannel.open(file, StandardOpenOption.CREATE, StandardOpenOption.READ, StandardOpenOption.WRITE)) {
+                final FileLock lock = channel.lock();
+                try {
+                    ByteBuffer buffer = ByteBuffer.allocate((int) Math.min(64, Math.max(channel.size(), 1)));
+                    channel.read(buffer, 0);
+                    String value = new String(buffer.array(), 0, buffer.position(), StandardCharsets.US_ASCII).trim();
+                    final long start = StringUtils.isEmpty(value) ? initialValue : Long.parseLong(value);
+                    channel.truncate(0);
+                    channel.write(ByteBuffer.wrap(String.valueOf(start + step).getBytes(StandardCharsets.US_ASCII)), 0);
+                    channel.force(false);
+                    return start;
+                } finally {
+                    lock.release();
+                }
+            } catch (IOException | NumberFormatException e) {
+                throw new IdException("Allocate segment of " + key + " from " + file + " failed", e);
+            }
+        }
+    }
+}
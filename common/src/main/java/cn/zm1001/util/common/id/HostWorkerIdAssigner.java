@@ -0,0 +1,41 @@
+package cn.zm1001.util.common.id;
+
+import cn.zm1001.util.common.WebUtils;
+import lombok.extern.slf4j.Slf4j;
+
+import java.util.List;
+import java.util.Set;
+import java.util.TreeSet;
+
+/**
+ * @Desc 按本机MAC地址及IP地址的哈希分配节点id
+ * 无需外部存储，但不同主机的哈希可能冲突，同一主机的多个进程会得到相同的id
+ * 同一主机多进程使用{@link LeaseWorkerIdAssigner}及{@link FileLockLeaseStore}
+ * @Author Dongd_Zhou
+ */
+@Slf4j
+public class HostWorkerIdAssigner implements WorkerIdAssigner {
+    @Override
+    public long assign(long maxNodeId) {
+        // 排序后拼接，保证同一主机每次结果一致
+        Set<String> keys = new TreeSet<>(WebUtils.getHostMac());
+        List<String> ips = WebUtils.getHostIP();
+        keys.addAll(ips);
+        if (keys.isEmpty()) {
+            throw new IllegalStateException("no mac or ip address found for worker id");
+        }
+        long hash = 1125899906842597L;
+        for (String key : keys) {
+            for (int i = 0; i < key.length(); i++) {
+                hash = 31 * hash + key.charAt(i);
+            }
+        }
+        // 混合高低位，减少相近地址的冲突
+        hash ^= hash >>> 33;
+        hash *= 0xff51afd7ed558ccdL;
+        hash ^= hash >>> 33;
+        long nodeId = (hash & Long.MAX_VALUE) % (maxNodeId + 1);
+        log.info("#HostWorkerIdAssigner# #assign# ## node id {} from {}", nodeId, keys);
+        return nodeId;
+    }
+}
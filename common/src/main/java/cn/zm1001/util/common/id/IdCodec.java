@@ -0,0 +1,189 @@
+package cn.zm1001.util.common.id;
+
+import java.util.Arrays;
+
+/**
+ * @Desc ID编码，按查表编解码，不使用String.format
+ * 1. Crockford Base32（ULID使用）：字符集为0-9及A-Z去掉I、L、O、U，解码时不区分大小写，I/L视为1，O视为0
+ * 2. Base62：字符集为0-9A-Za-z，按ASCII顺序排列，64位无符号数最长11位；定长（左侧补0）时字符串顺序与数值顺序一致
+ * @Author Dongd_Zhou
+ */
+public final class IdCodec {
+    private static final char[] CROCKFORD = "0123456789ABCDEFGHJKMNPQRSTVWXYZ".toCharArray();
+    private static final byte[] CROCKFORD_DECODE = new byte[128];
+    private static final char[] BASE62 = "0123456789ABCDEFGHIJKLMNOPQRSTUVWXYZabcdefghijklmnopqrstuvwxyz".toCharArray();
+    private static final byte[] BASE62_DECODE = new byte[128];
+    /** 64位无符号数Base62编码的最大长度 */
+    public static final int BASE62_LENGTH = 11;
+    /** Base62编码的缓冲区，每个线程一个 */
+    private static final ThreadLocal<char[]> BASE62_BUFFER = ThreadLocal.withInitial(() -> new char[BASE62_LENGTH]);
+
+    static {
+        Arrays.fill(CROCKFORD_DECODE, (byte) -1);
+        for (int i = 0; i < CROCKFORD.length; i++) {
+            CROCKFORD_DECODE[CROCKFORD[i]] = (byte) i;
+            CROCKFORD_DECODE[Character.toLowerCase(CROCKFORD[i])] = (byte) i;
+        }
+        CROCKFORD_DECODE['I'] = CROCKFORD_DECODE['i'] = 1;
+        CROCKFORD_DECODE['L'] = CROCKFORD_DECODE['l'] = 1;
+        CROCKFORD_DECODE['O'] = CROCKFORD_DECODE['o'] = 0;
+        Arrays.fill(BASE62_DECODE, (byte) -1);
+        for (int i = 0; i < BASE62.length; i++) {
+            BASE62_DECODE[BASE62[i]] = (byte) i;
+        }
+    }
+
+    private IdCodec() {
+        throw new UnsupportedOperationException();
+    }
+
+    /**
+     * 128位数值编码为26位Crockford Base32，首位只有3位有效
+     *
+     * @param msb 高64位
+     * @param lsb 低64位
+     * @return 26位字符串
+     */
+    public static String toCrockford(long msb, long lsb) {
+        final char[] chars = new char[26];
+        for (int i = 25, shift = 0; i >= 0; i--, shift += 5) {
+            chars[i] = CROCKFORD[bits5(msb, lsb, shift)];
+        }
+        return new String(chars);
+    }
+
+    /**
+     * 26位Crockford Base32解码为128位数值
+     *
+     * @param value 26位字符串
+     * @return [高64位, 低64位]
+     * @throws IllegalArgumentException 长度不是26、包含非法字符或超过128位
+     */
+    public static long[] fromCrockford(CharSequence value) {
+        if (null == value || value.length() != 26) {
+            throw new IllegalArgumentException("Invalid crockford base32 string: " + value);
+        }
+        long msb = 0L;
+        long lsb = 0L;
+        for (int i = 0; i < 26; i++) {
+            final char c = value.charAt(i);
+            final int digit = c < 128 ? CROCKFORD_DECODE[c] : -1;
+            if (digit < 0 || (i == 0 && digit > 7)) {
+                throw new IllegalArgumentException("Invalid crockford base32 string: " + value);
+            }
+            msb = (msb << 5) | (lsb >>> 59);
+            lsb = (lsb << 5) | digit;
+        }
+        return new long[]{msb, lsb};
+    }
+
+    /**
+     * 64位无符号数编码为Base62，不补0
+     *
+     * @param value 数值，负数按无符号数处理
+     * @return 1~11位字符串
+     */
+    public static String toBase62(long value) {
+        final char[] chars = BASE62_BUFFER.get();
+        final int start = base62(value, chars);
+        return new String(chars, start, BASE62_LENGTH - start);
+    }
+
+    /**
+     * 64位无符号数编码为11位Base62，左侧补0，字符串顺序与数值顺序一致
+     *
+     * @param value 数值，负数按无符号数处理
+     * @return 11位字符串
+     */
+    public static String toSortableBase62(long value) {
+        final char[] chars = BASE62_BUFFER.get();
+        Arrays.fill(chars, 0, base62(value, chars), BASE62[0]);
+        return new String(chars, 0, BASE62_LENGTH);
+    }
+
+    /**
+     * 64位无符号数编码为Base62追加到{@link StringBuilder}，不补0，容量足够时不分配内存
+     *
+     * @param builder 目标
+     * @param value   数值，负数按无符号数处理
+     * @return builder
+     */
+    public static StringBuilder appendBase62(StringBuilder builder, long value) {
+        final char[] chars = BASE62_BUFFER.get();
+        final int start = base62(value, chars);
+        return builder.append(chars, start, BASE62_LENGTH - start);
+    }
+
+    /**
+     * 64位无符号数编码为Base62写入字符数组，不补0，不分配内存
+     *
+     * @param value  数值，负数按无符号数处理
+     * @param dst    目标数组，最多需要11位空间
+     * @param offset 写入位置
+     * @return 写入的字符数
+     */
+    public static int getBase62Chars(long value, char[] dst, int offset) {
+        final char[] chars = BASE62_BUFFER.get();
+        final int start = base62(value, chars);
+        System.arraycopy(chars, start, dst, offset, BASE62_LENGTH - start);
+        return BASE62_LENGTH - start;
+    }
+
+    /**
+     * Base62解码为64位无符号数
+     *
+     * @param value Base62字符串，1~11位
+     * @return 数值，超过{@link Long#MAX_VALUE}时为负数
+     * @throws IllegalArgumentException 包含非法字符或超过64位
+     */
+    public static long fromBase62(CharSequence value) {
+        if (null == value || value.length() == 0 || value.length() > BASE62_LENGTH) {
+            throw new IllegalArgumentException("Invalid base62 string: " + value);
+        }
+        long result = 0L;
+        for (int i = 0; i < value.length(); i++) {
+            final char c = value.charAt(i);
+            final int digit = c < 128 ? BASE62_DECODE[c] : -1;
+            // result * 62 + digit 超过64位无符号数
+            if (digit < 0 || Long.compareUnsigned(result, Long.divideUnsigned(-1L - digit, 62)) > 0) {
+                throw new IllegalArgumentException("Invalid base62 string: " + value);
+            }
+            result = result * 62 + digit;
+        }
+        return result;
+    }
+
+    /**
+     * Base62从右向左写入缓冲区
+     *
+     * @return 起始位置
+     */
+    private static int base62(long value, char[] chars) {
+        int pos = BASE62_LENGTH;
+        long remaining = value;
+        if (remaining < 0) {
+            // 无符号数：先除以2再除以31，得到商后继续按有符号数处理
+            final long quotient = (remaining >>> 1) / 31;
+            chars[--pos] = BASE62[(int) (remaining - quotient * 62)];
+            remaining = quotient;
+        }
+        do {
+            chars[--pos] = BASE62[(int) (remaining % 62)];
+            remaining /= 62;
+        } while (remaining > 0);
+        return pos;
+    }
+
+    /**
+     * 128位数值中从低位起第shift位开始的5位
+     */
+    private static int bits5(long msb, long lsb, int shift) {
+        if (shift >= 64) {
+            return (int) (msb >>> (shift - 64)) & 31;
+        }
+        if (shift <= 59) {
+            return (int) (lsb >>> shift) & 31;
+        }
+        return (int) ((lsb >>> shift) | (msb << (64 - shift))) & 31;
+    }
+}
@@ -0,0 +1,93 @@
+package cn.zm1001.util.common.id;
+
+import lombok.Getter;
+
+/**
+ * @Desc 雪花算法ID的位分配：1位符号 + 时间戳 + 数据id + 工作id + 序列号，共64位
+ * 默认与{@link IdWorker}一致：41位时间戳 + 5位数据id + 5位工作id + 12位序列号
+ * 如：8位工作id、10位序列号 {@code IdLayout.of(0, 8, 10)}，时间戳为45位
+ * @Author Dongd_Zhou
+ */
+@Getter
+public class IdLayout {
+    private static final IdLayout DEFAULT = new IdLayout(5, 5, 12);
+
+    /** 时间戳位数 */
+    private final int timestampBits;
+    /** 数据id位数 */
+    private final int datacenterBits;
+    /** 工作id位数 */
+    private final int workerBits;
+    /** 序列号位数 */
+    private final int sequenceBits;
+
+    private IdLayout(int datacenterBits, int workerBits, int sequenceBits) {
+        if (datacenterBits < 0 || workerBits < 0 || sequenceBits < 1) {
+            throw new IllegalArgumentException("datacenter bits and worker bits can't be less than 0, sequence bits can't be less than 1");
+        }
+        this.timestampBits = 63 - datacenterBits - workerBits - sequenceBits;
+        if (timestampBits < 31) {
+            throw new IllegalArgumentException(String.format("timestamp bits %d too few, at least 31", timestampBits));
+        }
+        this.datacenterBits = datacenterBits;
+        this.workerBits = workerBits;
+        this.sequenceBits = sequenceBits;
+    }
+
+    /**
+     * 默认位分配
+     *
+     * @return 41位时间戳 + 5位数据id + 5位工作id + 12位序列号
+     */
+    public static IdLayout defaultLayout() {
+        return DEFAULT;
+    }
+
+    /**
+     * 指定位分配，剩余的位为时间戳
+     *
+     * @param datacenterBits 数据id位数
+     * @param workerBits     工作id位数
+     * @param sequenceBits   序列号位数
+     * @return 位分配
+     */
+    public static IdLayout of(int datacenterBits, int workerBits, int sequenceBits) {
+        return new IdLayout(datacenterBits, workerBits, sequenceBits);
+    }
+
+    public long maxDatacenterId() {
+        return ~(-1L << datacenterBits);
+    }
+
+    public long maxWorkerId() {
+        return ~(-1L << workerBits);
+    }
+
+    /**
+     * 数据id及工作id合并后的最大值，用于自动分配
+     */
+    public long maxNodeId() {
+        return ~(-1L << (datacenterBits + workerBits));
+    }
+
+    public long sequenceMask() {
+        return ~(-1L << sequenceBits);
+    }
+
+    public int workerShift() {
+        return sequenceBits;
+    }
+
+    public int datacenterShift() {
+        return sequenceBits + workerBits;
+    }
+
+    public int timestampShift() {
+        return sequenceBits + workerBits + datacenterBits;
+    }
+
+    @Override
+    public String toString() {
+        return "IdLayout(" + timestampBits + "/" + datacenterBits + "/" + workerBits + "/" + sequenceBits + ")";
+    }
+}
@@ -62,4 +62,70 @@ public class IdUtils {
     public static String fastNanoId() {
         return NanoIdUtils.fastNanoId();
     }
+
+    /**
+     * 获取雪花算法ID，使用进程内共享的无锁生成器
+     *
+     * @return 雪花算法ID
+     */
+    public static long snowflakeId() {
+        return SnowflakeIdGenerator.getInstance().nextId();
+    }
+
+    /**
+     * 批量获取连续的雪花算法ID，使用进程内共享的无锁生成器
+     *
+     * @param n 数量
+     * @return 雪花算法ID，升序
+     */
+    public static long[] snowflakeIds(int n) {
+        return SnowflakeIdGenerator.getInstance().nextIds(n);
+    }
+
+    /**
+     * 获取时间有序的UUID（类型 7），适合作为数据库主键
+     *
+     * @return 36位UUID
+     */
+    public static String timeOrderedUUID() {
+        return UUID.timeOrderedUUID().toString();
+    }
+
+    /**
+     * 时间有序的UUID（类型 7），去掉了横线
+     *
+     * @return 32位UUID，去掉了横线
+     */
+    public static String timeOrderedSimpleUUID() {
+        return UUID.timeOrderedUUID().toString(true);
+    }
+
+    /**
+     * 获取ULID，同一毫秒内单调递增
+     *
+     * @return 26位ULID
+     */
+    public static String ulid() {
+        return Ulid.nextUlid().toString();
+    }
+
+    /**
+     * 提取ULID的生成时间
+     *
+     * @param ulid 26位ULID
+     * @return 时间戳（毫秒）
+     */
+    public static long ulidTimestamp(String ulid) {
+        return Ulid.fromString(ulid).timestamp();
+    }
+
+    /**
+     * 提取时间有序UUID（类型 7）的生成时间
+     *
+     * @param uuid 36位UUID
+     * @return 时间戳（毫秒）
+     */
+    public static long uuidTimestamp(String uuid) {
+        return UUID.fromString(uuid).unixTimestamp();
+    }
 }
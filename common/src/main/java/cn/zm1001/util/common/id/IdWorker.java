@@ -1,116 +1,40 @@
 package cn.zm1001.util.common.id;
 
 import lombok.Getter;
-import lombok.extern.slf4j.Slf4j;
 
 /**
  * @Desc 雪花算法
+ * 生成由{@link SnowflakeIdGenerator}实现，不再加锁
  * @Author Dongd_Zhou
  */
-@Slf4j
 public class IdWorker {
-    // 长度为5位
-    private static final long workerIdBits = 5L;
-    private static final long datacenterIdBits = 5L;
-    // 最大值
-    private static final long maxWorkerId = ~(-1L << workerIdBits);// -1L ^ (-1L << workerIdBits)
-    private static final long maxDatacenterId = ~(-1L << datacenterIdBits);// -1L ^ (-1L << datacenterIdBits)
-    // 序列号id长度
-    private static final long sequenceBits = 12L;
-    // 序列号最大值
-    private static final long sequenceMask = ~(-1L << sequenceBits);// -1L ^ (-1L << sequenceBits)
-
-    // 工作id需要左移的位数，12位
-    private static final long workerIdShift = sequenceBits;
-    // 数据id需要左移位数 12+5=17位
-    private static final long datacenterIdShift = sequenceBits + workerIdBits;
-    // 时间戳需要左移位数 12+5+5=22位
-    private static final long timestampLeftShift = sequenceBits + workerIdBits + datacenterIdBits;
-
-    // 初始时间戳
-    private final long startTimestamp = 1288834974657L;
-    // 上次时间戳，初始值为负数
-    private long lastTimestamp = -1L;
-
     // 下面两个每个5位，加起来就是10位的工作机器id
     @Getter
     private final long workerId;    // 工作id
     @Getter
     private final long datacenterId;   // 数据id
-    // 12位的序列号
-    private long sequence;
-
+    // 无锁生成器
+    private final SnowflakeIdGenerator generator;
+
+    /**
+     * @param workerId     工作id（0~31）
+     * @param datacenterId 数据id（0~31）
+     * @param sequence     初始序列号，已不使用，保留以兼容
+     */
     public IdWorker(long workerId, long datacenterId, long sequence) {
-        // sanity check for workerId
-        if (workerId > maxWorkerId || workerId < 0) {
-            throw new IllegalArgumentException(String.format("worker Id can't be greater than %d or less than 0", maxWorkerId));
-        }
-        if (datacenterId > maxDatacenterId || datacenterId < 0) {
-            throw new IllegalArgumentException(String.format("datacenter Id can't be greater than %d or less than 0", maxDatacenterId));
-        }
-        log.debug("worker starting. timestamp left shift {}, datacenter id bits {}, worker id bits {}, sequence bits {}, worker id {}",
-                timestampLeftShift, datacenterIdBits, workerIdBits, sequenceBits, workerId);
-
+        this.generator = new SnowflakeIdGenerator(workerId, datacenterId);
         this.workerId = workerId;
         this.datacenterId = datacenterId;
-        this.sequence = sequence;
-    }
-
-    // 下一个ID生成算法
-    public synchronized long nextId() {
-        long timestamp = timeGen();
-
-        // 获取当前时间戳如果小于上次时间戳，则表示时间戳获取出现异常
-        if (timestamp < lastTimestamp) {
-            log.error("clock is moving backwards.  Rejecting requests until {}.", lastTimestamp);
-            throw new RuntimeException(String.format("Clock moved backwards.  Refusing to generate id for %d milliseconds",
-                    lastTimestamp - timestamp));
-        }
-
-        // 获取当前时间戳如果等于上次时间戳（同一毫秒内），则在序列号加一；否则序列号赋值为0，从0开始。
-        if (lastTimestamp == timestamp) {
-            sequence = (sequence + 1) & sequenceMask;
-            if (sequence == 0) {
-                timestamp = tilNextMillis(lastTimestamp);
-            }
-        } else {
-            sequence = 0;
-        }
-
-        //将上次时间戳值刷新
-        lastTimestamp = timestamp;
-
-        /*
-          返回结果：
-          (timestamp - startTimestamp) << timestampLeftShift) 表示将时间戳减去初始时间戳，再左移相应位数
-          (datacenterId << datacenterIdShift) 表示将数据id左移相应位数
-          (workerId << workerIdShift) 表示将工作id左移相应位数
-          | 是按位或运算符，例如：x | y，只有当x，y都为0的时候结果才为0，其它情况结果都为1。
-          因为个部分只有相应位上的值有意义，其它位上都是0，所以将各部分的值进行 | 运算就能得到最终拼接好的id
-         */
-        return ((timestamp - startTimestamp) << timestampLeftShift) |
-                (datacenterId << datacenterIdShift) |
-                (workerId << workerIdShift) |
-                sequence;
-    }
-
-    // 获取时间戳，并与上次时间戳比较
-    private long tilNextMillis(long lastTimestamp) {
-        long timestamp = timeGen();
-        while (timestamp <= lastTimestamp) {
-            timestamp = timeGen();
-        }
-        return timestamp;
     }
 
-    // 获取系统时间戳
-    private long timeGen() {
-        return System.currentTimeMillis();
+    // 下一个ID生成算法，由无锁生成器实现
+    public long nextId() {
+        return generator.nextId();
     }
 
+    // 使用进程内共享的生成器，保证并发调用不重复
     public static String getId() {
-        IdWorker worker = new IdWorker(1, 1, 1);
-        return String.valueOf(worker.nextId());
+        return String.valueOf(SnowflakeIdGenerator.getInstance().nextId());
     }
 
 }
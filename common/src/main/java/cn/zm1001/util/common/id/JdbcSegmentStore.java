@@ -0,0 +1,80 @@
+package cn.zm1001.util.common.id;
+
+import cn.zm1001.util.common.exception.IdException;
+import org.apache.commons.lang3.Validate;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+
+/**
+ * @Desc 基于数据库的号段存储，每个业务键对应表中的一行，在事务中递增最大值后读取
+ * 表结构：{@code CREATE TABLE id_segment (biz_key VARCHAR(128) NOT NULL PRIMARY KEY, max_id BIGINT NOT NULL)}
+ * 业务键需预先插入，如：{@code INSERT INTO id_segment (biz_key, max_id) VALUES ('order', 1)}
+ * @Author Dongd_Zhou
+ */
+public class JdbcSegmentStore implements SegmentStore {
+    private final DataSource dataSource;
+    private final String updateSql;
+    private final String selectSql;
+
+    public JdbcSegmentStore(DataSource dataSource) {
+        this(dataSource, "id_segment");
+    }
+
+    /**
+     * @param dataSource 数据源
+     * @param table      表名
+     */
+    public JdbcSegmentStore(DataSource dataSource, String table) {
+        Validate.notNull(dataSource, "dataSource must not be null");
+        Validate.isTrue(null != table && table.matches("[\\w.]+"), "illegal table name: %s", table);
+        this.dataSource = dataSource;
+        this.updateSql = "UPDATE " + table + " SET max_id = max_id + ? WHERE biz_key = ?";
+        this.selectSql = "SELECT max_id FROM " + table + " WHERE biz_key = ?";
+    }
+
+    /**
+     * 更新后读取的最大值为号段结束值，行锁保证并发分配的号段不重叠
+     */
+    @Override
+    public long allocate(String key, long step) {
+        try (Connection connection = dataSource.getConnection()) {
+            final boolean autoCommit = connection.getAutoCommit();
+            connection.setAutoCommit(false);
+            try {
+                final long end = allocate(connection, key, step);
+                connection.commit();
+                return end - step;
+            } catch (SQLException | RuntimeException e) {
+                connection.rollback();
+                throw e;
+            } finally {
+                connection.setAutoCommit(autoCommit);
+            }
+        } catch (SQLException e) {
+            throw new IdException("Allocate segment of " + key + " failed", e);
+        }
+    }
+
+    private long allocate(Connection connection, String key, long step) throws SQLException {
+        try (PreparedStatement update = connection.prepareStatement(updateSql)) {
+            update.setLong(1, step);
+            update.setString(2, key);
+            if (update.executeUpdate() == 0) {
+                throw new IdException("Segment key not found: " + key);
+            }
+        }
+        try (PreparedStatement select = connection.prepareStatement(selectSql)) {
+            select.setString(1, key);
+            try (ResultSet rs = select.executeQuery()) {
+                if (!rs.next()) {
+                    throw new IdException("Segment key not found: " + key);
+                }
+                return rs.getLong(1);
+            }
+        }
+    }
+}
@@ -0,0 +1,124 @@
+package cn.zm1001.util.common.id;
+
+import cn.zm1001.util.common.exception.IdException;
+import lombok.Getter;
+import lombok.extern.slf4j.Slf4j;
+import org.apache.commons.lang3.concurrent.BasicThreadFactory;
+
+import java.lang.management.ManagementFactory;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * @Desc 按租约分配节点id，保证同一时刻每个id只有一个持有者
+ * 1. 从随机位置开始依次尝试租用，避免同时启动的进程争用同一个id
+ * 2. 租用成功后每1/3租期续租一次
+ * 3. 续租失败或超过租期未续租成功时租约视为丢失，生成器拒绝生成，避免与重新分配到该id的进程生成重复ID
+ * 租期按System.nanoTime计算，生成ID时不读取系统时钟，系统时钟跳变不影响租约有效性
+ * 如：{@code SnowflakeConfig.defaultConfig().setWorkerIdAssigner(new LeaseWorkerIdAssigner(new FileLockLeaseStore(dir), 30000))}
+ * @Author Dongd_Zhou
+ */
+@Slf4j
+public class LeaseWorkerIdAssigner implements WorkerIdAssigner {
+    /** 续租定时器，所有实例共享 */
+    private static final ScheduledExecutorService HEARTBEAT = Executors.newSingleThreadScheduledExecutor(
+            new BasicThreadFactory.Builder().namingPattern("id-lease-heartbeat-%d").daemon(true).build());
+
+    private final WorkerIdLeaseStore store;
+    private final long ttl;
+    private final long ttlNanos;
+    @Getter
+    private final String owner;
+    /** 已租用的节点id，未租用时为-1 */
+    @Getter
+    private volatile long nodeId = -1L;
+    /** 是否持有租约，租约丢失或释放时为false */
+    private volatile boolean leased;
+    /** 租约到期的System.nanoTime，续租成功时延长 */
+    private volatile long deadline;
+    private ScheduledFuture<?> heartbeat;
+
+    /**
+     * @param store 租约存储
+     * @param ttl   租期（毫秒）
+     */
+    public LeaseWorkerIdAssigner(WorkerIdLeaseStore store, long ttl) {
+        if (ttl < 3) {
+            throw new IllegalArgumentException("ttl can't be less than 3 milliseconds");
+        }
+        this.store = store;
+        this.ttl = ttl;
+        this.ttlNanos = TimeUnit.MILLISECONDS.toNanos(ttl);
+        // 进程名为pid@主机名，附加随机串区分同一进程内的多个实例
+        this.owner = ManagementFactory.getRuntimeMXBean().getName() + '-' + Long.toHexString(ThreadLocalRandom.current().nextLong());
+    }
+
+    @Override
+    public synchronized long assign(long maxNodeId) {
+        if (nodeId >= 0) {
+            return nodeId;
+        }
+        final long size = maxNodeId + 1;
+        final long start = ThreadLocalRandom.current().nextLong(size);
+        for (long i = 0; i < size; i++) {
+            final long id = (start + i) % size;
+            // 按请求前的时间计算到期时间，不会晚于存储中的到期时间
+            final long requested = System.nanoTime();
+            if (store.tryAcquire(id, owner, ttl)) {
+                nodeId = id;
+                deadline = requested + ttlNanos;
+                leased = true;
+                heartbeat = HEARTBEAT.scheduleWithFixedDelay(this::renew, ttl / 3, ttl / 3, TimeUnit.MILLISECONDS);
+                log.info("#LeaseWorkerIdAssigner# #assign# ## node id {} leased by {}", id, owner);
+                return id;
+            }
+        }
+        throw new IdException(String.format("No worker id available, all %d ids are leased", size));
+    }
+
+    @Override
+    public boolean isValid() {
+        return leased && System.nanoTime() - deadline < 0;
+    }
+
+    @Override
+    public synchronized void release() {
+        if (nodeId < 0) {
+            return;
+        }
+        if (null != heartbeat) {
+            heartbeat.cancel(false);
+            heartbeat = null;
+        }
+        leased = false;
+        store.release(nodeId, owner);
+        log.info("#LeaseWorkerIdAssigner# #release# ## node id {} released by {}", nodeId, owner);
+        nodeId = -1L;
+    }
+
+    private synchronized void renew() {
+        if (nodeId < 0 || !leased) {
+            return;
+        }
+        final long start = System.nanoTime();
+        boolean renewed;
+        try {
+            renewed = store.renew(nodeId, owner, ttl);
+        } catch (RuntimeException e) {
+            // 存储暂时不可用时在租期内继续重试
+            log.warn("#LeaseWorkerIdAssigner# #renew# ## renew node id {} failed", nodeId, e);
+            return;
+        }
+        if (renewed) {
+            deadline = start + ttlNanos;
+            return;
+        }
+        leased = false;
+        heartbeat.cancel(false);
+        heartbeat = null;
+        log.error("#LeaseWorkerIdAssigner# #renew# ## lease of node id {} lost by {}, refusing to generate ids", nodeId, owner);
+    }
+}
@@ -1,8 +1,8 @@
 package cn.zm1001.util.common.id;
 
-import org.apache.commons.lang3.Validate;
-
+import java.nio.ByteBuffer;
 import java.security.SecureRandom;
+import java.util.Arrays;
 import java.util.Random;
 import java.util.concurrent.ThreadLocalRandom;
 
@@ -16,6 +16,8 @@ public class NanoIdUtils {
     private static final char[] DEFAULT_ALPHABET = "_-0123456789abcdefghijklmnopqrstuvwxyzABCDEFGHIJKLMNOPQRSTUVWXYZ".toCharArray();
     /** 默认返回字符串长度 */
     private static final int DEFAULT_SIZE = 21;
+    /** 字符及随机字节缓冲区，每个线程一个，生成字符串时只分配String */
+    private static final ThreadLocal<Buffers> BUFFERS = ThreadLocal.withInitial(Buffers::new);
 
     private NanoIdUtils() {
         throw new UnsupportedOperationException();
@@ -65,28 +67,125 @@ public class NanoIdUtils {
      * @return 随机生成NanoId字符串
      */
     public static String randomNanoId(final Random random, final char[] alphabet, final int size) {
-        Validate.notNull(random, "random cannot be null.");
-        Validate.notNull(alphabet, "alphabet cannot be null.");
-        Validate.isTrue(alphabet.length > 0 && alphabet.length < 256, "alphabet must contain between 1 and 255 symbols.");
-        Validate.isTrue(size > 0, "size must be greater than zero.");
+        return new String(fill(random, alphabet, size), 0, size);
+    }
 
-        final int mask = (2 << (int) Math.floor(Math.log(alphabet.length - 1) / Math.log(2))) - 1;
-        final int step = (int) Math.ceil(1.6 * mask * size / alphabet.length);
+    /**
+     * 使用本地线程伪随机数生成器生成默认长度的NanoId，追加到{@link StringBuilder}，容量足够时不分配内存
+     *
+     * @param builder 目标
+     * @return builder
+     */
+    public static StringBuilder appendFastNanoId(StringBuilder builder) {
+        return builder.append(fill(getRandom(), DEFAULT_ALPHABET, DEFAULT_SIZE), 0, DEFAULT_SIZE);
+    }
+
+    /**
+     * 使用本地线程伪随机数生成器生成默认长度的NanoId，按ASCII写入{@link ByteBuffer}，不分配内存
+     *
+     * @param buffer 目标，需要21字节剩余空间
+     * @return buffer
+     */
+    public static ByteBuffer writeFastNanoId(ByteBuffer buffer) {
+        final char[] chars = fill(getRandom(), DEFAULT_ALPHABET, DEFAULT_SIZE);
+        for (int i = 0; i < DEFAULT_SIZE; i++) {
+            buffer.put((byte) chars[i]);
+        }
+        return buffer;
+    }
 
-        final StringBuilder idBuilder = new StringBuilder();
+    /**
+     * 生成NanoId字符串，追加到{@link StringBuilder}
+     *
+     * @param builder  目标
+     * @param random   随机数生成器
+     * @param alphabet NanoId字符串包含的字符
+     * @param size     NanoId字符串长度
+     * @return builder
+     */
+    public static StringBuilder appendNanoId(StringBuilder builder, final Random random, final char[] alphabet, final int size) {
+        return builder.append(fill(random, alphabet, size), 0, size);
+    }
 
+    /**
+     * 随机字符写入本线程的字符缓冲区
+     * 1. 字符集长度为2的幂且随机数生成器为ThreadLocalRandom时，每个long按位切分为多个字符，不需要随机字节
+     * 2. 其他情况按掩码取随机字节，超出字符集的丢弃，随机字节数组按线程复用
+     *
+     * @return 字符缓冲区，前size位为结果
+     */
+    private static char[] fill(final Random random, final char[] alphabet, final int size) {
+        // 不使用Validate，其可变参数每次调用都会分配数组
+        if (null == random || null == alphabet) {
+            throw new NullPointerException(null == random ? "random cannot be null." : "alphabet cannot be null.");
+        }
+        if (alphabet.length == 0 || alphabet.length > 255) {
+            throw new IllegalArgumentException("alphabet must contain between 1 and 255 symbols.");
+        }
+        if (size <= 0) {
+            throw new IllegalArgumentException("size must be greater than zero.");
+        }
+
+        final Buffers buffers = BUFFERS.get();
+        final char[] chars = buffers.chars(size);
+        if (alphabet.length == 1) {
+            Arrays.fill(chars, 0, size, alphabet[0]);
+            return chars;
+        }
+        final int mask = (2 << (31 - Integer.numberOfLeadingZeros(alphabet.length - 1))) - 1;
+        if (random instanceof ThreadLocalRandom && mask + 1 == alphabet.length) {
+            final int bits = Integer.bitCount(mask);
+            final int perLong = 64 / bits;
+            long value = 0L;
+            for (int i = 0; i < size; i++) {
+                if (i % perLong == 0) {
+                    value = random.nextLong();
+                }
+                chars[i] = alphabet[(int) value & mask];
+                value >>>= bits;
+            }
+            return chars;
+        }
+
+        final int step = (int) Math.ceil(1.6 * mask * size / alphabet.length);
+        final byte[] bytes = buffers.bytes(step);
+        int length = 0;
         while (true) {
-            final byte[] bytes = new byte[step];
             random.nextBytes(bytes);
             for (int i = 0; i < step; i++) {
                 final int alphabetIndex = bytes[i] & mask;
                 if (alphabetIndex < alphabet.length) {
-                    idBuilder.append(alphabet[alphabetIndex]);
-                    if (idBuilder.length() == size) {
-                        return idBuilder.toString();
+                    chars[length++] = alphabet[alphabetIndex];
+                    if (length == size) {
+                        return chars;
                     }
                 }
             }
         }
     }
+
+    /**
+     * 每个线程的字符及随机字节缓冲区
+     */
+    private static class Buffers {
+        private char[] chars = new char[DEFAULT_SIZE];
+        private byte[] bytes = new byte[0];
+
+        char[] chars(int size) {
+            if (chars.length < size) {
+                chars = new char[size];
+            }
+            return chars;
+        }
+
+        /**
+         * {@link Random#nextBytes(byte[])}会填满整个数组，长度需正好为step
+         */
+        byte[] bytes(int step) {
+            if (bytes.length != step) {
+                bytes = new byte[step];
+            }
+            return bytes;
+        }
+    }
 }
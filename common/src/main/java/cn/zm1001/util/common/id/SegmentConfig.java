@@ -0,0 +1,32 @@
+package cn.zm1001.util.common.id;
+
+import lombok.Data;
+import lombok.experimental.Accessors;
+
+/**
+ * @Desc 号段ID分配器配置
+ * @Author Dongd_Zhou
+ */
+@Data
+@Accessors(chain = true)
+public class SegmentConfig {
+    /** 初始号段长度 */
+    private long step = 10000L;
+    /** 最小号段长度 */
+    private long minStep = 1000L;
+    /** 最大号段长度 */
+    private long maxStep = 1000000L;
+    /** 当前号段消耗到该比例时异步预取下一个号段 */
+    private double prefetchRatio = 0.15D;
+    /** 号段期望的消耗时间（毫秒），短于该值时号段长度翻倍，超过两倍时减半 */
+    private long segmentDuration = 15 * 60 * 1000L;
+
+    /**
+     * 默认配置
+     *
+     * @return 默认配置
+     */
+    public static SegmentConfig defaultConfig() {
+        return new SegmentConfig();
+    }
+}
@@ -0,0 +1,222 @@
+package cn.zm1001.util.common.id;
+
+import cn.zm1001.util.common.exception.IdException;
+import lombok.Getter;
+import lombok.extern.slf4j.Slf4j;
+import org.apache.commons.lang3.Validate;
+import org.apache.commons.lang3.concurrent.BasicThreadFactory;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * @Desc 号段ID分配器：从{@link SegmentStore}批量分配号段，在内存中递增发放，生成不依赖时钟的连续数字ID
+ * 1. 当前号段通过AtomicLong递增发放，不加锁
+ * 2. 当前号段消耗到预取比例时异步分配下一个号段（双缓冲），号段用完时切换到已预取的号段；预取未完成时持锁等待，
+ *    预取失败且未重新预取成功时持锁同步分配，均计入等待次数；预取失败时下一次发放ID重新预取
+ * 3. 号段消耗时间短于期望时号段长度翻倍，超过两倍时减半
+ * 进程重启时未发放的ID会被跳过，ID连续但不保证无间隔
+ * 如：{@code new SegmentIdAllocator(new JdbcSegmentStore(dataSource), "order").next()}
+ * @Author Dongd_Zhou
+ */
+@Slf4j
+public class SegmentIdAllocator {
+    /** 号段预取线程，所有实例共享 */
+    private static final ExecutorService LOADER = Executors.newCachedThreadPool(
+            new BasicThreadFactory.Builder().namingPattern("id-segment-loader-%d").daemon(true).build());
+    /** 初始为空号段，首次发放时同步分配 */
+    private static final Segment EMPTY = new Segment(0L, 0L, 0L);
+
+    private final SegmentStore store;
+    @Getter
+    private final String key;
+    private final SegmentConfig config;
+    private volatile Segment current = EMPTY;
+    /** 预取中或已预取的下一个号段，仅在持有this锁时修改 */
+    private CompletableFuture<Segment> next;
+    /** 分配号段的锁，与切换号段的锁分开，切换时可等待预取完成 */
+    private final Object loadLock = new Object();
+    /** 号段长度，仅在持有loadLock时修改 */
+    private volatile long step;
+    /** 上次分配号段的时间 */
+    private long loadedAt;
+
+    private final LongAdder loads = new LongAdder();
+    private final LongAdder prefetches = new LongAdder();
+    private final LongAdder prefetchFailures = new LongAdder();
+    private final LongAdder waits = new LongAdder();
+
+    public SegmentIdAllocator(SegmentStore store, String key) {
+        this(store, key, SegmentConfig.defaultConfig());
+    }
+
+    public SegmentIdAllocator(SegmentStore store, String key, SegmentConfig config) {
+        Validate.notNull(store, "store must not be null");
+        Validate.notBlank(key, "key must not be blank");
+        if (config.getMinStep() <= 0 || config.getStep() < config.getMinStep() || config.getStep() > config.getMaxStep()) {
+            throw new IllegalArgumentException("step must be between min step and max step, min step must be positive");
+        }
+        if (config.getPrefetchRatio() <= 0 || config.getPrefetchRatio() >= 1) {
+            throw new IllegalArgumentException("prefetch ratio must be between 0 and 1");
+        }
+        this.store = store;
+        this.key = key;
+        this.config = config;
+        this.step = config.getStep();
+    }
+
+    /**
+     * 下一个ID
+     *
+     * @return ID
+     * @throws IdException 号段用完且存储分配失败
+     */
+    public long next() {
+        for (; ; ) {
+            final Segment segment = current;
+            final long id = segment.cursor.getAndIncrement();
+            if (id < segment.end) {
+                if (id >= segment.prefetchAt && !segment.prefetching) {
+                    prefetch(segment);
+                }
+                return id;
+            }
+            swap(segment);
+        }
+    }
+
+    /**
+     * 统计
+     *
+     * @return 号段分配、预取等统计
+     */
+    public SegmentStats getStats() {
+        final Segment segment = current;
+        return new SegmentStats()
+                .setLoads(loads.sum())
+                .setPrefetches(prefetches.sum())
+                .setPrefetchFailures(prefetchFailures.sum())
+                .setWaits(waits.sum())
+                .setStep(step)
+                .setRemaining(Math.max(0L, segment.end - segment.cursor.get()));
+    }
+
+    /**
+     * 异步分配下一个号段
+     */
+    private synchronized void prefetch(Segment segment) {
+        if (segment != current || null != next) {
+            return;
+        }
+        prefetches.increment();
+        segment.prefetching = true;
+        final CompletableFuture<Segment> future = CompletableFuture.supplyAsync(this::load, LOADER);
+        next = future;
+        future.whenComplete((s, e) -> {
+            if (null != e) {
+                prefetchFailures.increment();
+                log.error("#SegmentIdAllocator# #prefetch# ## prefetch segment of {} failed, retry on next id", key, e);
+                rearm(segment, future);
+            }
+        });
+    }
+
+    /**
+     * 预取失败后重新允许预取，避免号段用完时持有锁同步分配，阻塞所有发放ID的线程
+     */
+    private synchronized void rearm(Segment segment, CompletableFuture<Segment> failed) {
+        if (next == failed) {
+            next = null;
+            segment.prefetching = false;
+        }
+    }
+
+    /**
+     * 当前号段用完，切换到下一个号段；未预取或预取失败时同步分配
+     */
+    private synchronized void swap(Segment exhausted) {
+        if (exhausted != current) {
+            return;
+        }
+        CompletableFuture<Segment> future = next;
+        next = null;
+        Segment segment = null;
+        if (null != future) {
+            final boolean done = future.isDone();
+            if (!done) {
+                waits.increment();
+            }
+            try {
+                segment = future.join();
+            } catch (CompletionException e) {
+                // 预取失败已记录，重新预取前号段已用完，同步重试
+                if (done) {
+                    waits.increment();
+                }
+            }
+        } else if (exhausted != EMPTY) {
+            waits.increment();
+        }
+        current = null == segment ? load() : segment;
+    }
+
+    /**
+     * 从存储分配号段，按上一个号段的消耗时间调整号段长度
+     */
+    private Segment load() {
+        synchronized (loadLock) {
+            return doLoad();
+        }
+    }
+
+    private Segment doLoad() {
+        final long now = System.currentTimeMillis();
+        long size = step;
+        if (loadedAt > 0) {
+            final long duration = now - loadedAt;
+            if (duration < config.getSegmentDuration()) {
+                size = Math.min(size * 2, config.getMaxStep());
+            } else if (duration > config.getSegmentDuration() * 2) {
+                size = Math.max(size / 2, config.getMinStep());
+            }
+        }
+        final long start;
+        try {
+            start = store.allocate(key, size);
+        } catch (IdException e) {
+            throw e;
+        } catch (RuntimeException e) {
+            throw new IdException("Allocate segment of " + key + " failed", e);
+        }
+        loads.increment();
+        if (size != step) {
+            log.info("#SegmentIdAllocator# #load# ## step of {} changed from {} to {}", key, step, size);
+        }
+        step = size;
+        loadedAt = now;
+        return new Segment(start, start + size, start + (long) (size * config.getPrefetchRatio()));
+    }
+
+    /**
+     * 号段[start, end)
+     */
+    private static class Segment {
+        /** 下一个发放的ID，超过end后继续递增，不再发放 */
+        private final AtomicLong cursor;
+        private final long end;
+        /** 发放到该ID时预取下一个号段 */
+        private final long prefetchAt;
+        /** 是否已开始预取，预取失败时重置 */
+        private volatile boolean prefetching;
+
+        Segment(long start, long end, long prefetchAt) {
+            this.cursor = new AtomicLong(start);
+            this.end = end;
+            this.prefetchAt = prefetchAt;
+        }
+    }
+}
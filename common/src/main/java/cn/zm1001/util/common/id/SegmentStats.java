@@ -0,0 +1,25 @@
+package cn.zm1001.util.common.id;
+
+import lombok.Data;
+import lombok.experimental.Accessors;
+
+/**
+ * @Desc 号段ID分配器统计
+ * @Author Dongd_Zhou
+ */
+@Data
+@Accessors(chain = true)
+public class SegmentStats {
+    /** 从存储分配号段的次数 */
+    private long loads;
+    /** 异步预取的次数 */
+    private long prefetches;
+    /** 预取失败的次数 */
+    private long prefetchFailures;
+    /** 号段用完时下一个号段未就绪，需等待存储的次数 */
+    private long waits;
+    /** 当前号段长度 */
+    private long step;
+    /** 当前号段剩余数量 */
+    private long remaining;
+}
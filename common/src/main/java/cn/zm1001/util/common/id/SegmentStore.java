@@ -0,0 +1,19 @@
+package cn.zm1001.util.common.id;
+
+/**
+ * @Desc 号段存储，按业务键分配连续的号段，由共享存储（文件、数据库等）实现
+ * 同一业务键分配的号段不重叠且递增
+ * @Author Dongd_Zhou
+ */
+@FunctionalInterface
+public interface SegmentStore {
+    /**
+     * 分配号段
+     *
+     * @param key  业务键
+     * @param step 号段长度
+     * @return 号段起始值，号段为[起始值, 起始值 + step)
+     * @throws cn.zm1001.util.common.exception.IdException 分配失败
+     */
+    long allocate(String key, long step);
+}
@@ -0,0 +1,38 @@
+package cn.zm1001.util.common.id;
+
+import lombok.Data;
+import lombok.experimental.Accessors;
+
+/**
+ * @Desc 雪花算法ID生成器配置
+ * @Author Dongd_Zhou
+ */
+@Data
+@Accessors(chain = true)
+public class SnowflakeConfig {
+    /** ID位分配 */
+    private IdLayout layout = IdLayout.defaultLayout();
+    /** 节点id分配，设置后忽略workerId及datacenterId，按位分配拆分为数据id及工作id */
+    private WorkerIdAssigner workerIdAssigner;
+    /** 工作id */
+    private long workerId = 1L;
+    /** 数据id */
+    private long datacenterId = 1L;
+    /** 起始时间戳（毫秒） */
+    private long epoch = SnowflakeIdGenerator.DEFAULT_EPOCH;
+    /** 序列号用完时最多借用的未来时间（毫秒） */
+    private long maxBorrow = 10L;
+    /** 可容忍的系统时钟回拨（毫秒），回拨不超过该值时继续按逻辑时钟生成，超过时拒绝生成直到时钟追上 */
+    private long maxRollback = 1000L;
+    /** 逻辑时钟与系统时钟校准的间隔（毫秒） */
+    private long resyncInterval = 1000L;
+
+    /**
+     * 默认配置
+     *
+     * @return 默认配置
+     */
+    public static SnowflakeConfig defaultConfig() {
+        return new SnowflakeConfig();
+    }
+}
@@ -0,0 +1,90 @@
+package cn.zm1001.util.common.id;
+
+import lombok.Getter;
+
+/**
+ * @Desc 雪花算法ID解析：按位分配拆分出时间戳、数据id、工作id及序列号，计算时间范围对应的ID范围
+ * 均为位运算，不分配内存，可用于路由及分片
+ * 位分配及起始时间戳需与生成时一致，默认与{@link IdWorker}一致，其他配置通过{@link SnowflakeIdGenerator#getDecoder()}获取
+ * 如：按时间范围查询 {@code id BETWEEN decoder.minId(start) AND decoder.maxId(end)}
+ * @Author Dongd_Zhou
+ */
+@Getter
+public class SnowflakeIdDecoder {
+    private static final SnowflakeIdDecoder DEFAULT = new SnowflakeIdDecoder(IdLayout.defaultLayout(), SnowflakeIdGenerator.DEFAULT_EPOCH);
+
+    private final IdLayout layout;
+    /** 起始时间戳（毫秒） */
+    private final long epoch;
+
+    public SnowflakeIdDecoder(IdLayout layout, long epoch) {
+        this.layout = layout;
+        this.epoch = epoch;
+    }
+
+    /**
+     * 默认位分配及起始时间戳，与{@link IdWorker}一致
+     *
+     * @return 解析器
+     */
+    public static SnowflakeIdDecoder defaultDecoder() {
+        return DEFAULT;
+    }
+
+    /**
+     * 生成时间
+     *
+     * @param id ID
+     * @return 时间戳（毫秒），为生成时的逻辑时钟，借用未来时间时可能略晚于实际时间
+     */
+    public long timestamp(long id) {
+        return (id >>> layout.timestampShift()) + epoch;
+    }
+
+    public long datacenterId(long id) {
+        return (id >>> layout.datacenterShift()) & layout.maxDatacenterId();
+    }
+
+    public long workerId(long id) {
+        return (id >>> layout.workerShift()) & layout.maxWorkerId();
+    }
+
+    /**
+     * 数据id及工作id合并的节点id，与{@link WorkerIdAssigner}分配的id一致
+     */
+    public long nodeId(long id) {
+        return (id >>> layout.workerShift()) & layout.maxNodeId();
+    }
+
+    public long sequence(long id) {
+        return id & layout.sequenceMask();
+    }
+
+    /**
+     * 指定时间生成的最小ID
+     *
+     * @param millis 时间戳（毫秒），不能早于起始时间戳
+     * @return 节点id及序列号均为0的ID
+     */
+    public long minId(long millis) {
+        if (millis < epoch) {
+            throw new IllegalArgumentException("timestamp can't be earlier than epoch " + epoch);
+        }
+        return (millis - epoch) << layout.timestampShift();
+    }
+
+    /**
+     * 指定时间生成的最大ID
+     *
+     * @param millis 时间戳（毫秒），不能早于起始时间戳
+     * @return 节点id及序列号均为最大值的ID
+     */
+    public long maxId(long millis) {
+        return minId(millis) | ~(-1L << layout.timestampShift());
+    }
+
+    @Override
+    public String toString() {
+        return "SnowflakeIdDecoder(layout=" + layout + ", epoch=" + epoch + ")";
+    }
+}
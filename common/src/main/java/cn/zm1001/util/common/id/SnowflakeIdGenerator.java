@@ -0,0 +1,350 @@
+package cn.zm1001.util.common.id;
+
+import cn.zm1001.util.common.exception.IdException;
+import lombok.Getter;
+import lombok.extern.slf4j.Slf4j;
+
+import java.io.Closeable;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * @Desc 无锁雪花算法ID生成器，默认ID结构与{@link IdWorker}一致：41位时间戳 + 5位数据id + 5位工作id + 12位序列号，可通过{@link IdLayout}调整
+ * 1. 时间戳及序列号合并保存在一个AtomicLong中，通过CAS递增，不加锁
+ * 2. 同一毫秒序列号用完时进位到下一毫秒（借用未来时间），不自旋等待；借用超过上限时短暂等待时钟追上
+ * 3. {@link #nextIds(int)}一次CAS预留连续的序列号
+ * 4. 时间取自逻辑时钟：按System.nanoTime的增量推进，定期与系统时钟校准，生成ID时不读取系统时钟
+ * 5. 系统时钟回拨不超过容忍值时逻辑时钟不回退，继续生成；超过时逻辑时钟与系统时钟对齐，拒绝生成直到时钟追上
+ * 6. 配置{@link WorkerIdAssigner}时自动分配数据id及工作id，租约丢失后拒绝生成
+ * 默认12位序列号时持续生成速率上限约为每秒409.6万个，突发请求由借用的时间吸收
+ * @Author Dongd_Zhou
+ */
+@Slf4j
+public class SnowflakeIdGenerator implements Closeable {
+    /** 默认起始时间戳，与{@link IdWorker}一致 */
+    public static final long DEFAULT_EPOCH = 1288834974657L;
+
+    /** 借用超过上限时每次等待的时间（纳秒） */
+    private static final long BORROW_WAIT_NANOS = TimeUnit.MICROSECONDS.toNanos(100);
+    private static final long NANOS_PER_MILLI = TimeUnit.MILLISECONDS.toNanos(1);
+
+    private static volatile SnowflakeIdGenerator instance;
+
+    @Getter
+    private final long workerId;
+    @Getter
+    private final long datacenterId;
+    @Getter
+    private final IdLayout layout;
+    /** 按本生成器的位分配及起始时间戳解析ID */
+    @Getter
+    private final SnowflakeIdDecoder decoder;
+    private final WorkerIdAssigner assigner;
+    private final Clock clock;
+    private final int sequenceBits;
+    private final long sequenceMask;
+    private final int timestampShift;
+    private final long epoch;
+    private final long maxBorrow;
+    private final long maxRollback;
+    private final long resyncNanos;
+    /** 数据id及工作id左移后的值 */
+    private final long node;
+    /** 高位为相对起始时间的毫秒数，低位为序列号 */
+    private final AtomicLong state;
+    /** 逻辑时钟的校准点 */
+    private volatile Anchor anchor;
+
+    private final LongAdder rollbacks = new LongAdder();
+    private final LongAdder rejected = new LongAdder();
+    private final LongAdder borrowed = new LongAdder();
+    private final LongAdder borrowWaits = new LongAdder();
+    private volatile long maxRollbackMillis;
+    /** 上次校准后逻辑时钟领先系统时钟的毫秒数，仅在校准时访问 */
+    private long offset;
+
+    public SnowflakeIdGenerator(long workerId, long datacenterId) {
+        this(SnowflakeConfig.defaultConfig().setWorkerId(workerId).setDatacenterId(datacenterId));
+    }
+
+    public SnowflakeIdGenerator(SnowflakeConfig config) {
+        this(config, Clock.SYSTEM);
+    }
+
+    /**
+     * @param config 配置
+     * @param clock  时间来源，测试时模拟时钟回拨
+     */
+    SnowflakeIdGenerator(SnowflakeConfig config, Clock clock) {
+        this.clock = clock;
+        if (config.getMaxBorrow() < 0 || config.getMaxRollback() < 0 || config.getResyncInterval() <= 0) {
+            throw new IllegalArgumentException("max borrow, max rollback and resync interval must be positive");
+        }
+        this.layout = null == config.getLayout() ? IdLayout.defaultLayout() : config.getLayout();
+        this.assigner = config.getWorkerIdAssigner();
+        if (null != assigner) {
+            // 分配的节点id高位为数据id，低位为工作id
+            final long nodeId = assigner.assign(layout.maxNodeId());
+            this.workerId = nodeId & layout.maxWorkerId();
+            this.datacenterId = nodeId >>> layout.getWorkerBits();
+        } else {
+            this.workerId = config.getWorkerId();
+            this.datacenterId = config.getDatacenterId();
+        }
+        if (workerId > layout.maxWorkerId() || workerId < 0) {
+            throw new IllegalArgumentException(String.format("worker Id can't be greater than %d or less than 0", layout.maxWorkerId()));
+        }
+        if (datacenterId > layout.maxDatacenterId() || datacenterId < 0) {
+            throw new IllegalArgumentException(String.format("datacenter Id can't be greater than %d or less than 0", layout.maxDatacenterId()));
+        }
+        this.sequenceBits = layout.getSequenceBits();
+        this.sequenceMask = layout.sequenceMask();
+        this.timestampShift = layout.timestampShift();
+        this.epoch = config.getEpoch();
+        this.decoder = new SnowflakeIdDecoder(layout, epoch);
+        this.maxBorrow = config.getMaxBorrow();
+        this.maxRollback = config.getMaxRollback();
+        this.resyncNanos = TimeUnit.MILLISECONDS.toNanos(config.getResyncInterval());
+        this.node = (datacenterId << layout.datacenterShift()) | (workerId << layout.workerShift());
+        final long nanos = clock.nanoTime();
+        this.anchor = new Anchor(clock.currentTimeMillis() - epoch, nanos, nanos + resyncNanos);
+        // 初始为上一毫秒的最后一个序列号，首个ID从当前毫秒的序列号0开始
+        this.state = new AtomicLong(((anchor.millis - 1) << sequenceBits) | sequenceMask);
+        log.debug("snowflake generator starting. layout {}, worker id {}, datacenter id {}, max borrow {}ms, max rollback {}ms",
+                layout, workerId, datacenterId, maxBorrow, maxRollback);
+    }
+
+    /**
+     * 进程内共享的生成器，未初始化时使用默认配置（工作id及数据id均为1）
+     *
+     * @return 生成器
+     */
+    public static SnowflakeIdGenerator getInstance() {
+        SnowflakeIdGenerator generator = instance;
+        if (null == generator) {
+            synchronized (SnowflakeIdGenerator.class) {
+                generator = instance;
+                if (null == generator) {
+                    instance = generator = new SnowflakeIdGenerator(SnowflakeConfig.defaultConfig());
+                }
+            }
+        }
+        return generator;
+    }
+
+    /**
+     * 按配置初始化进程内共享的生成器，如自动分配节点id，应在首次生成ID前调用
+     * 已初始化时关闭原生成器，释放其节点id
+     *
+     * @param config 配置
+     * @return 生成器
+     */
+    public static synchronized SnowflakeIdGenerator init(SnowflakeConfig config) {
+        SnowflakeIdGenerator previous = instance;
+        instance = new SnowflakeIdGenerator(config);
+        if (null != previous) {
+            previous.close();
+        }
+        return instance;
+    }
+
+    /**
+     * 下一个ID
+     *
+     * @return ID
+     * @throws IdException 时钟回拨超过容忍值或节点id租约丢失
+     */
+    public long nextId() {
+        checkAssigner();
+        for (; ; ) {
+            final long current = state.get();
+            final long now = currentMillis();
+            final long next = now > (current >>> sequenceBits) ? now << sequenceBits : current + 1;
+            if ((next >>> sequenceBits) - now > maxBorrow) {
+                awaitClock(next >>> sequenceBits, now);
+                continue;
+            }
+            if (state.compareAndSet(current, next)) {
+                if ((next & sequenceMask) == 0 && (next >>> sequenceBits) > now) {
+                    borrowed.increment();
+                }
+                return toId(next);
+            }
+        }
+    }
+
+    /**
+     * 批量获取连续的ID，一次CAS预留
+     *
+     * @param n 数量，不能超过借用上限内可用的序列号数
+     * @return ID，升序
+     * @throws IdException 时钟回拨超过容忍值或节点id租约丢失
+     */
+    public long[] nextIds(int n) {
+        if (n <= 0 || n > (maxBorrow + 1) << sequenceBits) {
+            throw new IllegalArgumentException(String.format("n must be between 1 and %d", (maxBorrow + 1) << sequenceBits));
+        }
+        checkAssigner();
+        for (; ; ) {
+            final long current = state.get();
+            final long now = currentMillis();
+            final long first = now > (current >>> sequenceBits) ? now << sequenceBits : current + 1;
+            final long last = first + n - 1;
+            if ((last >>> sequenceBits) - now > maxBorrow) {
+                awaitClock(first >>> sequenceBits, now);
+                continue;
+            }
+            if (state.compareAndSet(current, last)) {
+                if ((last >>> sequenceBits) > Math.max(now, first >>> sequenceBits)) {
+                    borrowed.increment();
+                }
+                long[] ids = new long[n];
+                for (int i = 0; i < n; i++) {
+                    ids[i] = toId(first + i);
+                }
+                return ids;
+            }
+        }
+    }
+
+    /**
+     * 统计
+     *
+     * @return 时钟回拨、借用等统计
+     */
+    public SnowflakeStats getStats() {
+        return new SnowflakeStats()
+                .setRollbacks(rollbacks.sum())
+                .setMaxRollbackMillis(maxRollbackMillis)
+                .setRejected(rejected.sum())
+                .setBorrowed(borrowed.sum())
+                .setBorrowWaits(borrowWaits.sum())
+                .setClockOffset(currentMillis() - (clock.currentTimeMillis() - epoch));
+    }
+
+    /**
+     * 释放自动分配的节点id，之后不能再生成ID
+     */
+    @Override
+    public void close() {
+        if (null != assigner) {
+            assigner.release();
+        }
+    }
+
+    private void checkAssigner() {
+        if (null != assigner && !assigner.isValid()) {
+            rejected.increment();
+            throw new IdException(String.format("Worker id lease lost. Refusing to generate id for worker %d, datacenter %d", workerId, datacenterId));
+        }
+    }
+
+    /**
+     * 时间戳及序列号转为ID
+     */
+    private long toId(long value) {
+        return ((value >>> sequenceBits) << timestampShift) | node | (value & sequenceMask);
+    }
+
+    /**
+     * 逻辑时钟（相对起始时间的毫秒数），到达校准间隔时与系统时钟校准
+     */
+    private long currentMillis() {
+        final long nanos = clock.nanoTime();
+        Anchor a = anchor;
+        if (nanos - a.resyncAt >= 0) {
+            a = resync(nanos);
+        }
+        return a.millis + (nanos - a.nanos) / NANOS_PER_MILLI;
+    }
+
+    /**
+     * 与系统时钟校准
+     * 1. 系统时钟领先：跟随系统时钟
+     * 2. 系统时钟回拨不超过容忍值：逻辑时钟不回退；已生成的ID时间戳落后于系统时钟时再对齐，避免长期领先
+     * 3. 系统时钟回拨超过容忍值：对齐系统时钟，已生成的ID时间戳领先时拒绝生成
+     */
+    private synchronized Anchor resync(long nanos) {
+        Anchor a = anchor;
+        if (nanos - a.resyncAt < 0) {
+            return a;
+        }
+        final long wall = clock.currentTimeMillis() - epoch;
+        final long logical = a.millis + (nanos - a.nanos) / NANOS_PER_MILLI;
+        final long rollback = logical - wall;
+        // 逻辑时钟保持领先时每次校准都会领先，只有领先增加时才是新的回拨
+        if (rollback - offset > 1) {
+            rollbacks.increment();
+            maxRollbackMillis = Math.max(maxRollbackMillis, rollback);
+            if (rollback > maxRollback) {
+                log.error("#snowflake# #rollback# ## clock moved backwards {}ms, exceeds {}ms, refusing to generate ids until clock catches up",
+                        rollback, maxRollback);
+            } else {
+                log.warn("#snowflake# #rollback# ## clock moved backwards {}ms, keep logical clock", rollback);
+            }
+        }
+        if (rollback <= 0 || rollback > maxRollback || (state.get() >>> sequenceBits) < wall) {
+            a = new Anchor(wall, nanos, nanos + resyncNanos);
+            offset = 0;
+        } else {
+            a = new Anchor(logical, nanos, nanos + resyncNanos);
+            offset = rollback;
+        }
+        anchor = a;
+        return a;
+    }
+
+    /**
+     * 借用的时间已达上限时短暂等待时钟追上；领先超过借用上限说明逻辑时钟因回拨超过容忍值已回退，拒绝生成
+     *
+     * @param timestamp 待生成ID的时间戳
+     * @param now       当前逻辑时钟
+     */
+    private void awaitClock(long timestamp, long now) {
+        if (timestamp - now > maxBorrow + 1) {
+            rejected.increment();
+            throw new IdException(String.format("Clock moved backwards. Refusing to generate id for %d milliseconds", timestamp - now - maxBorrow));
+        }
+        borrowWaits.increment();
+        LockSupport.parkNanos(BORROW_WAIT_NANOS);
+    }
+
+    /**
+     * 时间来源：系统时钟（校准用）及单调时钟（推进逻辑时钟用）
+     */
+    interface Clock {
+        Clock SYSTEM = new Clock() {
+            @Override
+            public long currentTimeMillis() {
+                return System.currentTimeMillis();
+            }
+
+            @Override
+            public long nanoTime() {
+                return System.nanoTime();
+            }
+        };
+
+        long currentTimeMillis();
+
+        long nanoTime();
+    }
+
+    /**
+     * 逻辑时钟校准点：校准时的毫秒数及对应的System.nanoTime
+     */
+    private static class Anchor {
+        private final long millis;
+        private final long nanos;
+        /** 下次校准的System.nanoTime */
+        private final long resyncAt;
+
+        Anchor(long millis, long nanos, long resyncAt) {
+            this.millis = millis;
+            this.nanos = nanos;
+            this.resyncAt = resyncAt;
+        }
+    }
+}
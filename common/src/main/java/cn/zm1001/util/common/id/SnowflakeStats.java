@@ -0,0 +1,25 @@
+package cn.zm1001.util.common.id;
+
+import lombok.Data;
+import lombok.experimental.Accessors;
+
+/**
+ * @Desc 雪花算法ID生成器统计
+ * @Author Dongd_Zhou
+ */
+@Data
+@Accessors(chain = true)
+public class SnowflakeStats {
+    /** 校准时发现系统时钟回拨的次数 */
+    private long rollbacks;
+    /** 观测到的最大回拨（毫秒） */
+    private long maxRollbackMillis;
+    /** 因回拨超过容忍值拒绝生成的次数 */
+    private long rejected;
+    /** 序列号用完借用下一毫秒的次数 */
+    private long borrowed;
+    /** 借用达到上限后等待时钟的次数 */
+    private long borrowWaits;
+    /** 逻辑时钟领先系统时钟的毫秒数，负数为落后 */
+    private long clockOffset;
+}
@@ -0,0 +1,61 @@
+package cn.zm1001.util.common.id;
+
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * @Desc 时间有序ID的单调生成：48位毫秒时间戳 + 随机数（高位hi + 低位lo）
+ * 1. 毫秒数增加时重新生成随机数
+ * 2. 同一毫秒内或时钟回拨时沿用上一个时间戳，随机数加1，保证严格递增
+ * 3. 随机数溢出时时间戳进位到下一毫秒
+ * 临界区只有几次整数运算，使用synchronized
+ * @Author Dongd_Zhou
+ */
+final class TimeOrderedGenerator {
+    /** ULID：16 + 64位随机数 */
+    static final TimeOrderedGenerator ULID = new TimeOrderedGenerator(16, 64);
+    /** UUIDv7：12位rand_a + 62位rand_b */
+    static final TimeOrderedGenerator UUID_V7 = new TimeOrderedGenerator(12, 62);
+
+    private final long hiMask;
+    private final long loMask;
+    private long millis = -1L;
+    private long hi;
+    private long lo;
+
+    private TimeOrderedGenerator(int hiBits, int loBits) {
+        this.hiMask = ~(-1L << hiBits);
+        this.loMask = loBits == 64 ? -1L : ~(-1L << loBits);
+    }
+
+    /**
+     * 生成下一个ID
+     *
+     * @param factory 由时间戳及随机数构建ID
+     * @return ID
+     */
+    synchronized <T> T next(Factory<T> factory) {
+        final long now = System.currentTimeMillis();
+        if (now > millis) {
+            final ThreadLocalRandom random = ThreadLocalRandom.current();
+            millis = now;
+            hi = random.nextLong() & hiMask;
+            lo = random.nextLong() & loMask;
+        } else if (lo != loMask) {
+            lo++;
+        } else {
+            lo = 0L;
+            if (hi != hiMask) {
+                hi++;
+            } else {
+                hi = 0L;
+                millis++;
+            }
+        }
+        return factory.create(millis, hi, lo);
+    }
+
+    @FunctionalInterface
+    interface Factory<T> {
+        T create(long millis, long hi, long lo);
+    }
+}
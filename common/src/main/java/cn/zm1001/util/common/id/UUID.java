@@ -2,6 +2,7 @@ package cn.zm1001.util.common.id;
 
 import cn.zm1001.util.common.exception.UUIDException;
 
+import java.nio.ByteBuffer;
 import java.security.MessageDigest;
 import java.security.NoSuchAlgorithmException;
 import java.security.SecureRandom;
@@ -18,6 +19,18 @@ public class UUID implements java.io.Serializable, Comparable<UUID> {
      * Explicit serialVersionUID for interoperability.
      */
     private static final long serialVersionUID = 8812638568281825467L;
+    /** 每个字节对应的两位小写十六进制字符 */
+    private static final char[] HEX_PAIRS = new char[512];
+    /** 生成字符串的缓冲区，每个线程一个，生成字符串时只分配String */
+    private static final ThreadLocal<char[]> CHAR_BUFFER = ThreadLocal.withInitial(() -> new char[36]);
+
+    static {
+        final char[] digits = "0123456789abcdef".toCharArray();
+        for (int i = 0; i < 256; i++) {
+            HEX_PAIRS[i << 1] = digits[i >>> 4];
+            HEX_PAIRS[(i << 1) + 1] = digits[i & 0xF];
+        }
+    }
 
     /**
      * The most significant 64 bits of this UUID.
@@ -167,6 +180,47 @@ public class UUID implements java.io.Serializable, Comparable<UUID> {
         return new UUID(md5Bytes);
     }
 
+    /**
+     * 获取类型 7（基于Unix毫秒时间戳）UUID 的静态工厂：48位毫秒时间戳 + 74位随机数，按生成时间排序
+     * 同一毫秒内随机数递增，进程内严格单调；作为数据库主键时新记录总是插入索引末尾，不会像类型 4 一样分散写入
+     *
+     * @return 时间有序的 {@code UUID}
+     */
+    public static UUID timeOrderedUUID() {
+        return TimeOrderedGenerator.UUID_V7.next((millis, hi, lo) -> timeOrderedUUID(millis, hi, lo));
+    }
+
+    /**
+     * 指定时间最小的类型 7 UUID，用于按生成时间范围查询：{@code id >= minTimeOrderedUUID(start) AND id <= maxTimeOrderedUUID(end)}
+     *
+     * @param millis 时间戳（毫秒）
+     * @return 随机数全为0的 {@code UUID}
+     */
+    public static UUID minTimeOrderedUUID(long millis) {
+        return timeOrderedUUID(millis, 0L, 0L);
+    }
+
+    /**
+     * 指定时间最大的类型 7 UUID
+     *
+     * @param millis 时间戳（毫秒）
+     * @return 随机数全为1的 {@code UUID}
+     */
+    public static UUID maxTimeOrderedUUID(long millis) {
+        return timeOrderedUUID(millis, 0xFFFL, 0x3FFFFFFFFFFFFFFFL);
+    }
+
+    private static UUID timeOrderedUUID(long millis, long randA, long randB) {
+        if (millis < 0 || millis > 0xFFFFFFFFFFFFL) {
+            throw new IllegalArgumentException("timestamp must be between 0 and " + 0xFFFFFFFFFFFFL);
+        }
+        // unix_ts_ms(48) | ver(4) | rand_a(12)
+        final long msb = (millis << 16) | 0x7000L | randA;
+        // var(2) | rand_b(62)
+        final long lsb = 0x8000000000000000L | randB;
+        return new UUID(msb, lsb);
+    }
+
     /**
      * Creates a {@code UUID} from the string standard representation as
      * described in the {@link #toString} method.
@@ -229,6 +283,7 @@ public class UUID implements java.io.Serializable, Comparable<UUID> {
      * <li>2    DCE security UUID(DCE 安全 UUID)
      * <li>3    Name-based UUID(基于名称的 UUID)
      * <li>4    Randomly generated UUID(随机生成的 UUID)
+     * <li>7    Unix Epoch time-based UUID(基于Unix毫秒时间戳的 UUID)
      * </ul>
      *
      * @return The version number of this {@code UUID}
@@ -292,6 +347,20 @@ public class UUID implements java.io.Serializable, Comparable<UUID> {
                 | mostSigBits >>> 32;
     }
 
+    /**
+     * 类型 7 UUID 的生成时间
+     *
+     * @return Unix时间戳（毫秒）
+     * @throws UnsupportedOperationException 不是类型 7 UUID
+     */
+    public long unixTimestamp() {
+        if (version() != 7) {
+            throw new UnsupportedOperationException("Not a unix epoch time-based UUID");
+        }
+
+        return mostSigBits >>> 16;
+    }
+
     /**
      * The clock sequence value associated with this UUID.
      * 与此 UUID 相关联的时钟序列值
@@ -345,6 +414,16 @@ public class UUID implements java.io.Serializable, Comparable<UUID> {
 
     // Object Inherited Methods
 
+    /**
+     * 返回此{@code UUID} 的36位字符串表现形式，见{@link #toString(boolean)}
+     *
+     * @return A string representation of this {@code UUID}
+     */
+    @Override
+    public String toString() {
+        return toString(false);
+    }
+
     /**
      * Returns a {@code String} object representing this {@code UUID}.
      * 返回此{@code UUID} 的字符串表现形式
@@ -373,40 +452,61 @@ public class UUID implements java.io.Serializable, Comparable<UUID> {
      * @return A string representation of this {@code UUID}
      */
     public String toString(boolean isSimple) {
-        final StringBuilder builder = new StringBuilder(isSimple ? 32 : 36);
-        // time_low
-        builder.append(digits(mostSigBits >> 32, 8));
-        if (!isSimple) {
-            builder.append('-');
-        }
-        // time_mid
-        builder.append(digits(mostSigBits >> 16, 4));
-        if (!isSimple) {
-            builder.append('-');
-        }
-        // time_high_and_version
-        builder.append(digits(mostSigBits, 4));
-        if (!isSimple) {
-            builder.append('-');
-        }
-        // variant_and_sequence
-        builder.append(digits(leastSigBits >> 48, 4));
-        if (!isSimple) {
-            builder.append('-');
+        final char[] chars = CHAR_BUFFER.get();
+        return new String(chars, 0, getChars(chars, 0, isSimple));
+    }
+
+    /**
+     * 字符串形式写入字符数组，不分配内存
+     *
+     * @param dst      目标数组，需要36位（简单模式32位）空间
+     * @param offset   写入位置
+     * @param isSimple 是否简单模式，简单模式为不带'-'的UUID字符串
+     * @return 写入的字符数
+     */
+    public int getChars(char[] dst, int offset, boolean isSimple) {
+        int pos = offset;
+        for (int i = 0; i < 16; i++) {
+            // time_low - time_mid - time_high_and_version - variant_and_sequence - node
+            if (!isSimple && (i == 4 || i == 6 || i == 8 || i == 10)) {
+                dst[pos++] = '-';
+            }
+            final int b = ((int) ((i < 8 ? mostSigBits : leastSigBits) >>> (56 - ((i & 7) << 3))) & 0xFF) << 1;
+            dst[pos++] = HEX_PAIRS[b];
+            dst[pos++] = HEX_PAIRS[b + 1];
         }
-        // node
-        builder.append(digits(leastSigBits, 12));
+        return pos - offset;
+    }
 
-        return builder.toString();
+    /**
+     * 字符串形式追加到{@link StringBuilder}，容量足够时不分配内存
+     *
+     * @param builder  目标
+     * @param isSimple 是否简单模式，简单模式为不带'-'的UUID字符串
+     * @return builder
+     */
+    public StringBuilder appendTo(StringBuilder builder, boolean isSimple) {
+        final char[] chars = CHAR_BUFFER.get();
+        return builder.append(chars, 0, getChars(chars, 0, isSimple));
     }
 
     /**
-     * Returns val represented by the specified number of hex digits.
-     * 返回指定数字对应的hex值
+     * 字符串形式按ASCII写入{@link ByteBuffer}，不分配内存
+     *
+     * @param buffer   目标，需要36字节（简单模式32字节）剩余空间
+     * @param isSimple 是否简单模式，简单模式为不带'-'的UUID字符串
+     * @return buffer
      */
-    private static String digits(long val, int digits) {
-        long hi = 1L << (digits * 4);
-        return Long.toHexString(hi | (val & (hi - 1))).substring(1);
+    public ByteBuffer writeTo(ByteBuffer buffer, boolean isSimple) {
+        for (int i = 0; i < 16; i++) {
+            if (!isSimple && (i == 4 || i == 6 || i == 8 || i == 10)) {
+                buffer.put((byte) '-');
+            }
+            final int b = ((int) ((i < 8 ? mostSigBits : leastSigBits) >>> (56 - ((i & 7) << 3))) & 0xFF) << 1;
+            buffer.put((byte) HEX_PAIRS[b]);
+            buffer.put((byte) HEX_PAIRS[b + 1]);
+        }
+        return buffer;
     }
 
     /**
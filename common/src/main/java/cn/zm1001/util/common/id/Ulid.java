@@ -0,0 +1,127 @@
+package cn.zm1001.util.common.id;
+
+/**
+ * @Desc ULID（Universally Unique Lexicographically Sortable Identifier）
+ * 128位：48位毫秒时间戳 + 80位随机数，字符串为26位Crockford Base32，按字符串或数值排序即按生成时间排序
+ * {@link #nextUlid()}同一毫秒内随机数递增，进程内严格单调
+ * 如：{@code Ulid.nextUlid().toString()} 01ARZ3NDEKTSV4RRFFQ69G5FAV
+ * @Author Dongd_Zhou
+ */
+public class Ulid implements java.io.Serializable, Comparable<Ulid> {
+    private static final long serialVersionUID = -3651289415806839421L;
+    /** 时间戳最大值，48位 */
+    private static final long MAX_TIMESTAMP = 0xFFFFFFFFFFFFL;
+
+    /** 高16位时间戳及低16位随机数 */
+    private final long mostSigBits;
+    /** 64位随机数 */
+    private final long leastSigBits;
+
+    public Ulid(long mostSigBits, long leastSigBits) {
+        this.mostSigBits = mostSigBits;
+        this.leastSigBits = leastSigBits;
+    }
+
+    /**
+     * 生成ULID，同一毫秒内单调递增
+     *
+     * @return ULID
+     */
+    public static Ulid nextUlid() {
+        return TimeOrderedGenerator.ULID.next((millis, hi, lo) -> new Ulid((millis << 16) | hi, lo));
+    }
+
+    /**
+     * 解析26位ULID字符串，不区分大小写
+     *
+     * @param value ULID字符串
+     * @return ULID
+     * @throws IllegalArgumentException 格式错误
+     */
+    public static Ulid fromString(String value) {
+        long[] bits = IdCodec.fromCrockford(value);
+        return new Ulid(bits[0], bits[1]);
+    }
+
+    /**
+     * 指定时间最小的ULID，用于按生成时间范围查询：{@code id >= min(start) AND id <= max(end)}
+     *
+     * @param millis 时间戳（毫秒）
+     * @return 随机数全为0的ULID
+     */
+    public static Ulid min(long millis) {
+        return new Ulid(checkTimestamp(millis) << 16, 0L);
+    }
+
+    /**
+     * 指定时间最大的ULID
+     *
+     * @param millis 时间戳（毫秒）
+     * @return 随机数全为1的ULID
+     */
+    public static Ulid max(long millis) {
+        return new Ulid((checkTimestamp(millis) << 16) | 0xFFFFL, -1L);
+    }
+
+    /**
+     * 生成时间
+     *
+     * @return 时间戳（毫秒）
+     */
+    public long timestamp() {
+        return mostSigBits >>> 16;
+    }
+
+    public long getMostSignificantBits() {
+        return mostSigBits;
+    }
+
+    public long getLeastSignificantBits() {
+        return leastSigBits;
+    }
+
+    /**
+     * 转为UUID，位相同，不设置版本号及变体
+     *
+     * @return UUID
+     */
+    public UUID toUUID() {
+        return new UUID(mostSigBits, leastSigBits);
+    }
+
+    @Override
+    public String toString() {
+        return IdCodec.toCrockford(mostSigBits, leastSigBits);
+    }
+
+    @Override
+    public int hashCode() {
+        long hilo = mostSigBits ^ leastSigBits;
+        return ((int) (hilo >> 32)) ^ (int) hilo;
+    }
+
+    @Override
+    public boolean equals(Object obj) {
+        if (!(obj instanceof Ulid)) {
+            return false;
+        }
+        Ulid id = (Ulid) obj;
+        return mostSigBits == id.mostSigBits && leastSigBits == id.leastSigBits;
+    }
+
+    /**
+     * 按无符号数值比较，与字符串顺序一致
+     */
+    @Override
+    public int compareTo(Ulid val) {
+        int compare = Long.compareUnsigned(mostSigBits, val.mostSigBits);
+        return compare != 0 ? compare : Long.compareUnsigned(leastSigBits, val.leastSigBits);
+    }
+
+    private static long checkTimestamp(long millis) {
+        if (millis < 0 || millis > MAX_TIMESTAMP) {
+            throw new IllegalArgumentException("timestamp must be between 0 and " + MAX_TIMESTAMP);
+        }
+        return millis;
+    }
+}
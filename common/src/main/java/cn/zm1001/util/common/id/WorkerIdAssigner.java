@@ -0,0 +1,32 @@
+package cn.zm1001.util.common.id;
+
+/**
+ * @Desc 雪花算法节点id（数据id + 工作id）分配
+ * 分配的id按{@link IdLayout}拆分：高位为数据id，低位为工作id
+ * @Author Dongd_Zhou
+ */
+public interface WorkerIdAssigner {
+    /**
+     * 分配节点id
+     *
+     * @param maxNodeId 最大节点id，见{@link IdLayout#maxNodeId()}
+     * @return 节点id（0~maxNodeId）
+     */
+    long assign(long maxNodeId);
+
+    /**
+     * 已分配的id是否仍有效，租约丢失后返回false，生成器拒绝生成
+     * 每次生成ID时调用，实现不应读取系统时钟或访问存储，由后台续租维护状态
+     *
+     * @return 是否有效
+     */
+    default boolean isValid() {
+        return true;
+    }
+
+    /**
+     * 释放已分配的id
+     */
+    default void release() {
+    }
+}
@@ -0,0 +1,36 @@
+package cn.zm1001.util.common.id;
+
+/**
+ * @Desc 节点id租约存储，由共享存储（文件锁、数据库、Redis、ZooKeeper等）实现
+ * 同一id同时只能被一个持有者租用，持有者需在租期内续租
+ * @Author Dongd_Zhou
+ */
+public interface WorkerIdLeaseStore {
+    /**
+     * 尝试租用id
+     *
+     * @param nodeId 节点id
+     * @param owner  持有者标识
+     * @param ttl    租期（毫秒）
+     * @return 是否租用成功，已被其他持有者租用时返回false
+     */
+    boolean tryAcquire(long nodeId, String owner, long ttl);
+
+    /**
+     * 续租
+     *
+     * @param nodeId 节点id
+     * @param owner  持有者标识
+     * @param ttl    租期（毫秒）
+     * @return 是否续租成功，租约已过期或被其他持有者租用时返回false
+     */
+    boolean renew(long nodeId, String owner, long ttl);
+
+    /**
+     * 释放租约
+     *
+     * @param nodeId 节点id
+     * @param owner  持有者标识
+     */
+    void release(long nodeId, String owner);
+}
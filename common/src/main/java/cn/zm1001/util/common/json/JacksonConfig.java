@@ -0,0 +1,32 @@
+package cn.zm1001.util.common.json;
+
+import lombok.Data;
+import lombok.experimental.Accessors;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * @Desc JacksonUtils配置
+ * @Author Dongd_Zhou
+ */
+@Data
+@Accessors(chain = true)
+public class JacksonConfig {
+    /**
+     * 是否使用字节码生成的属性访问代替反射，Java 11+使用Blackbird，Java 8使用Afterburner
+     * 需要引入jackson-module-blackbird或jackson-module-afterburner，未引入时不生效
+     */
+    private boolean accelerate = false;
+    /** 启动时预先创建序列化器及反序列化器的类型，首次请求不再创建 */
+    private List<Class<?>> warmUpClasses = new ArrayList<>();
+
+    /**
+     * 默认配置
+     *
+     * @return 默认配置
+     */
+    public static JacksonConfig defaultConfig() {
+        return new JacksonConfig();
+    }
+}
@@ -0,0 +1,307 @@
+package cn.zm1001.util.common.json;
+
+import cn.zm1001.util.common.JacksonUtils;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonPointer;
+import com.fasterxml.jackson.core.JsonToken;
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectReader;
+import lombok.extern.slf4j.Slf4j;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * @Desc 按JSON Pointer（如/code、/data/token、/items/0/id）流式提取部分字段，不构建整棵树
+ * 1. 路径编译为前缀树，扫描时不匹配的子树通过{@link JsonParser#skipChildren()}跳过
+ * 2. 所有路径均已找到时立即停止，不读取剩余内容
+ * 3. 匹配的值直接按指定类型绑定，未指定类型时为String、Number、Boolean、Map、List
+ * 编译后的提取器线程安全，可复用；解析出错时记录日志并返回null，与{@link JacksonUtils}一致
+ * 如：{@code JsonExtractor.builder().path("/code", Integer.class).path("/data/token", String.class).build().extract(json)}
+ * @Author Dongd_Zhou
+ */
+@Slf4j
+public final class JsonExtractor {
+    private final Node root;
+    private final int targets;
+
+    private JsonExtractor(Node root, int targets) {
+        this.root = root;
+        this.targets = targets;
+    }
+
+    public static Builder builder() {
+        return new Builder();
+    }
+
+    /**
+     * 未指定类型的路径
+     *
+     * @param pointers JSON Pointer
+     * @return 提取器
+     */
+    public static JsonExtractor of(String... pointers) {
+        final Builder builder = builder();
+        for (String pointer : pointers) {
+            builder.path(pointer, Object.class);
+        }
+        return builder.build();
+    }
+
+    /**
+     * 提取单个路径
+     *
+     * @param json    Json字符串
+     * @param pointer JSON Pointer
+     * @param clazz   值类型
+     * @return 值，不存在时为null
+     */
+    public static <T> T extract(String json, String pointer, Class<T> clazz) {
+        final Map<String, Object> values = builder().path(pointer, clazz).build().extract(json);
+        return null == values ? null : clazz.cast(values.get(pointer));
+    }
+
+    /**
+     * 提取Json字符串中的路径
+     *
+     * @param json Json字符串
+     * @return 路径及对应的值，不存在的路径不包含在内
+     */
+    public Map<String, Object> extract(String json) {
+        if (null == json) {
+            return null;
+        }
+        try (JsonParser parser = JsonFormat.JSON.getMapper().getFactory().createParser(json)) {
+            return extract(parser);
+        } catch (IOException e) {
+            log.error("#JsonExtractor# #extract# ## json string extract error: {}", json, e);
+        }
+        return null;
+    }
+
+    /**
+     * 提取Json字节数组中的路径
+     *
+     * @param bytes Json字节数组
+     * @return 路径及对应的值，不存在的路径不包含在内
+     */
+    public Map<String, Object> extract(byte[] bytes) {
+        if (null == bytes) {
+            return null;
+        }
+        try (JsonParser parser = JsonFormat.JSON.getMapper().getFactory().createParser(bytes)) {
+            return extract(parser);
+        } catch (IOException e) {
+            log.error("#JsonExtractor# #extract# ## json bytes extract error", e);
+        }
+        return null;
+    }
+
+    /**
+     * 提取输入流中的路径，找到所有路径后不再读取，完成后关闭输入流
+     *
+     * @param in     输入流
+     * @param format 格式，Json、Smile、CBOR
+     * @return 路径及对应的值，不存在的路径不包含在内
+     */
+    public Map<String, Object> extract(InputStream in, JsonFormat format) {
+        if (null == in) {
+            return null;
+        }
+        try (JsonParser parser = format.getMapper().getFactory().createParser(in)) {
+            return extract(parser);
+        } catch (IOException e) {
+            log.error("#JsonExtractor# #extract# ## {} stream extract error", format, e);
+        }
+        return null;
+    }
+
+    private Map<String, Object> extract(JsonParser parser) throws IOException {
+        final Map<String, Object> values = new LinkedHashMap<>();
+        if (null != parser.nextToken()) {
+            scan(parser, root, values);
+        }
+        return values;
+    }
+
+    /**
+     * 扫描当前值，parser位于值的起始token，扫描后位于值的结束token
+     *
+     * @return 是否已找到所有路径
+     */
+    private boolean scan(JsonParser parser, Node node, Map<String, Object> values) throws IOException {
+        if (null != node.target) {
+            if (node.hasChildren()) {
+                // 路径及其子路径均需提取，仅此时构建该子树
+                final JsonNode tree = parser.readValueAsTree();
+                values.put(node.target.pointer, node.target.reader.readValue(tree));
+                collect(tree, node, values);
+            } else {
+                values.put(node.target.pointer, node.target.reader.readValue(parser));
+            }
+            return values.size() == targets;
+        }
+        final JsonToken token = parser.currentToken();
+        if (token == JsonToken.START_OBJECT) {
+            while (parser.nextToken() == JsonToken.FIELD_NAME) {
+                final Node child = node.properties.get(parser.getCurrentName());
+                parser.nextToken();
+                if (null == child) {
+                    parser.skipChildren();
+                } else if (scan(parser, child, values)) {
+                    return true;
+                }
+            }
+        } else if (token == JsonToken.START_ARRAY) {
+            int index = 0;
+            while (parser.nextToken() != JsonToken.END_ARRAY) {
+                final Node child = index <= node.maxIndex ? node.elements.get(index) : null;
+                if (null == child) {
+                    parser.skipChildren();
+                } else if (scan(parser, child, values)) {
+                    return true;
+                }
+                index++;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * 从已构建的子树中提取子路径
+     */
+    private static void collect(JsonNode tree, Node node, Map<String, Object> values) throws IOException {
+        for (Node child : node.children) {
+            final JsonNode value = tree.isArray() ? tree.get(child.index) : tree.get(child.name);
+            if (null == value) {
+                continue;
+            }
+            if (null != child.target) {
+                values.put(child.target.pointer, child.target.reader.readValue(value));
+            }
+            collect(value, child, values);
+        }
+    }
+
+    /**
+     * 前缀树节点，对应路径的一级
+     */
+    private static class Node {
+        private final String name;
+        /** 名称为非负整数时的数组下标，否则为-1 */
+        private final int index;
+        private Target target;
+        private final List<Node> children = new ArrayList<>();
+        private final Map<String, Node> properties = new HashMap<>();
+        /** 按数组下标的子节点，下标可能很大，不按下标分配数组 */
+        private final Map<Integer, Node> elements = new HashMap<>();
+        /** 最大的数组下标，超过后数组的剩余元素直接跳过 */
+        private int maxIndex = -1;
+
+        Node(String name, int index) {
+            this.name = name;
+            this.index = index;
+        }
+
+        boolean hasChildren() {
+            return !children.isEmpty();
+        }
+
+        Node child(String name, int index) {
+            Node child = properties.get(name);
+            if (null == child) {
+                child = new Node(name, index);
+                add(child);
+            }
+            return child;
+        }
+
+        private void add(Node child) {
+            children.add(child);
+            properties.put(child.name, child);
+            if (child.index >= 0) {
+                elements.put(child.index, child);
+                maxIndex = Math.max(maxIndex, child.index);
+            }
+        }
+
+        /**
+         * 复制整棵子树，构建后Builder继续添加路径不影响已构建的提取器
+         */
+        Node copy() {
+            final Node copy = new Node(name, index);
+            copy.target = target;
+            for (Node child : children) {
+                copy.add(child.copy());
+            }
+            return copy;
+        }
+    }
+
+    /**
+     * 提取目标
+     */
+    private static class Target {
+        private final String pointer;
+        private final ObjectReader reader;
+
+        Target(String pointer, ObjectReader reader) {
+            this.pointer = pointer;
+            this.reader = reader;
+        }
+    }
+
+    public static class Builder {
+        private final Node root = new Node("", -1);
+        private int targets;
+
+        /**
+         * 添加路径
+         *
+         * @param pointer JSON Pointer，如/data/token，""为整个Json
+         * @param clazz   值类型
+         * @return this
+         * @throws IllegalArgumentException 路径格式错误
+         */
+        public Builder path(String pointer, Class<?> clazz) {
+            return path(pointer, JacksonUtils.reader(clazz));
+        }
+
+        /**
+         * 添加路径
+         *
+         * @param pointer       JSON Pointer，如/data/items
+         * @param typeReference 值类型
+         * @return this
+         * @throws IllegalArgumentException 路径格式错误
+         */
+        public Builder path(String pointer, TypeReference<?> typeReference) {
+            return path(pointer, JacksonUtils.reader(typeReference));
+        }
+
+        private Builder path(String pointer, ObjectReader reader) {
+            Node node = root;
+            for (JsonPointer p = JsonPointer.compile(pointer); !p.matches(); p = p.tail()) {
+                node = node.child(p.getMatchingProperty(), p.getMatchingIndex());
+            }
+            if (null == node.target) {
+                targets++;
+            }
+            node.target = new Target(pointer, reader);
+            return this;
+        }
+
+        public JsonExtractor build() {
+            if (targets == 0) {
+                throw new IllegalArgumentException("at least one path is required");
+            }
+            return new JsonExtractor(root.copy(), targets);
+        }
+    }
+}
@@ -0,0 +1,233 @@
+package cn.zm1001.util.common.json;
+
+import cn.zm1001.util.common.JacksonUtils;
+import cn.zm1001.util.common.StringUtils;
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.dataformat.cbor.CBORFactory;
+import com.fasterxml.jackson.dataformat.smile.SmileFactory;
+import lombok.extern.slf4j.Slf4j;
+
+import java.io.InputStream;
+import java.io.OutputStream;
+
+/**
+ * @Desc Json及二进制Json（Smile、CBOR）编码，配置与{@link JacksonUtils}一致（日期格式、忽略未知属性、空字符串转null等）
+ * 按Content-Type、Accept选择格式，客户端（{@link cn.zm1001.util.common.http.HttpUtils}）与服务端（{@link JsonResponses}）
+ * 切换格式时不需要修改调用处；未识别的格式按Json处理
+ * 编解码出错时记录日志并返回null（写入时返回false），与{@link JacksonUtils}一致
+ * @Author Dongd_Zhou
+ */
+@Slf4j
+public enum JsonFormat {
+    JSON("application/json", null),
+    SMILE("application/x-jackson-smile", new SmileFactory()),
+    CBOR("application/cbor", new CBORFactory());
+
+    private final String mediaType;
+    private final ObjectMapper mapper;
+
+    JsonFormat(String mediaType, JsonFactory factory) {
+        this.mediaType = mediaType;
+        this.mapper = JacksonUtils.newMapper(factory);
+    }
+
+    public String getMediaType() {
+        return mediaType;
+    }
+
+    /**
+     * @return 该格式的ObjectMapper，不要修改其配置
+     */
+    public ObjectMapper getMapper() {
+        return mapper;
+    }
+
+    /**
+     * 响应或请求的Content-Type对应的格式
+     *
+     * @param contentType Content-Type，可带参数，如application/json;charset=UTF-8
+     * @return 格式，为空或未识别时为{@link #JSON}
+     */
+    public static JsonFormat fromContentType(String contentType) {
+        if (StringUtils.isEmpty(contentType)) {
+            return JSON;
+        }
+        final int end = contentType.indexOf(';');
+        final String type = (end < 0 ? contentType : contentType.substring(0, end)).trim();
+        for (JsonFormat format : values()) {
+            if (format.mediaType.equalsIgnoreCase(type)) {
+                return format;
+            }
+        }
+        return JSON;
+    }
+
+    /**
+     * 按Accept选择格式，取q值最高的已支持格式，q值相同时取靠前的
+     *
+     * @param accept Accept，如application/x-jackson-smile, application/json;q=0.5
+     * @return 格式，为空或没有已支持的格式时为{@link #JSON}
+     */
+    public static JsonFormat negotiate(String accept) {
+        if (StringUtils.isEmpty(accept)) {
+            return JSON;
+        }
+        JsonFormat best = JSON;
+        double bestQuality = -1;
+        for (String range : accept.split(",")) {
+            final String[] parts = range.split(";");
+            final String type = parts[0].trim();
+            JsonFormat format = null;
+            for (JsonFormat candidate : values()) {
+                if (candidate.mediaType.equalsIgnoreCase(type)) {
+                    format = candidate;
+                    break;
+                }
+            }
+            if (null == format) {
+                continue;
+            }
+            double quality = 1;
+            for (int i = 1; i < parts.length; i++) {
+                final String param = parts[i].trim();
+                if (param.startsWith("q=")) {
+                    try {
+                        quality = Double.parseDouble(param.substring(2));
+                    } catch (NumberFormatException e) {
+                        quality = 0;
+                    }
+                }
+            }
+            if (quality > 0 && quality > bestQuality) {
+                best = format;
+                bestQuality = quality;
+            }
+        }
+        return best;
+    }
+
+    /**
+     * 请求该格式的Accept，二进制格式同时接受Json，以兼容未支持的服务端
+     *
+     * @return Accept
+     */
+    public String accept() {
+        return this == JSON ? mediaType : mediaType + ", " + JSON.mediaType + ";q=0.5";
+    }
+
+    /**
+     * 对象编码为字节数组
+     *
+     * @param obj 对象实例
+     * @return 字节数组
+     */
+    public byte[] encode(Object obj) {
+        if (null == obj) {
+            return null;
+        }
+        try {
+            return mapper.writeValueAsBytes(obj);
+        } catch (Exception e) {
+            log.error("#JsonFormat# #encode# ## {} encode error", this, e);
+        }
+        return null;
+    }
+
+    /**
+     * 字节数组解码为对象
+     *
+     * @param bytes 字节数组
+     * @param clazz 对象类型
+     * @return 对象实例
+     */
+    public <T> T decode(byte[] bytes, Class<T> clazz) {
+        if (null == bytes || bytes.length == 0 || null == clazz) {
+            return null;
+        }
+        try {
+            return mapper.readValue(bytes, clazz);
+        } catch (Exception e) {
+            log.error("#JsonFormat# #decode# ## {} decode to {} error", this, clazz.getName(), e);
+        }
+        return null;
+    }
+
+    /**
+     * 字节数组解码为对象
+     *
+     * @param bytes         字节数组
+     * @param typeReference 指定类型
+     * @return 对象实例
+     */
+    public <T> T decode(byte[] bytes, TypeReference<T> typeReference) {
+        if (null == bytes || bytes.length == 0 || null == typeReference) {
+            return null;
+        }
+        try {
+            return mapper.readValue(bytes, typeReference);
+        } catch (Exception e) {
+            log.error("#JsonFormat# #decode# ## {} decode to {} error", this, typeReference.getType(), e);
+        }
+        return null;
+    }
+
+    /**
+     * 输入流解码为对象，直接从流中解析
+     *
+     * @param in    输入流
+     * @param clazz 对象类型
+     * @return 对象实例
+     */
+    public <T> T read(InputStream in, Class<T> clazz) {
+        if (null == in || null == clazz) {
+            return null;
+        }
+        try {
+            return mapper.readValue(in, clazz);
+        } catch (Exception e) {
+            log.error("#JsonFormat# #read# ## {} read {} error", this, clazz.getName(), e);
+        }
+        return null;
+    }
+
+    /**
+     * 输入流解码为对象，直接从流中解析
+     *
+     * @param in            输入流
+     * @param typeReference 指定类型
+     * @return 对象实例
+     */
+    public <T> T read(InputStream in, TypeReference<T> typeReference) {
+        if (null == in || null == typeReference) {
+            return null;
+        }
+        try {
+            return mapper.readValue(in, typeReference);
+        } catch (Exception e) {
+            log.error("#JsonFormat# #read# ## {} read {} error", this, typeReference.getType(), e);
+        }
+        return null;
+    }
+
+    /**
+     * 对象编码写入输出流，不关闭输出流
+     *
+     * @param out 输出流
+     * @param obj 对象实例
+     * @return 是否成功
+     */
+    public boolean write(OutputStream out, Object obj) {
+        if (null == out) {
+            return false;
+        }
+        try {
+            mapper.writeValue(out, obj);
+            return true;
+        } catch (Exception e) {
+            log.error("#JsonFormat# #write# ## {} write error", this, e);
+        }
+        return false;
+    }
+}
@@ -0,0 +1,43 @@
+package cn.zm1001.util.common.json;
+
+import cn.zm1001.util.common.JacksonUtils;
+import lombok.extern.slf4j.Slf4j;
+
+import javax.servlet.http.HttpServletResponse;
+import java.io.OutputStream;
+
+/**
+ * @Desc 按格式（Json、Smile、CBOR）将对象直接写入响应输出流，不生成中间字符串
+ * servlet-api为provided依赖，响应相关的方法集中在本类，{@link JsonFormat}、{@link JacksonUtils}在未引入servlet-api时仍可使用
+ * @Author Dongd_Zhou
+ */
+@Slf4j
+public final class JsonResponses {
+    private JsonResponses() {
+        throw new UnsupportedOperationException();
+    }
+
+    /**
+     * 对象编码直接写入响应输出流，并设置Content-Type，不设置响应状态
+     *
+     * @param response 响应
+     * @param obj      对象实例
+     * @param format   格式
+     * @return 是否成功
+     */
+    public static boolean write(HttpServletResponse response, Object obj, JsonFormat format) {
+        if (null == response) {
+            return false;
+        }
+        response.setContentType(format == JsonFormat.JSON ? JacksonUtils.CONTENT_TYPE_JSON : format.getMediaType());
+        try {
+            final OutputStream out = response.getOutputStream();
+            final boolean written = format == JsonFormat.JSON ? JacksonUtils.writeTo(out, obj) : format.write(out, obj);
+            out.flush();
+            return written;
+        } catch (Exception e) {
+            log.error("#JsonResponses# #write# ## {} write to response error", format, e);
+        }
+        return false;
+    }
+}
@@ -0,0 +1,260 @@
+package cn.zm1001.util.common.json;
+
+import cn.zm1001.util.common.JacksonUtils;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectReader;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.fasterxml.jackson.databind.SerializationFeature;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+import java.util.Spliterator;
+import java.util.Spliterators;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
+
+/**
+ * @Desc Json流式读写：逐个元素读取或写入顶层数组及NDJSON（每行一个Json），内存占用不超过单个元素
+ * 1. 读取返回惰性的{@link JsonIterator}，可转为{@link Stream}，用完需关闭（关闭输入流）
+ * 2. 写入逐个序列化元素，每隔flushEvery个元素刷新一次，不关闭输出流
+ * 读写出错时抛出{@link UncheckedIOException}
+ * 如：{@code try (Stream<Order> orders = JsonStreams.readArray(in, Order.class).stream()) {...}}
+ * @Author Dongd_Zhou
+ */
+public final class JsonStreams {
+    /** 默认每写入1000个元素刷新一次 */
+    public static final int DEFAULT_FLUSH_EVERY = 1000;
+
+    private JsonStreams() {
+        throw new UnsupportedOperationException();
+    }
+
+    /**
+     * 逐个读取顶层数组的元素
+     *
+     * @param in    Json输入流，顶层为数组
+     * @param clazz 元素类型
+     * @return 元素迭代器
+     */
+    public static <T> JsonIterator<T> readArray(InputStream in, Class<T> clazz) {
+        return new JsonIterator<>(in, JacksonUtils.reader(clazz), true);
+    }
+
+    /**
+     * 逐个读取顶层数组的元素
+     *
+     * @param in            Json输入流，顶层为数组
+     * @param typeReference 元素类型
+     * @return 元素迭代器
+     */
+    public static <T> JsonIterator<T> readArray(InputStream in, TypeReference<T> typeReference) {
+        return new JsonIterator<>(in, JacksonUtils.reader(typeReference), true);
+    }
+
+    /**
+     * 逐个读取NDJSON的元素，元素之间可以是任意空白
+     *
+     * @param in    NDJSON输入流
+     * @param clazz 元素类型
+     * @return 元素迭代器
+     */
+    public static <T> JsonIterator<T> readLines(InputStream in, Class<T> clazz) {
+        return new JsonIterator<>(in, JacksonUtils.reader(clazz), false);
+    }
+
+    /**
+     * 逐个读取NDJSON的元素，元素之间可以是任意空白
+     *
+     * @param in            NDJSON输入流
+     * @param typeReference 元素类型
+     * @return 元素迭代器
+     */
+    public static <T> JsonIterator<T> readLines(InputStream in, TypeReference<T> typeReference) {
+        return new JsonIterator<>(in, JacksonUtils.reader(typeReference), false);
+    }
+
+    /**
+     * 逐个写入元素，组成顶层数组
+     *
+     * @param out      输出流
+     * @param elements 元素
+     * @return 写入的元素数
+     */
+    public static long writeArray(OutputStream out, Iterator<?> elements) {
+        return write(out, elements, true, DEFAULT_FLUSH_EVERY);
+    }
+
+    /**
+     * 逐个写入元素，组成顶层数组
+     *
+     * @param out      输出流
+     * @param elements 元素
+     * @return 写入的元素数
+     */
+    public static long writeArray(OutputStream out, Stream<?> elements) {
+        return write(out, elements.iterator(), true, DEFAULT_FLUSH_EVERY);
+    }
+
+    /**
+     * 逐个写入元素，每个元素一行（NDJSON）
+     *
+     * @param out      输出流
+     * @param elements 元素
+     * @return 写入的元素数
+     */
+    public static long writeLines(OutputStream out, Iterator<?> elements) {
+        return write(out, elements, false, DEFAULT_FLUSH_EVERY);
+    }
+
+    /**
+     * 逐个写入元素，每个元素一行（NDJSON）
+     *
+     * @param out      输出流
+     * @param elements 元素
+     * @return 写入的元素数
+     */
+    public static long writeLines(OutputStream out, Stream<?> elements) {
+        return write(out, elements.iterator(), false, DEFAULT_FLUSH_EVERY);
+    }
+
+    /**
+     * 逐个写入元素
+     *
+     * @param out        输出流
+     * @param elements   元素
+     * @param array      true组成顶层数组，false每个元素一行（NDJSON）
+     * @param flushEvery 每写入多少个元素刷新一次
+     * @return 写入的元素数
+     */
+    public static long write(OutputStream out, Iterator<?> elements, boolean array, int flushEvery) {
+        if (flushEvery <= 0) {
+            throw new IllegalArgumentException("flushEvery must be greater than zero.");
+        }
+        final ObjectWriter base = JacksonUtils.writer(Object.class);
+        long count = 0;
+        try (JsonGenerator generator = base.createGenerator(out)) {
+            generator.setRootValueSeparator(null);
+            if (array) {
+                generator.writeStartArray();
+            }
+            // 同类元素复用ObjectWriter，逐个元素写入时不刷新
+            Class<?> lastClass = null;
+            ObjectWriter writer = null;
+            while (elements.hasNext()) {
+                final Object element = elements.next();
+                if (null == element) {
+                    generator.writeNull();
+                } else {
+                    if (element.getClass() != lastClass) {
+                        lastClass = element.getClass();
+                        writer = JacksonUtils.writer(lastClass).without(SerializationFeature.FLUSH_AFTER_WRITE_VALUE);
+                    }
+                    writer.writeValue(generator, element);
+                }
+                if (!array) {
+                    generator.writeRaw('\n');
+                }
+                if (++count % flushEvery == 0) {
+                    generator.flush();
+                }
+            }
+            if (array) {
+                generator.writeEndArray();
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException("write json elements failed after " + count, e);
+        }
+        return count;
+    }
+
+    /**
+     * Json元素迭代器，按需解析下一个元素，用完需关闭
+     */
+    public static class JsonIterator<T> implements Iterator<T>, Closeable {
+        private final JsonParser parser;
+        private final ObjectReader reader;
+        private final boolean array;
+        /** 是否已定位到下一个元素的起始token */
+        private boolean ready;
+        private boolean finished;
+
+        private JsonIterator(InputStream in, ObjectReader reader, boolean array) {
+            this.reader = reader;
+            this.array = array;
+            try {
+                this.parser = reader.createParser(in);
+                if (array && parser.nextToken() != JsonToken.START_ARRAY) {
+                    parser.close();
+                    throw new IOException("Expected top-level json array, but was " + parser.currentToken());
+                }
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        }
+
+        @Override
+        public boolean hasNext() {
+            if (ready) {
+                return true;
+            }
+            if (finished) {
+                return false;
+            }
+            try {
+                final JsonToken token = parser.nextToken();
+                if (null == token || (array && token == JsonToken.END_ARRAY)) {
+                    close();
+                    return false;
+                }
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+            ready = true;
+            return true;
+        }
+
+        @Override
+        public T next() {
+            if (!hasNext()) {
+                throw new NoSuchElementException();
+            }
+            ready = false;
+            try {
+                return reader.readValue(parser);
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        }
+
+        /**
+         * 转为顺序流，关闭流时关闭迭代器
+         *
+         * @return 元素流
+         */
+        public Stream<T> stream() {
+            return StreamSupport.stream(Spliterators.spliteratorUnknownSize(this, Spliterator.ORDERED), false)
+                    .onClose(() -> {
+                        try {
+                            close();
+                        } catch (IOException e) {
+                            throw new UncheckedIOException(e);
+                        }
+                    });
+        }
+
+        @Override
+        public void close() throws IOException {
+            finished = true;
+            ready = false;
+            parser.close();
+        }
+    }
+}
@@ -0,0 +1,77 @@
+package cn.zm1001.util.common;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.text.ParseException;
+import java.text.SimpleDateFormat;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.util.Date;
+
+/**
+ * @Desc 时间工具类测试
+ * @Author Dongd_Zhou
+ */
+public class DateUtilsTest {
+    private static final String[] PATTERNS = {
+            "yyyyMMddHHmmss", "yyyyMMddHHmm", "yyyyMMdd", "yyyyMM",
+            "yyyy-MM-dd HH:mm:ss", "yyyy-MM-dd HH:mm", "yyyy-MM-dd", "yyyy-MM",
+            "yyyy/MM/dd HH:mm:ss", "yyyy/MM/dd HH:mm", "yyyy/MM/dd", "yyyy/MM",
+            "yyyy.MM.dd HH:mm:ss", "yyyy.MM.dd HH:mm", "yyyy.MM.dd", "yyyy.MM",
+            "yyyy-MM-dd'T'HH:mm:ss", "yyyy-MM-dd HH:mm:ss.SSS"};
+
+    @Test
+    public void testParseDetected() throws ParseException {
+        Date date = new Date(1660000000123L);
+        for (String pattern : PATTERNS) {
+            String text = new SimpleDateFormat(pattern).format(date);
+            Date expected = new SimpleDateFormat(pattern).parse(text);
+            Assert.assertEquals(pattern, expected, DateUtils.parse((Object) text));
+            Assert.assertEquals(pattern, expected, DateUtils.parse(text, pattern));
+            Assert.assertEquals(pattern, text, DateUtils.format(date, pattern));
+            Assert.assertEquals(pattern, DateUtils.toLocalDateTime(expected), DateUtils.parseLocalDateTime(text));
+        }
+    }
+
+    @Test
+    public void testParseLenient() throws ParseException {
+        Date expected = new SimpleDateFormat("yyyy-MM-dd").parse("2020-01-05");
+        Assert.assertEquals(expected, DateUtils.parse((Object) "2020-1-5"));
+        Assert.assertEquals(expected, DateUtils.parse("2020-1-5", "yyyy-MM-dd"));
+        Assert.assertEquals(new Date(0L), DateUtils.parse("1970-01-01T00:00:00Z", "yyyy-MM-dd'T'HH:mm:ssX"));
+    }
+
+    @Test
+    public void testSimpleDateFormatCompatible() throws ParseException {
+        // 含义与DateTimeFormatter不同的字母按SimpleDateFormat处理
+        Assert.assertEquals(new SimpleDateFormat("yyyy-MM-dd HH:mm:ss").parse("2022-08-09 03:04:05"),
+                DateUtils.parse("2022-08-09 03:04:05", "yyyy-MM-dd hh:mm:ss"));
+        Date date = new Date(1660000000567L);
+        for (String pattern : new String[]{"yyyy-MM-dd HH:mm:ss.S", "u", "yy-M-d", "E MMM", "hh:mm a"}) {
+            Assert.assertEquals(pattern, new SimpleDateFormat(pattern).format(date), DateUtils.format(date, pattern));
+        }
+        // 非法日期按SimpleDateFormat宽松解析，不调整为月末
+        Date expected = new SimpleDateFormat("yyyy-MM-dd").parse("2022-03-02");
+        Assert.assertEquals(expected, DateUtils.parse("2022-02-30", "yyyy-MM-dd"));
+        Assert.assertEquals(expected, DateUtils.parse((Object) "2022/02/30"));
+        Assert.assertEquals(expected, DateUtils.parse((Object) "20220230"));
+        // 超过4位的年份
+        Date future = new SimpleDateFormat("yyyy-MM-dd HH:mm:ss").parse("10000-01-01 00:00:00");
+        Assert.assertEquals("10000/01/01", DateUtils.format(future, DateUtils.YYYY_MM_DD_PATH));
+        Assert.assertEquals("10000-01-01", DateUtils.format(future, DateUtils.YYYY_MM_DD));
+        Assert.assertEquals("10000-01-01 00:00:00", DateUtils.format(future, DateUtils.YYYY_MM_DD_HH_MM_SS));
+    }
+
+    @Test
+    public void testJavaTime() {
+        LocalDateTime dateTime = LocalDateTime.of(2022, 8, 9, 10, 11, 12);
+        Assert.assertEquals("2022-08-09 10:11:12", DateUtils.format(dateTime, DateUtils.YYYY_MM_DD_HH_MM_SS));
+        Assert.assertEquals("20220809", DateUtils.format(dateTime.toLocalDate(), DateUtils.YYYY_MM_DD_COMPACT));
+        Assert.assertEquals(dateTime, DateUtils.parseLocalDateTime("2022/08/09 10:11:12"));
+        Assert.assertEquals(dateTime.withHour(0).withMinute(0).withSecond(0), DateUtils.parseLocalDateTime("20220809", "yyyyMMdd"));
+        Instant instant = DateUtils.toDate(dateTime).toInstant();
+        Assert.assertEquals(instant, DateUtils.parseInstant("2022.08.09 10:11:12"));
+        Assert.assertEquals("2022-08-09 10:11:12", DateUtils.format(instant, DateUtils.YYYY_MM_DD_HH_MM_SS));
+    }
+}
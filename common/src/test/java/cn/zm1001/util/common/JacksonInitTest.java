@@ -0,0 +1,54 @@
+package cn.zm1001.util.common;
+
+import cn.zm1001.util.common.JacksonUtilsTest.Item;
+import cn.zm1001.util.common.json.JacksonConfig;
+import cn.zm1001.util.common.json.JsonFormat;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.util.Collections;
+import java.util.Date;
+
+/**
+ * @Desc Jackson初始化测试，启用后修改全局的ObjectMapper，在单独的JVM中运行（见pom.xml）
+ * @Author Dongd_Zhou
+ */
+public class JacksonInitTest {
+    private static final String AFTERBURNER = "com.fasterxml.jackson.module.afterburner.AfterburnerModule";
+
+    @Test
+    public void testInit() {
+        Item item = new Item();
+        item.setId(1L);
+        item.setName("item");
+        item.setCreateTime(new Date(1660000000000L));
+        String before = JacksonUtils.toJson(item);
+        byte[] smileBefore = JsonFormat.SMILE.encode(item);
+        ObjectWriter cached = JacksonUtils.writer(Item.class);
+        Assert.assertFalse(JacksonUtils.isAccelerated());
+
+        JacksonUtils.init(JacksonConfig.defaultConfig().setAccelerate(true).setWarmUpClasses(Collections.singletonList(Item.class)));
+        Assert.assertTrue(JacksonUtils.isAccelerated());
+        // 全局及各格式的ObjectMapper均已注册，之后创建的ObjectMapper也注册
+        for (JsonFormat format : JsonFormat.values()) {
+            Assert.assertTrue(format.name(), format.getMapper().getRegisteredModuleIds().contains(AFTERBURNER));
+        }
+        Assert.assertTrue(JacksonUtils.newMapper(null).getRegisteredModuleIds().contains(AFTERBURNER));
+        // 注册前缓存的ObjectWriter已清除，预热后直接使用缓存
+        ObjectWriter warmed = JacksonUtils.writer(Item.class);
+        Assert.assertNotSame(cached, warmed);
+        Assert.assertSame(warmed, JacksonUtils.writer(Item.class));
+
+        // 输出不变
+        Assert.assertEquals(before, JacksonUtils.toJson(item));
+        Assert.assertArrayEquals(smileBefore, JsonFormat.SMILE.encode(item));
+        Item parsed = JacksonUtils.parse(before, Item.class);
+        Assert.assertEquals(item, parsed);
+        Assert.assertEquals(item, JsonFormat.SMILE.decode(smileBefore, Item.class));
+
+        // 重复初始化不重复注册
+        JacksonUtils.init(JacksonConfig.defaultConfig().setAccelerate(true));
+        Assert.assertSame(warmed, JacksonUtils.writer(Item.class));
+    }
+}
@@ -0,0 +1,118 @@
+package cn.zm1001.util.common;
+
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.Module;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.dataformat.smile.SmileFactory;
+import lombok.Data;
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.StringWriter;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.Date;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * @Desc Jackson工具类测试
+ * @Author Dongd_Zhou
+ */
+public class JacksonUtilsTest {
+    @Data
+    public static class Item {
+        private long id;
+        private String name;
+        private Date createTime;
+    }
+
+    @Test
+    public void testAccelerate() throws IOException {
+        Item item = new Item();
+        item.setId(1L);
+        item.setName("item");
+        item.setCreateTime(new Date(1660000000000L));
+        String before = JacksonUtils.toJson(item);
+
+        // 在单独的ObjectMapper上启用，不修改全局的ObjectMapper，避免影响其他测试
+        Module module = JacksonUtils.loadAccelerator();
+        Assert.assertNotNull(module);
+        ObjectMapper mapper = JacksonUtils.newMapper(null).registerModule(module);
+        Assert.assertTrue(mapper.getRegisteredModuleIds().contains("com.fasterxml.jackson.module.afterburner.AfterburnerModule"));
+        Assert.assertEquals(before, mapper.writeValueAsString(item));
+        Item parsed = mapper.readValue(before, Item.class);
+        Assert.assertEquals("item", parsed.getName());
+        Assert.assertEquals(item.getCreateTime(), parsed.getCreateTime());
+        ObjectMapper smile = JacksonUtils.newMapper(new SmileFactory()).registerModule(module);
+        Assert.assertEquals(1L, smile.readValue(smile.writeValueAsBytes(item), Item.class).getId());
+        Assert.assertFalse(JacksonUtils.newMapper(null).getRegisteredModuleIds().contains(module.getTypeId()));
+    }
+
+    @Test
+    public void testBytesAndStreams() {
+        Item item = newItem();
+        String json = JacksonUtils.toJson(item);
+        byte[] bytes = JacksonUtils.toJsonBytes(item);
+        Assert.assertEquals(json, new String(bytes, StandardCharsets.UTF_8));
+        assertItem(JacksonUtils.parse(bytes, Item.class));
+        assertItem(JacksonUtils.parse(new ByteArrayInputStream(bytes), Item.class));
+
+        List<Item> items = Arrays.asList(item, item);
+        byte[] list = JacksonUtils.toJsonBytes(items);
+        TypeReference<List<Item>> type = new TypeReference<List<Item>>() {
+        };
+        List<Item> fromBytes = JacksonUtils.toObject(list, type);
+        Assert.assertEquals(2, fromBytes.size());
+        assertItem(fromBytes.get(1));
+        List<Item> fromStream = JacksonUtils.toObject(new ByteArrayInputStream(list), type);
+        Assert.assertEquals(2, fromStream.size());
+        assertItem(fromStream.get(0));
+
+        Assert.assertNull(JacksonUtils.toJsonBytes(null));
+        Assert.assertNull(JacksonUtils.parse(new byte[0], Item.class));
+        Assert.assertNull(JacksonUtils.parse("{".getBytes(StandardCharsets.UTF_8), Item.class));
+    }
+
+    @Test
+    public void testWriteTo() throws IOException {
+        Item item = newItem();
+        String json = JacksonUtils.toJson(item);
+        // 写入后不关闭输出流，可继续写入
+        final AtomicBoolean closed = new AtomicBoolean();
+        ByteArrayOutputStream out = new ByteArrayOutputStream() {
+            @Override
+            public void close() {
+                closed.set(true);
+            }
+        };
+        Assert.assertTrue(JacksonUtils.writeTo(out, item));
+        Assert.assertFalse(closed.get());
+        out.write('\n');
+        Assert.assertEquals(json + "\n", new String(out.toByteArray(), StandardCharsets.UTF_8));
+
+        StringWriter writer = new StringWriter();
+        Assert.assertTrue(JacksonUtils.writeTo(writer, item));
+        Assert.assertEquals(json, writer.toString());
+        Assert.assertFalse(JacksonUtils.writeTo((OutputStream) null, item));
+
+    }
+
+    private static Item newItem() {
+        Item item = new Item();
+        item.setId(1L);
+        item.setName("名称");
+        item.setCreateTime(new Date(1660000000000L));
+        return item;
+    }
+
+    private static void assertItem(Item item) {
+        Assert.assertEquals(1L, item.getId());
+        Assert.assertEquals("名称", item.getName());
+        Assert.assertEquals(new Date(1660000000000L), item.getCreateTime());
+    }
+}
@@ -0,0 +1,46 @@
+package cn.zm1001.util.common.date;
+
+import cn.zm1001.util.common.DateUtils;
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.time.ZoneId;
+
+/**
+ * @Desc 秒级缓存时钟测试
+ * @Author Dongd_Zhou
+ */
+public class CachedClockTest {
+
+    @Test
+    public void testCurrentSecond() throws InterruptedException {
+        final ZoneId zone = ZoneId.systemDefault();
+        for (int i = 0; i < 30; i++) {
+            final long before = System.currentTimeMillis();
+            final String dateTime = DateUtils.nowDateTime();
+            final String datePath = DateUtils.datePath();
+            final long after = System.currentTimeMillis();
+            // 读取期间可能跨秒，与读取前或读取后的秒一致
+            assertOneOf(dateTime, FixedDateFormat.DATE_TIME.format(before, zone), FixedDateFormat.DATE_TIME.format(after, zone));
+            assertOneOf(datePath, FixedDateFormat.DATE.format(before, zone).replace('-', '/'),
+                    FixedDateFormat.DATE.format(after, zone).replace('-', '/'));
+            Thread.sleep(37L);
+        }
+    }
+
+    @Test
+    public void testStaleSnapshot() {
+        final ZoneId zone = ZoneId.systemDefault();
+        // 模拟后台线程延迟，缓存停留在5秒前
+        final long before = System.currentTimeMillis();
+        CachedClock.snapshot = CachedClock.Snapshot.of(before - 5000L);
+        final String dateTime = CachedClock.dateTime();
+        final long after = System.currentTimeMillis();
+        assertOneOf(dateTime, FixedDateFormat.DATE_TIME.format(before, zone), FixedDateFormat.DATE_TIME.format(after, zone));
+        Assert.assertTrue(CachedClock.snapshot.from >= before / 1000L * 1000L);
+    }
+
+    private static void assertOneOf(String actual, String expected, String other) {
+        Assert.assertTrue(actual + " not in [" + expected + ", " + other + "]", actual.equals(expected) || actual.equals(other));
+    }
+}
@@ -0,0 +1,44 @@
+package cn.zm1001.util.common.date;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.time.format.DateTimeFormatter;
+
+/**
+ * @Desc 固定格式日期解析及格式化测试
+ * @Author Dongd_Zhou
+ */
+public class FixedDateFormatTest {
+
+    @Test
+    public void testFixedFormat() {
+        // 跨越夏令时切换，含间隙及重叠
+        ZoneId zone = ZoneId.of("America/New_York");
+        DateTimeFormatter formatter = DateTimeFormatter.ofPattern("yyyy-MM-dd HH:mm:ss");
+        char[] chars = new char[19];
+        for (long millis = 1583600000000L; millis < 1605000000000L; millis += 1799000L) {
+            String text = formatter.format(Instant.ofEpochMilli(millis).atZone(zone));
+            Assert.assertEquals(19, FixedDateFormat.DATE_TIME.format(millis, zone, chars, 0));
+            Assert.assertEquals(text, new String(chars));
+            long expected = LocalDateTime.parse(text, formatter).atZone(zone).toInstant().toEpochMilli();
+            Assert.assertEquals(text, expected, FixedDateFormat.DATE_TIME.parse(text, zone));
+        }
+        Assert.assertEquals(1583650800000L, FixedDateFormat.DATE_TIME.parse("2020-03-08 02:00:00", zone));
+
+        byte[] line = "id,19000101,20991231235959,x".getBytes();
+        ZoneId utc = ZoneId.of("UTC");
+        Assert.assertEquals(-2208988800000L, FixedDateFormat.DATE_COMPACT.tryParse(line, 3, utc));
+        Assert.assertEquals(4102444799000L, FixedDateFormat.DATE_TIME_COMPACT.tryParse(line, 12, utc));
+        Assert.assertEquals("2099-12-31", FixedDateFormat.DATE.format(4102444799000L, utc));
+        Assert.assertTrue(FixedDateFormat.supports(4102444799000L));
+        Assert.assertFalse(FixedDateFormat.supports(253402300800000L));
+        Assert.assertEquals(FixedDateFormat.INVALID, FixedDateFormat.DATE_COMPACT.tryParse(line, 0, utc));
+        Assert.assertEquals(FixedDateFormat.INVALID, FixedDateFormat.DATE.tryParse("2021-02-29", 0, utc));
+        Assert.assertEquals(FixedDateFormat.INVALID, FixedDateFormat.DATE_TIME.tryParse("2021-02-28 24:00:00", 0, utc));
+        Assert.assertEquals(FixedDateFormat.INVALID, FixedDateFormat.DATE.tryParse("2021-02-2", 0, utc));
+    }
+}
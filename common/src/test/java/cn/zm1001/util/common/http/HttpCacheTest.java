@@ -0,0 +1,193 @@
+package cn.zm1001.util.common.http;
+
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+import org.junit.AfterClass;
+import org.junit.Assert;
+import org.junit.BeforeClass;
+import org.junit.Test;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * @Desc GET响应缓存测试，使用本地HTTP服务
+ * @Author Dongd_Zhou
+ */
+public class HttpCacheTest {
+    private static HttpServer server;
+    private static String base;
+    /** 路径 -> 请求次数 */
+    private static final Map<String, AtomicInteger> REQUESTS = new ConcurrentHashMap<>();
+    /** /slow：收到请求后等待放行 */
+    private static final CountDownLatch SLOW_RECEIVED = new CountDownLatch(1);
+    private static final CountDownLatch SLOW_RELEASE = new CountDownLatch(1);
+
+    @BeforeClass
+    public static void start() throws IOException {
+        server = HttpServer.create(new InetSocketAddress("127.0.0.1", 0), 0);
+        server.createContext("/", HttpCacheTest::handle);
+        server.start();
+        base = "http://127.0.0.1:" + server.getAddress().getPort();
+    }
+
+    @AfterClass
+    public static void stop() {
+        server.stop(0);
+    }
+
+    /**
+     * /max-age/{秒}：按max-age缓存；/age：max-age=2且Age=2，立即过期；/etag：no-cache，ETag校验，304时max-age=60；
+     * /slow：等待放行后响应，不缓存；其他路径：不返回缓存头部，响应体为路径及请求次数
+     */
+    private static void handle(HttpExchange exchange) throws IOException {
+        final String path = exchange.getRequestURI().getPath();
+        final int count = REQUESTS.computeIfAbsent(path, p -> new AtomicInteger()).incrementAndGet();
+        if (path.equals("/slow")) {
+            SLOW_RECEIVED.countDown();
+            try {
+                SLOW_RELEASE.await(10, TimeUnit.SECONDS);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }
+        int status = 200;
+        String body = path + "#" + count;
+        if (path.startsWith("/max-age/")) {
+            exchange.getResponseHeaders().add("Cache-Control", "max-age=" + path.substring(9));
+        } else if (path.equals("/age")) {
+            exchange.getResponseHeaders().add("Cache-Control", "max-age=2");
+            exchange.getResponseHeaders().add("Age", "2");
+        } else if (path.equals("/etag")) {
+            if ("\"v1\"".equals(exchange.getRequestHeaders().getFirst("If-None-Match"))) {
+                status = 304;
+                body = null;
+                exchange.getResponseHeaders().add("Cache-Control", "max-age=60");
+            } else {
+                exchange.getResponseHeaders().add("Cache-Control", "no-cache");
+            }
+            exchange.getResponseHeaders().add("ETag", "\"v1\"");
+        } else if (path.startsWith("/lru/")) {
+            // 响应体固定100个字符，缓存估算大小为328字节
+            body = String.format("%-100s", body);
+        }
+        if (null == body) {
+            exchange.sendResponseHeaders(status, -1);
+        } else {
+            final byte[] bytes = body.getBytes(StandardCharsets.UTF_8);
+            exchange.sendResponseHeaders(status, bytes.length);
+            try (OutputStream out = exchange.getResponseBody()) {
+                out.write(bytes);
+            }
+        }
+        exchange.close();
+    }
+
+    private static int requests(String path) {
+        return REQUESTS.computeIfAbsent(path, p -> new AtomicInteger()).get();
+    }
+
+    @Test
+    public void testMaxAge() {
+        HttpCache cache = new HttpCache(HttpCacheConfig.defaultConfig());
+        Assert.assertEquals("/max-age/60#1", cache.get(base + "/max-age/60", null));
+        Assert.assertEquals("/max-age/60#1", cache.get(base + "/max-age/60", null));
+        Assert.assertEquals(1, requests("/max-age/60"));
+        // max-age减去Age后为0，立即过期
+        Assert.assertEquals("/age#1", cache.get(base + "/age", null));
+        Assert.assertEquals("/age#2", cache.get(base + "/age", null));
+        HttpCacheStats stats = cache.getStats();
+        Assert.assertEquals(1, stats.getHits());
+        Assert.assertEquals(3, stats.getMisses());
+    }
+
+    @Test
+    public void testDefaultTtl() throws InterruptedException {
+        HttpCache cache = new HttpCache(HttpCacheConfig.defaultConfig().setDefaultTtl(100L));
+        Assert.assertEquals("/ttl#1", cache.get(base + "/ttl", null));
+        Assert.assertEquals("/ttl#1", cache.get(base + "/ttl", null));
+        Thread.sleep(150L);
+        Assert.assertEquals("/ttl#2", cache.get(base + "/ttl", null));
+        // 未配置缓存时间且无校验头部时不缓存
+        HttpCache noTtl = new HttpCache(HttpCacheConfig.defaultConfig());
+        Assert.assertEquals("/no-ttl#1", noTtl.get(base + "/no-ttl", null));
+        Assert.assertEquals("/no-ttl#2", noTtl.get(base + "/no-ttl", null));
+        Assert.assertEquals(0, noTtl.getStats().getEntries());
+    }
+
+    @Test
+    public void testRevalidate() {
+        HttpCache cache = new HttpCache(HttpCacheConfig.defaultConfig());
+        Assert.assertEquals("/etag#1", cache.get(base + "/etag", null));
+        // no-cache：使用前校验，304时继续使用缓存并按304的max-age刷新
+        Assert.assertEquals("/etag#1", cache.get(base + "/etag", null));
+        Assert.assertEquals("/etag#1", cache.get(base + "/etag", null));
+        Assert.assertEquals(2, requests("/etag"));
+        HttpCacheStats stats = cache.getStats();
+        Assert.assertEquals(1, stats.getRevalidations());
+        Assert.assertEquals(1, stats.getNotModified());
+        Assert.assertEquals(1, stats.getHits());
+    }
+
+    @Test
+    public void testLruEviction() {
+        HttpCache cache = new HttpCache(HttpCacheConfig.defaultConfig().setDefaultTtl(60000L).setMaxBytes(700L));
+        cache.get(base + "/lru/a", null);
+        cache.get(base + "/lru/b", null);
+        // 访问a后b为最久未访问
+        cache.get(base + "/lru/a", null);
+        cache.get(base + "/lru/c", null);
+        HttpCacheStats stats = cache.getStats();
+        Assert.assertEquals(1, stats.getEvictions());
+        Assert.assertEquals(2, stats.getEntries());
+        Assert.assertEquals(656, stats.getBytes());
+        cache.get(base + "/lru/a", null);
+        cache.get(base + "/lru/c", null);
+        Assert.assertEquals(1, requests("/lru/a"));
+        Assert.assertEquals(1, requests("/lru/c"));
+        cache.get(base + "/lru/b", null);
+        Assert.assertEquals(2, requests("/lru/b"));
+    }
+
+    @Test
+    public void testSingleFlight() throws InterruptedException {
+        final int callers = 8;
+        final List<String> bodies = Collections.synchronizedList(new ArrayList<>());
+        final CountDownLatch done = new CountDownLatch(callers);
+        HttpUtils.enableCache(HttpCacheConfig.defaultConfig());
+        try {
+            for (int i = 0; i < callers; i++) {
+                new Thread(() -> {
+                    bodies.add(HttpUtils.doGet(base + "/slow"));
+                    done.countDown();
+                }).start();
+            }
+            Assert.assertTrue(SLOW_RECEIVED.await(5, TimeUnit.SECONDS));
+            // 其余请求均等待同一个上游请求后放行
+            for (int i = 0; i < 500 && HttpUtils.getCacheStats().getCoalesced() < callers - 1; i++) {
+                Thread.sleep(10L);
+            }
+            Assert.assertEquals(callers - 1, HttpUtils.getCacheStats().getCoalesced());
+            SLOW_RELEASE.countDown();
+            Assert.assertTrue(done.await(10, TimeUnit.SECONDS));
+        } finally {
+            SLOW_RELEASE.countDown();
+            HttpUtils.disableCache();
+        }
+        Assert.assertEquals(1, requests("/slow"));
+        Assert.assertEquals(callers, bodies.size());
+        for (String body : bodies) {
+            Assert.assertEquals("/slow#1", body);
+        }
+    }
+}
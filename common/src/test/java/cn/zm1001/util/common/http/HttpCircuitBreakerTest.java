@@ -0,0 +1,67 @@
+package cn.zm1001.util.common.http;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+/**
+ * @Desc 熔断器状态测试
+ * @Author Dongd_Zhou
+ */
+public class HttpCircuitBreakerTest {
+    private static HttpCircuitBreaker breaker() {
+        return new HttpCircuitBreaker("test", new HttpPolicy().setCircuitBreakerEnabled(true)
+                .setSlidingWindowSize(10).setMinimumCalls(4).setFailureRateThreshold(50)
+                .setOpenDuration(1000L).setHalfOpenCalls(2));
+    }
+
+    @Test
+    public void testOpenByFailureRate() {
+        HttpCircuitBreaker breaker = breaker();
+        // 未达到最少请求数时不计算失败率
+        Assert.assertFalse(breaker.onFailure(0));
+        Assert.assertFalse(breaker.onFailure(0));
+        breaker.onSuccess();
+        Assert.assertEquals(HttpCircuitBreaker.State.CLOSED, breaker.getState());
+        // 2/4失败达到50%
+        breaker.onSuccess();
+        Assert.assertTrue(breaker.onFailure(0));
+        Assert.assertEquals(HttpCircuitBreaker.State.OPEN, breaker.getState());
+        Assert.assertFalse(breaker.tryAcquire(999));
+    }
+
+    @Test
+    public void testHalfOpenClose() {
+        HttpCircuitBreaker breaker = opened();
+        // 持续时间结束后半开，仅放行试探请求数
+        Assert.assertTrue(breaker.tryAcquire(1000));
+        Assert.assertEquals(HttpCircuitBreaker.State.HALF_OPEN, breaker.getState());
+        Assert.assertTrue(breaker.tryAcquire(1000));
+        Assert.assertFalse(breaker.tryAcquire(1000));
+        breaker.onSuccess();
+        Assert.assertEquals(HttpCircuitBreaker.State.HALF_OPEN, breaker.getState());
+        breaker.onSuccess();
+        Assert.assertEquals(HttpCircuitBreaker.State.CLOSED, breaker.getState());
+        // 关闭后窗口已清空
+        Assert.assertFalse(breaker.onFailure(1000));
+        Assert.assertTrue(breaker.tryAcquire(1000));
+    }
+
+    @Test
+    public void testHalfOpenReopen() {
+        HttpCircuitBreaker breaker = opened();
+        Assert.assertTrue(breaker.tryAcquire(1000));
+        Assert.assertTrue(breaker.onFailure(1000));
+        Assert.assertEquals(HttpCircuitBreaker.State.OPEN, breaker.getState());
+        Assert.assertFalse(breaker.tryAcquire(1999));
+        Assert.assertTrue(breaker.tryAcquire(2000));
+    }
+
+    private static HttpCircuitBreaker opened() {
+        HttpCircuitBreaker breaker = breaker();
+        for (int i = 0; i < 4; i++) {
+            breaker.onFailure(0);
+        }
+        Assert.assertEquals(HttpCircuitBreaker.State.OPEN, breaker.getState());
+        return breaker;
+    }
+}
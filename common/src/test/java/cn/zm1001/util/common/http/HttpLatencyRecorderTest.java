@@ -0,0 +1,67 @@
+package cn.zm1001.util.common.http;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+/**
+ * @Desc 主机延迟记录测试：移动平均、分位延迟及窗口轮换
+ * @Author Dongd_Zhou
+ */
+public class HttpLatencyRecorderTest {
+
+    @Test
+    public void testEwma() {
+        HttpLatencyRecorder recorder = new HttpLatencyRecorder(HttpHedgeConfig.defaultConfig().setEwmaAlpha(0.5D));
+        Assert.assertEquals(-1D, recorder.ewma(), 0D);
+        recorder.record(10);
+        Assert.assertEquals(10D, recorder.ewma(), 0D);
+        recorder.record(30);
+        Assert.assertEquals(20D, recorder.ewma(), 0D);
+        // 失败按惩罚延迟计入移动平均，不计入延迟分布
+        recorder.recordFailure(5);
+        Assert.assertEquals(510D, recorder.ewma(), 0D);
+        HttpLatencyStats stats = recorder.stats();
+        Assert.assertEquals(3, stats.getCount());
+        Assert.assertEquals(1, stats.getErrors());
+        Assert.assertEquals(2L, stats.getHistogram().values().stream().mapToLong(Long::longValue).sum());
+    }
+
+    @Test
+    public void testPercentile() {
+        HttpLatencyRecorder recorder = new HttpLatencyRecorder(HttpHedgeConfig.defaultConfig().setMinSamples(20));
+        for (int i = 0; i < 19; i++) {
+            recorder.record(10);
+        }
+        // 样本不足
+        Assert.assertEquals(-1L, recorder.percentile(50));
+        for (int i = 0; i < 71; i++) {
+            recorder.record(i % 2 == 0 ? 8 : 10);
+        }
+        for (int i = 0; i < 10; i++) {
+            recorder.record(400);
+        }
+        // 取所在桶的上限
+        Assert.assertEquals(10L, recorder.percentile(50));
+        Assert.assertEquals(10L, recorder.percentile(90));
+        Assert.assertEquals(500L, recorder.percentile(95));
+        Assert.assertEquals(500L, recorder.percentile(100));
+        // 超过最大上限的延迟按最大上限
+        for (int i = 0; i < 100; i++) {
+            recorder.record(60000);
+        }
+        Assert.assertEquals(30000L, recorder.percentile(99));
+        Assert.assertEquals("+Inf", recorder.stats().getHistogram().keySet().stream().reduce((a, b) -> b).orElse(null));
+    }
+
+    @Test
+    public void testWindow() throws InterruptedException {
+        HttpLatencyRecorder recorder = new HttpLatencyRecorder(HttpHedgeConfig.defaultConfig().setMinSamples(1).setWindow(200L));
+        recorder.record(10);
+        Thread.sleep(300L);
+        // 轮换后仍包含上一个窗口
+        Assert.assertEquals(10L, recorder.percentile(50));
+        Thread.sleep(500L);
+        // 超过两个窗口后清空
+        Assert.assertEquals(-1L, recorder.percentile(50));
+    }
+}
@@ -0,0 +1,160 @@
+package cn.zm1001.util.common.http;
+
+import ch.qos.logback.classic.Level;
+import ch.qos.logback.classic.Logger;
+import ch.qos.logback.classic.spi.ILoggingEvent;
+import ch.qos.logback.core.read.ListAppender;
+import org.junit.After;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+import org.slf4j.LoggerFactory;
+
+import java.io.IOException;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+
+/**
+ * @Desc 请求日志测试：截断、头部脱敏、记录条件、参数延迟求值
+ * @Author Dongd_Zhou
+ */
+public class HttpLoggerTest {
+    private static final String URL = "http://log.test/api?id=1";
+    private final Logger logger = (Logger) LoggerFactory.getLogger(HttpUtils.class);
+    private final ListAppender<ILoggingEvent> appender = new ListAppender<>();
+
+    @Before
+    public void attach() {
+        appender.start();
+        logger.addAppender(appender);
+        logger.setLevel(Level.INFO);
+    }
+
+    @After
+    public void detach() {
+        logger.detachAppender(appender);
+        logger.setLevel(null);
+        HttpLogger.setPolicy(null);
+    }
+
+    private String lastMessage() {
+        Assert.assertFalse(appender.list.isEmpty());
+        return appender.list.get(appender.list.size() - 1).getFormattedMessage();
+    }
+
+    @Test
+    public void testTruncate() {
+        Assert.assertNull(HttpLogger.truncate(null, 10));
+        Assert.assertEquals("abcdef", HttpLogger.truncate("abcdef", 6));
+        Assert.assertEquals("abcd...(6 chars)", HttpLogger.truncate("abcdef", 4));
+        Assert.assertEquals("abcdef", HttpLogger.truncate("abcdef", -1));
+        // 中文按3个字节计算
+        Assert.assertEquals("中文...(3 chars)", HttpLogger.truncate("中文字", 8));
+        Assert.assertEquals("中文字", HttpLogger.truncate("中文字", 9));
+        Assert.assertEquals("é...(3 chars)", HttpLogger.truncate("ééé", 3));
+        // 代理对按4个字节计算，不从中间截断
+        String emoji = "a😀b";
+        Assert.assertEquals("a...(4 chars)", HttpLogger.truncate(emoji, 4));
+        Assert.assertEquals("a😀...(4 chars)", HttpLogger.truncate(emoji, 5));
+        Assert.assertEquals(emoji, HttpLogger.truncate(emoji, 6));
+    }
+
+    @Test
+    public void testRedactHeaders() {
+        Map<String, String> headers = new LinkedHashMap<>();
+        headers.put("authorization", "Bearer secret");
+        headers.put("COOKIE", "sid=secret");
+        headers.put("X-Token", "token");
+        headers.put("X-Trace", "trace-1");
+        HttpLogger.log("get", URL, headers, null, "ok", null, 1L);
+        String message = lastMessage();
+        Assert.assertFalse(message, message.contains("secret"));
+        Assert.assertTrue(message, message.contains("\"authorization\":\"******\""));
+        Assert.assertTrue(message, message.contains("\"X-Token\":\"token\""));
+        Assert.assertTrue(message, message.contains("trace-1"));
+        // 自定义脱敏头部，不区分大小写，原头部不修改
+        HttpLogger.setPolicy(HttpLogPolicy.defaultPolicy().setRedactHeaders(Collections.singleton("x-token")));
+        HttpLogger.log("get", URL, headers, null, "ok", null, 1L);
+        message = lastMessage();
+        Assert.assertTrue(message, message.contains("\"X-Token\":\"******\""));
+        Assert.assertTrue(message, message.contains("Bearer secret"));
+        Assert.assertEquals("token", headers.get("X-Token"));
+    }
+
+    @Test
+    public void testOnlyFailure() {
+        HttpLogger.setPolicy(HttpLogPolicy.defaultPolicy().setOnlyFailure(true));
+        HttpLogger.log("get", URL, null, null, "ok", null, 1L);
+        Assert.assertTrue(appender.list.isEmpty());
+        // 非200响应及异常视为失败
+        HttpLogger.log("get", URL, null, null, null, null, 1L);
+        Assert.assertEquals(1, appender.list.size());
+        HttpLogger.log("get", URL, null, null, null, new IOException("reset"), 1L);
+        Assert.assertEquals(2, appender.list.size());
+        Assert.assertEquals(Level.ERROR, appender.list.get(1).getLevel());
+        Assert.assertTrue(lastMessage().contains("#exception#"));
+
+        HttpLogger.setPolicy(HttpLogPolicy.defaultPolicy().setEnabled(false));
+        HttpLogger.log("get", URL, null, null, null, new IOException("reset"), 1L);
+        Assert.assertEquals(2, appender.list.size());
+    }
+
+    @Test
+    public void testSlowThreshold() {
+        HttpLogger.setPolicy(HttpLogPolicy.defaultPolicy().setSlowThreshold(100L));
+        HttpLogger.log("get", URL, null, null, "ok", null, 99L);
+        Assert.assertTrue(appender.list.isEmpty());
+        HttpLogger.log("get", URL, null, null, "ok", null, 100L);
+        Assert.assertEquals(1, appender.list.size());
+        Assert.assertTrue(lastMessage().endsWith(" 100ms"));
+        HttpLogger.log("get", URL, null, null, null, null, 1L);
+        Assert.assertEquals(2, appender.list.size());
+    }
+
+    @Test
+    public void testSampleRate() {
+        HttpLogger.setPolicy(HttpLogPolicy.defaultPolicy().setSampleRate(Integer.MAX_VALUE));
+        for (int i = 0; i < 100; i++) {
+            HttpLogger.log("get", URL, null, null, "ok", null, 1L);
+        }
+        // 每2^31次记录1次，100次几乎不会记录
+        Assert.assertTrue(appender.list.size() <= 1);
+        appender.list.clear();
+        for (int i = 0; i < 100; i++) {
+            HttpLogger.log("get", URL, null, null, null, null, 1L);
+        }
+        Assert.assertEquals(100, appender.list.size());
+        appender.list.clear();
+        HttpLogger.setPolicy(HttpLogPolicy.defaultPolicy().setSampleRate(1));
+        for (int i = 0; i < 100; i++) {
+            HttpLogger.log("get", URL, null, null, "ok", null, 1L);
+        }
+        Assert.assertEquals(100, appender.list.size());
+    }
+
+    @Test
+    public void testLazyParam() {
+        final AtomicInteger calls = new AtomicInteger();
+        Supplier<String> param = () -> {
+            calls.incrementAndGet();
+            return "name=中文";
+        };
+        HttpLogger.setPolicy(HttpLogPolicy.defaultPolicy().setOnlyFailure(true));
+        HttpLogger.log("post", URL, null, param, "ok", null, 1L);
+        Assert.assertEquals(0, calls.get());
+        logger.setLevel(Level.WARN);
+        HttpLogger.log("post", URL, null, param, null, null, 1L);
+        Assert.assertEquals(0, calls.get());
+        logger.setLevel(Level.INFO);
+        HttpLogger.log("post", URL, null, param, null, null, 1L);
+        Assert.assertEquals(1, calls.get());
+        Assert.assertTrue(lastMessage().contains("name=中文"));
+        // Map参数在记录时序列化并截断
+        HttpLogger.setPolicy(HttpLogPolicy.defaultPolicy().setMaxBodyBytes(8));
+        HttpLogger.log("post", URL, null, Collections.singletonMap("name", "value"), "ok", null, 1L);
+        Assert.assertTrue(lastMessage(), lastMessage().contains("{\"name\":...(16 chars)"));
+    }
+}
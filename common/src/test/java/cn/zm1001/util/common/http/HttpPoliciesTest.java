@@ -0,0 +1,130 @@
+package cn.zm1001.util.common.http;
+
+import cn.zm1001.util.common.exception.HttpException;
+import org.apache.http.client.methods.HttpGet;
+import org.apache.http.client.methods.HttpPost;
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.io.IOException;
+import java.net.ConnectException;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * @Desc 请求策略测试：重试、并发限制、重试等待中断
+ * @Author Dongd_Zhou
+ */
+public class HttpPoliciesTest {
+
+    @Test
+    public void testRetry() throws IOException {
+        final String host = "retry.test";
+        HttpPolicies.register(host, new HttpPolicy().setMaxRetries(2).setRetryBackoff(1L));
+        try {
+            StubHttpClient failing = new StubHttpClient(request -> {
+                throw new ConnectException("refused");
+            });
+            try {
+                HttpPolicies.execute(failing, new HttpGet("http://" + host + "/"), ResponseHandlers.ofString());
+                Assert.fail();
+            } catch (ConnectException e) {
+                // 重试后仍失败
+            }
+            Assert.assertEquals(3, failing.requests.get());
+            HttpPolicyStats stats = HttpPolicies.getStats().get(host);
+            Assert.assertEquals(2, stats.getRetries());
+            Assert.assertEquals(1, stats.getFailures());
+
+            // 按状态码重试，成功后不再重试
+            final AtomicInteger attempts = new AtomicInteger();
+            StubHttpClient recovering = new StubHttpClient(request -> attempts.getAndIncrement() == 0
+                    ? StubHttpClient.response(503, null) : StubHttpClient.response(200, "ok"));
+            Assert.assertEquals("ok", HttpPolicies.execute(recovering, new HttpGet("http://" + host + "/"), ResponseHandlers.ofString()));
+            Assert.assertEquals(2, recovering.requests.get());
+            Assert.assertEquals(3, HttpPolicies.getStats().get(host).getRetries());
+
+            // 非幂等请求默认不重试
+            failing.requests.set(0);
+            try {
+                HttpPolicies.execute(failing, new HttpPost("http://" + host + "/"), ResponseHandlers.ofString());
+                Assert.fail();
+            } catch (ConnectException e) {
+                Assert.assertEquals(1, failing.requests.get());
+            }
+        } finally {
+            HttpPolicies.register(host, null);
+        }
+    }
+
+    @Test
+    public void testBulkhead() throws Exception {
+        final String host = "bulkhead.test";
+        HttpPolicies.register(host, new HttpPolicy().setMaxConcurrentCalls(1));
+        final CountDownLatch entered = new CountDownLatch(1);
+        final CountDownLatch release = new CountDownLatch(1);
+        StubHttpClient client = new StubHttpClient(request -> {
+            entered.countDown();
+            try {
+                release.await();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            return StubHttpClient.response(200, "ok");
+        });
+        try {
+            Thread holder = new Thread(() -> {
+                try {
+                    HttpPolicies.execute(client, new HttpGet("http://" + host + "/"), ResponseHandlers.ofString());
+                } catch (IOException e) {
+                    throw new IllegalStateException(e);
+                }
+            });
+            holder.start();
+            Assert.assertTrue(entered.await(5, TimeUnit.SECONDS));
+            try {
+                HttpPolicies.execute(client, new HttpGet("http://" + host + "/"), ResponseHandlers.ofString());
+                Assert.fail();
+            } catch (HttpException e) {
+                Assert.assertTrue(e.getMessage().startsWith("bulkhead full"));
+            }
+            release.countDown();
+            holder.join();
+            HttpPolicyStats stats = HttpPolicies.getStats().get(host);
+            Assert.assertEquals(1, stats.getBulkheadRejected());
+            Assert.assertEquals(0, stats.getActiveCalls());
+            // 许可已释放
+            Assert.assertEquals("ok", HttpPolicies.execute(client, new HttpGet("http://" + host + "/"), ResponseHandlers.ofString()));
+        } finally {
+            release.countDown();
+            HttpPolicies.register(host, null);
+        }
+    }
+
+    @Test
+    public void testBackoffInterruptedRecordsFailure() {
+        final String host = "interrupt.test";
+        HttpPolicies.register(host, new HttpPolicy().setMaxRetries(1).setRetryBackoff(60000L)
+                .setCircuitBreakerEnabled(true).setMinimumCalls(1).setFailureRateThreshold(100));
+        StubHttpClient failing = new StubHttpClient(request -> {
+            throw new ConnectException("refused");
+        });
+        try {
+            Thread.currentThread().interrupt();
+            try {
+                HttpPolicies.execute(failing, new HttpGet("http://" + host + "/"), ResponseHandlers.ofString());
+                Assert.fail();
+            } catch (IOException e) {
+                Assert.assertEquals("retry interrupted", e.getMessage());
+            }
+            Assert.assertTrue(Thread.interrupted());
+            HttpPolicyStats stats = HttpPolicies.getStats().get(host);
+            Assert.assertEquals(1, stats.getFailures());
+            Assert.assertEquals(HttpCircuitBreaker.State.OPEN.name(), stats.getCircuitState());
+        } finally {
+            Thread.interrupted();
+            HttpPolicies.register(host, null);
+        }
+    }
+}
@@ -0,0 +1,116 @@
+package cn.zm1001.util.common.http;
+
+import com.sun.net.httpserver.HttpServer;
+import org.junit.AfterClass;
+import org.junit.Assert;
+import org.junit.BeforeClass;
+import org.junit.Test;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Executors;
+
+/**
+ * @Desc 多副本请求测试：按延迟排序、对冲请求及失败切换，使用本地HTTP服务
+ * @Author Dongd_Zhou
+ */
+public class HttpReplicasTest {
+    private static HttpServer fast;
+    private static HttpServer slow;
+    private static HttpServer failing;
+
+    @BeforeClass
+    public static void start() throws IOException {
+        fast = server(200, 0L, "fast");
+        slow = server(200, 1000L, "slow");
+        failing = server(503, 0L, "failing");
+    }
+
+    @AfterClass
+    public static void stop() {
+        fast.stop(0);
+        slow.stop(0);
+        failing.stop(0);
+    }
+
+    private static HttpServer server(int status, long delay, String body) throws IOException {
+        HttpServer server = HttpServer.create(new InetSocketAddress("127.0.0.1", 0), 0);
+        server.createContext("/", exchange -> {
+            try {
+                Thread.sleep(delay);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            byte[] bytes = body.getBytes(StandardCharsets.UTF_8);
+            exchange.sendResponseHeaders(status, bytes.length);
+            try (OutputStream out = exchange.getResponseBody()) {
+                out.write(bytes);
+            } catch (IOException e) {
+                // 被取消的对冲请求已断开连接
+            }
+            exchange.close();
+        });
+        // 慢响应时仍可同时处理其他请求
+        server.setExecutor(Executors.newCachedThreadPool());
+        server.start();
+        return server;
+    }
+
+    private static String url(HttpServer server) {
+        return "http://127.0.0.1:" + server.getAddress().getPort();
+    }
+
+    private static List<String> ranked(HttpReplicas replicas) {
+        List<String> urls = new ArrayList<>();
+        for (HttpReplicas.Replica replica : replicas.ranked()) {
+            urls.add(replica.baseUrl);
+        }
+        return urls;
+    }
+
+    @Test
+    public void testRankUnsampledAsMedian() {
+        HttpReplicas replicas = new HttpReplicas(HttpHedgeConfig.defaultConfig(), Arrays.asList("a", "b", "c", "d"));
+        // 均无样本时保持配置顺序
+        Assert.assertEquals(Arrays.asList("a", "b", "c", "d"), ranked(replicas));
+        List<HttpReplicas.Replica> list = replicas.ranked();
+        list.get(1).recorder.record(100);
+        list.get(2).recorder.record(10);
+        list.get(3).recorder.record(50);
+        // a无样本，按中位数50排序，不排在已验证更快的c之前
+        Assert.assertEquals(Arrays.asList("c", "a", "d", "b"), ranked(replicas));
+    }
+
+    @Test
+    public void testHedge() {
+        HttpReplicas replicas = new HttpReplicas(HttpHedgeConfig.defaultConfig().setHedgeDelay(50L),
+                Arrays.asList(url(slow), url(fast)));
+        final long start = System.currentTimeMillis();
+        Assert.assertEquals("fast", replicas.doGet("/", null));
+        Assert.assertTrue(System.currentTimeMillis() - start < 1000L);
+        Map<String, HttpLatencyStats> stats = replicas.getStats();
+        Assert.assertEquals(1, stats.get(url(fast)).getCount());
+        // 被取消的慢请求不计入统计
+        Assert.assertEquals(0, stats.get(url(slow)).getCount());
+    }
+
+    @Test
+    public void testFailover() {
+        HttpReplicas replicas = new HttpReplicas(HttpHedgeConfig.defaultConfig().setMaxHedges(0),
+                Arrays.asList(url(failing), url(fast)));
+        Assert.assertEquals("fast", replicas.doGet("/", null));
+        Map<String, HttpLatencyStats> stats = replicas.getStats();
+        Assert.assertEquals(1, stats.get(url(failing)).getErrors());
+        // 失败按惩罚延迟计入，排在后面
+        Assert.assertEquals(url(fast), ranked(replicas).get(0));
+        // 全部失败时返回最后的5xx响应
+        HttpReplicas onlyFailing = new HttpReplicas(HttpHedgeConfig.defaultConfig(), Arrays.asList(url(failing)));
+        Assert.assertEquals(503, onlyFailing.getAsync("/", null).join().getStatusCode());
+    }
+}
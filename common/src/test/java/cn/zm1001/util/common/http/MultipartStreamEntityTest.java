@@ -0,0 +1,138 @@
+package cn.zm1001.util.common.http;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * @Desc 流式multipart请求体测试：按boundary解析输出，校验分段边界及内容
+ * @Author Dongd_Zhou
+ */
+public class MultipartStreamEntityTest {
+
+    @Test
+    public void testFraming() throws IOException {
+        Path file = Files.createTempFile("multipart", ".bin");
+        byte[] fileBytes = new byte[20000];
+        for (int i = 0; i < fileBytes.length; i++) {
+            fileBytes[i] = (byte) i;
+        }
+        Files.write(file, fileBytes);
+        try {
+            MultipartStreamEntity entity = new MultipartStreamEntity()
+                    .addText("type", "COMMON")
+                    .addBytes("bytes", "--\r\n".getBytes(StandardCharsets.UTF_8), "a.txt")
+                    .addFile("file", file)
+                    .addStream("stream", new ByteArrayInputStream(new byte[10000]), "s.bin", 10000);
+            Assert.assertFalse(entity.isChunked());
+            ByteArrayOutputStream out = new ByteArrayOutputStream();
+            entity.writeTo(out);
+            byte[] body = out.toByteArray();
+            Assert.assertEquals(entity.getContentLength(), body.length);
+
+            List<byte[]> parts = parse(body, boundary(entity));
+            Assert.assertEquals(4, parts.size());
+            assertPart(parts.get(0), "name=\"type\"", "COMMON".getBytes(StandardCharsets.UTF_8));
+            assertPart(parts.get(1), "filename=\"a.txt\"", "--\r\n".getBytes(StandardCharsets.UTF_8));
+            assertPart(parts.get(2), "filename=\"" + file.getFileName() + "\"", fileBytes);
+            assertPart(parts.get(3), "name=\"stream\"", new byte[10000]);
+        } finally {
+            Files.delete(file);
+        }
+    }
+
+    @Test
+    public void testUnknownLength() throws IOException {
+        MultipartStreamEntity entity = new MultipartStreamEntity()
+                .addStream("stream", new ByteArrayInputStream(new byte[100]), null, -1);
+        Assert.assertTrue(entity.isChunked());
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        entity.writeTo(out);
+        List<byte[]> parts = parse(out.toByteArray(), boundary(entity));
+        Assert.assertEquals(1, parts.size());
+        assertPart(parts.get(0), "name=\"stream\"", new byte[100]);
+    }
+
+    @Test
+    public void testDeclaredLengthMismatch() {
+        for (int actual : new int[]{99, 101}) {
+            MultipartStreamEntity entity = new MultipartStreamEntity()
+                    .addStream("stream", new ByteArrayInputStream(new byte[actual]), null, 100);
+            ByteArrayOutputStream out = new ByteArrayOutputStream();
+            try {
+                entity.writeTo(out);
+                Assert.fail("actual " + actual);
+            } catch (IOException e) {
+                Assert.assertTrue(e.getMessage(), e.getMessage().contains("declared length 100"));
+            }
+            // 不写出超过声明长度的内容
+            Assert.assertTrue(out.size() <= entity.getContentLength());
+        }
+    }
+
+    private static String boundary(MultipartStreamEntity entity) {
+        String contentType = entity.getContentType().getValue();
+        return contentType.substring(contentType.indexOf("boundary=") + 9);
+    }
+
+    /**
+     * 按"--boundary\r\n"分割分段，以"--boundary--\r\n"结束，返回各分段（头部及内容，不含结尾的CRLF）
+     */
+    private static List<byte[]> parse(byte[] body, String boundary) {
+        byte[] delimiter = ("--" + boundary).getBytes(StandardCharsets.US_ASCII);
+        List<byte[]> parts = new ArrayList<>();
+        int position = indexOf(body, delimiter, 0);
+        Assert.assertEquals(0, position);
+        while (true) {
+            position += delimiter.length;
+            if (body[position] == '-' && body[position + 1] == '-') {
+                Assert.assertEquals(position + 4, body.length);
+                Assert.assertEquals('\r', body[position + 2]);
+                Assert.assertEquals('\n', body[position + 3]);
+                return parts;
+            }
+            Assert.assertEquals('\r', body[position]);
+            Assert.assertEquals('\n', body[position + 1]);
+            int start = position + 2;
+            int next = indexOf(body, delimiter, start);
+            Assert.assertTrue(next > 0);
+            Assert.assertEquals('\r', body[next - 2]);
+            Assert.assertEquals('\n', body[next - 1]);
+            byte[] part = new byte[next - 2 - start];
+            System.arraycopy(body, start, part, 0, part.length);
+            parts.add(part);
+            position = next;
+        }
+    }
+
+    private static void assertPart(byte[] part, String disposition, byte[] content) {
+        int split = indexOf(part, "\r\n\r\n".getBytes(StandardCharsets.US_ASCII), 0);
+        String header = new String(part, 0, split, StandardCharsets.UTF_8);
+        Assert.assertTrue(header, header.startsWith("Content-Disposition: form-data; "));
+        Assert.assertTrue(header, header.contains(disposition));
+        byte[] actual = new byte[part.length - split - 4];
+        System.arraycopy(part, split + 4, actual, 0, actual.length);
+        Assert.assertArrayEquals(content, actual);
+    }
+
+    private static int indexOf(byte[] data, byte[] target, int from) {
+        outer:
+        for (int i = from; i <= data.length - target.length; i++) {
+            for (int j = 0; j < target.length; j++) {
+                if (data[i + j] != target[j]) {
+                    continue outer;
+                }
+            }
+            return i;
+        }
+        return -1;
+    }
+}
@@ -0,0 +1,76 @@
+package cn.zm1001.util.common.http;
+
+import org.apache.http.HttpHost;
+import org.apache.http.HttpRequest;
+import org.apache.http.HttpVersion;
+import org.apache.http.client.methods.CloseableHttpResponse;
+import org.apache.http.entity.ByteArrayEntity;
+import org.apache.http.impl.client.CloseableHttpClient;
+import org.apache.http.message.BasicHttpResponse;
+import org.apache.http.protocol.HttpContext;
+
+import java.io.IOException;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * @Desc 测试用客户端，不发送网络请求，由回调返回响应或抛出异常
+ * @Author Dongd_Zhou
+ */
+@SuppressWarnings("deprecation")
+class StubHttpClient extends CloseableHttpClient {
+    interface Handler {
+        CloseableHttpResponse handle(HttpRequest request) throws IOException;
+    }
+
+    private final Handler handler;
+    final AtomicInteger requests = new AtomicInteger();
+
+    StubHttpClient(Handler handler) {
+        this.handler = handler;
+    }
+
+    /**
+     * 构造响应
+     *
+     * @param status 状态码
+     * @param body   响应体，为null时无响应体
+     * @return 响应
+     */
+    static CloseableHttpResponse response(int status, String body) {
+        final StubResponse response = new StubResponse(status);
+        if (null != body) {
+            response.setEntity(new ByteArrayEntity(body.getBytes()));
+        }
+        return response;
+    }
+
+    @Override
+    protected CloseableHttpResponse doExecute(HttpHost target, HttpRequest request, HttpContext context) throws IOException {
+        requests.incrementAndGet();
+        return handler.handle(request);
+    }
+
+    @Override
+    public org.apache.http.params.HttpParams getParams() {
+        throw new UnsupportedOperationException();
+    }
+
+    @Override
+    public org.apache.http.conn.ClientConnectionManager getConnectionManager() {
+        throw new UnsupportedOperationException();
+    }
+
+    @Override
+    public void close() {
+    }
+
+    static class StubResponse extends BasicHttpResponse implements CloseableHttpResponse {
+        StubResponse(int status) {
+            super(HttpVersion.HTTP_1_1, status, null);
+        }
+
+        @Override
+        public void close() {
+        }
+    }
+}
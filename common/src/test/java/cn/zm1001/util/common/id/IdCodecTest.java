@@ -0,0 +1,65 @@
+package cn.zm1001.util.common.id;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+/**
+ * @Desc ID编码测试
+ * @Author Dongd_Zhou
+ */
+public class IdCodecTest {
+
+    @Test
+    public void testBase62() {
+        Assert.assertEquals("0", IdCodec.toBase62(0L));
+        Assert.assertEquals("z", IdCodec.toBase62(61L));
+        Assert.assertEquals("10", IdCodec.toBase62(62L));
+        Assert.assertEquals("LygHa16AHYF", IdCodec.toBase62(-1L));
+        Assert.assertEquals(-1L, IdCodec.fromBase62("LygHa16AHYF"));
+        Assert.assertEquals("0000000000z", IdCodec.toSortableBase62(61L));
+        Assert.assertEquals("id-10", IdCodec.appendBase62(new StringBuilder("id-"), 62L).toString());
+        char[] chars = new char[IdCodec.BASE62_LENGTH + 1];
+        Assert.assertEquals(2, IdCodec.getBase62Chars(62L, chars, 1));
+        Assert.assertEquals("10", new String(chars, 1, 2));
+        try {
+            IdCodec.fromBase62("LygHa16AHYG");
+            Assert.fail();
+        } catch (IllegalArgumentException e) {
+            // 超过64位
+        }
+        try {
+            IdCodec.fromBase62("1-");
+            Assert.fail();
+        } catch (IllegalArgumentException e) {
+            // 非法字符
+        }
+        SnowflakeIdGenerator generator = new SnowflakeIdGenerator(1, 1);
+        String last = IdCodec.toSortableBase62(generator.nextId());
+        for (int i = 0; i < 10000; i++) {
+            long id = generator.nextId();
+            Assert.assertEquals(id, IdCodec.fromBase62(IdCodec.toBase62(id)));
+            String sortable = IdCodec.toSortableBase62(id);
+            Assert.assertTrue(sortable.compareTo(last) > 0);
+            last = sortable;
+        }
+    }
+
+    @Test
+    public void testCrockford() {
+        Assert.assertEquals("00000000000000000000000000", IdCodec.toCrockford(0L, 0L));
+        Assert.assertEquals("7ZZZZZZZZZZZZZZZZZZZZZZZZZ", IdCodec.toCrockford(-1L, -1L));
+        long[] value = IdCodec.fromCrockford("01ARYZ6S41TSV4RRFFQ69G5FAV");
+        Assert.assertEquals("01ARYZ6S41TSV4RRFFQ69G5FAV", IdCodec.toCrockford(value[0], value[1]));
+        // 不区分大小写，I/L视为1，O视为0
+        Assert.assertArrayEquals(value, IdCodec.fromCrockford("01aryz6s4itsv4rrffq69g5fav"));
+        Assert.assertArrayEquals(value, IdCodec.fromCrockford("O1ARYZ6S4LTSV4RRFFQ69G5FAV"));
+        for (String invalid : new String[]{"80000000000000000000000000", "0000000000000000000000000", "0000000000000000000000000U"}) {
+            try {
+                IdCodec.fromCrockford(invalid);
+                Assert.fail(invalid);
+            } catch (IllegalArgumentException e) {
+                // 超过128位、长度不是26或包含非法字符
+            }
+        }
+    }
+}
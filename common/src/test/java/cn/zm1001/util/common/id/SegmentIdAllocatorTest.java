@@ -0,0 +1,94 @@
+package cn.zm1001.util.common.id;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * @Desc 号段ID分配器测试
+ * @Author Dongd_Zhou
+ */
+public class SegmentIdAllocatorTest {
+
+    @Test
+    public void testSequential() {
+        final AtomicLong max = new AtomicLong(1);
+        SegmentIdAllocator allocator = new SegmentIdAllocator((key, step) -> max.getAndAdd(step), "order",
+                SegmentConfig.defaultConfig().setStep(100).setMinStep(100));
+        for (long expected = 1; expected <= 10000; expected++) {
+            Assert.assertEquals(expected, allocator.next());
+        }
+        SegmentStats stats = allocator.getStats();
+        Assert.assertTrue(stats.getPrefetches() > 0);
+        // 号段很快用完，长度翻倍
+        Assert.assertTrue(stats.getStep() > 100);
+    }
+
+    @Test
+    public void testPrefetchRetry() throws InterruptedException {
+        final AtomicLong max = new AtomicLong(1);
+        final List<String> threads = Collections.synchronizedList(new ArrayList<>());
+        SegmentIdAllocator allocator = new SegmentIdAllocator((key, step) -> {
+            threads.add(Thread.currentThread().getName());
+            // 首次预取失败
+            if (threads.size() == 2) {
+                throw new IllegalStateException("store unavailable");
+            }
+            return max.getAndAdd(step);
+        }, "order", SegmentConfig.defaultConfig().setStep(100).setMinStep(100).setMaxStep(100).setPrefetchRatio(0.5D));
+        long expected = 1;
+        for (; expected <= 51; expected++) {
+            Assert.assertEquals(expected, allocator.next());
+        }
+        for (int i = 0; i < 500 && allocator.getStats().getPrefetchFailures() == 0; i++) {
+            Thread.sleep(10L);
+        }
+        Assert.assertEquals(1, allocator.getStats().getPrefetchFailures());
+        // 超过预取位置后重新预取，号段用完时切换到预取的号段，不在发放ID的线程同步分配
+        for (; expected <= 250; expected++) {
+            Assert.assertEquals(expected, allocator.next());
+        }
+        // 初始同步分配、预取失败、重新预取、第二个号段的预取
+        Assert.assertEquals(4, threads.size());
+        for (String thread : threads.subList(1, threads.size())) {
+            Assert.assertTrue(thread, thread.startsWith("id-segment-loader-"));
+        }
+        SegmentStats stats = allocator.getStats();
+        Assert.assertEquals(3, stats.getLoads());
+        Assert.assertEquals(3, stats.getPrefetches());
+    }
+
+    @Test
+    public void testConcurrentUnique() throws IOException, InterruptedException {
+        Path dir = Files.createTempDirectory("segment");
+        final SegmentIdAllocator first = new SegmentIdAllocator(new FileSegmentStore(dir), "order",
+                SegmentConfig.defaultConfig().setStep(1000));
+        final SegmentIdAllocator second = new SegmentIdAllocator(new FileSegmentStore(dir), "order",
+                SegmentConfig.defaultConfig().setStep(1000));
+        final int threads = 8;
+        final int perThread = 20000;
+        final Set<Long> ids = ConcurrentHashMap.newKeySet();
+        final CountDownLatch latch = new CountDownLatch(threads);
+        for (int t = 0; t < threads; t++) {
+            final SegmentIdAllocator allocator = t % 2 == 0 ? first : second;
+            new Thread(() -> {
+                for (int i = 0; i < perThread; i++) {
+                    ids.add(allocator.next());
+                }
+                latch.countDown();
+            }).start();
+        }
+        latch.await();
+        Assert.assertEquals(threads * perThread, ids.size());
+    }
+}
@@ -0,0 +1,265 @@
+package cn.zm1001.util.common.id;
+
+import cn.zm1001.util.common.exception.IdException;
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * @Desc 无锁雪花算法ID生成器测试
+ * @Author Dongd_Zhou
+ */
+public class SnowflakeIdGeneratorTest {
+
+    @Test
+    public void testNextIdIncreasing() {
+        SnowflakeIdGenerator generator = new SnowflakeIdGenerator(3, 2);
+        long last = generator.nextId();
+        for (int i = 0; i < 100000; i++) {
+            long id = generator.nextId();
+            Assert.assertTrue(id > last);
+            Assert.assertEquals(3L, (id >> 12) & 31);
+            Assert.assertEquals(2L, (id >> 17) & 31);
+            last = id;
+        }
+    }
+
+    @Test
+    public void testNextIds() {
+        SnowflakeIdGenerator generator = new SnowflakeIdGenerator(1, 1);
+        long before = generator.nextId();
+        long[] ids = generator.nextIds(10000);
+        Assert.assertEquals(10000, ids.length);
+        Assert.assertTrue(ids[0] > before);
+        for (int i = 1; i < ids.length; i++) {
+            Assert.assertTrue(ids[i] > ids[i - 1]);
+        }
+        Assert.assertTrue(generator.nextId() > ids[ids.length - 1]);
+    }
+
+    @Test
+    public void testConcurrentUnique() throws InterruptedException {
+        final SnowflakeIdGenerator generator = new SnowflakeIdGenerator(1, 1);
+        final int threads = 8;
+        final int perThread = 50000;
+        final Set<Long> ids = ConcurrentHashMap.newKeySet();
+        final CountDownLatch latch = new CountDownLatch(threads);
+        for (int t = 0; t < threads; t++) {
+            new Thread(() -> {
+                for (int i = 0; i < perThread; i++) {
+                    ids.add(generator.nextId());
+                }
+                latch.countDown();
+            }).start();
+        }
+        latch.await();
+        Assert.assertEquals(threads * perThread, ids.size());
+    }
+
+    @Test
+    public void testCustomLayout() {
+        IdLayout layout = IdLayout.of(0, 8, 10);
+        Assert.assertEquals(45, layout.getTimestampBits());
+        SnowflakeIdGenerator generator = new SnowflakeIdGenerator(SnowflakeConfig.defaultConfig()
+                .setLayout(layout).setWorkerId(200).setDatacenterId(0));
+        long[] ids = generator.nextIds(2048);
+        for (long id : ids) {
+            Assert.assertEquals(200L, (id >> 10) & 255);
+        }
+        Assert.assertTrue(ids[1024] >> 18 > ids[0] >> 18);
+    }
+
+    @Test
+    public void testSmallRollback() {
+        FakeClock clock = new FakeClock();
+        SnowflakeIdGenerator generator = new SnowflakeIdGenerator(SnowflakeConfig.defaultConfig(), clock);
+        clock.advance(999);
+        long last = generator.nextId();
+        // 校准时系统时钟回拨500ms，不超过容忍值，逻辑时钟不回退
+        clock.advance(1);
+        clock.rollback(500);
+        for (int i = 0; i < 3000; i++) {
+            long id = generator.nextId();
+            Assert.assertTrue(id > last);
+            last = id;
+            if (i % 100 == 0) {
+                clock.advance(1);
+            }
+        }
+        Assert.assertEquals(1000L + 30, generator.getDecoder().timestamp(last) - clock.start);
+        SnowflakeStats stats = generator.getStats();
+        Assert.assertEquals(1, stats.getRollbacks());
+        Assert.assertEquals(500, stats.getMaxRollbackMillis());
+        Assert.assertEquals(0, stats.getRejected());
+    }
+
+    @Test
+    public void testLargeRollback() {
+        FakeClock clock = new FakeClock();
+        SnowflakeIdGenerator generator = new SnowflakeIdGenerator(SnowflakeConfig.defaultConfig(), clock);
+        clock.advance(999);
+        long last = generator.nextId();
+        // 回拨2000ms，超过容忍值1000ms，拒绝生成直到时钟追上
+        clock.advance(1);
+        clock.rollback(2000);
+        try {
+            generator.nextId();
+            Assert.fail();
+        } catch (IdException e) {
+            Assert.assertEquals(1, generator.getStats().getRejected());
+        }
+        clock.advance(2000);
+        Assert.assertTrue(generator.nextId() > last);
+    }
+
+    @Test
+    public void testBorrowBounded() throws InterruptedException {
+        FakeClock clock = new FakeClock();
+        final SnowflakeIdGenerator generator = new SnowflakeIdGenerator(SnowflakeConfig.defaultConfig().setMaxBorrow(10), clock);
+        // 时钟不动时最多借用10ms：当前毫秒及之后10ms的序列号
+        long[] ids = generator.nextIds(11 * 4096);
+        SnowflakeIdDecoder decoder = generator.getDecoder();
+        Assert.assertEquals(10L, decoder.timestamp(ids[ids.length - 1]) - decoder.timestamp(ids[0]));
+        try {
+            generator.nextIds(11 * 4096 + 1);
+            Assert.fail();
+        } catch (IllegalArgumentException e) {
+            // 超过借用上限内的序列号数
+        }
+        final AtomicLong next = new AtomicLong();
+        Thread waiting = new Thread(() -> next.set(generator.nextId()));
+        waiting.start();
+        waiting.join(200L);
+        // 借用已达上限，等待时钟追上
+        Assert.assertTrue(waiting.isAlive());
+        clock.advance(1);
+        waiting.join(5000L);
+        Assert.assertFalse(waiting.isAlive());
+        Assert.assertEquals(11L, decoder.timestamp(next.get()) - decoder.timestamp(ids[0]));
+        Assert.assertTrue(generator.getStats().getBorrowWaits() > 0);
+    }
+
+    /**
+     * 手动推进的时钟，系统时钟可回拨，单调时钟只前进
+     */
+    private static class FakeClock implements SnowflakeIdGenerator.Clock {
+        private final long start = 1600000000000L;
+        private volatile long millis = start;
+        private volatile long nanos;
+
+        void advance(long ms) {
+            millis += ms;
+            nanos += TimeUnit.MILLISECONDS.toNanos(ms);
+        }
+
+        void rollback(long ms) {
+            millis -= ms;
+        }
+
+        @Override
+        public long currentTimeMillis() {
+            return millis;
+        }
+
+        @Override
+        public long nanoTime() {
+            return nanos;
+        }
+    }
+
+    @Test
+    public void testLeaseAssigner() throws IOException {
+        Path dir = Files.createTempDirectory("worker-lease");
+        IdLayout layout = IdLayout.of(0, 1, 12);
+        LeaseWorkerIdAssigner first = new LeaseWorkerIdAssigner(new FileLockLeaseStore(dir), 3000);
+        LeaseWorkerIdAssigner second = new LeaseWorkerIdAssigner(new FileLockLeaseStore(dir), 3000);
+        LeaseWorkerIdAssigner third = new LeaseWorkerIdAssigner(new FileLockLeaseStore(dir), 3000);
+        SnowflakeIdGenerator a = new SnowflakeIdGenerator(SnowflakeConfig.defaultConfig().setLayout(layout).setWorkerIdAssigner(first));
+        SnowflakeIdGenerator b = new SnowflakeIdGenerator(SnowflakeConfig.defaultConfig().setLayout(layout).setWorkerIdAssigner(second));
+        Assert.assertNotEquals(a.getWorkerId(), b.getWorkerId());
+        try {
+            third.assign(layout.maxNodeId());
+            Assert.fail();
+        } catch (IdException e) {
+            // 两个id均已租用
+        }
+        a.close();
+        Assert.assertEquals(a.getWorkerId(), third.assign(layout.maxNodeId()));
+        try {
+            a.nextId();
+            Assert.fail();
+        } catch (IdException e) {
+            // 已释放
+        }
+        Assert.assertTrue(b.nextId() > 0);
+        b.close();
+        third.release();
+    }
+
+    @Test
+    public void testLeaseRenewal() throws InterruptedException {
+        final AtomicBoolean available = new AtomicBoolean(true);
+        LeaseWorkerIdAssigner assigner = new LeaseWorkerIdAssigner(new WorkerIdLeaseStore() {
+            @Override
+            public boolean tryAcquire(long nodeId, String owner, long ttl) {
+                return true;
+            }
+
+            @Override
+            public boolean renew(long nodeId, String owner, long ttl) {
+                if (!available.get()) {
+                    throw new IllegalStateException("store unavailable");
+                }
+                return true;
+            }
+
+            @Override
+            public void release(long nodeId, String owner) {
+            }
+        }, 60);
+        SnowflakeIdGenerator generator = new SnowflakeIdGenerator(SnowflakeConfig.defaultConfig().setWorkerIdAssigner(assigner));
+        // 续租成功时超过租期仍有效
+        Thread.sleep(200L);
+        Assert.assertTrue(generator.nextId() > 0);
+        // 存储不可用时超过租期未续租，租约视为丢失
+        available.set(false);
+        Thread.sleep(200L);
+        Assert.assertFalse(assigner.isValid());
+        try {
+            generator.nextId();
+            Assert.fail();
+        } catch (IdException e) {
+            Assert.assertEquals(1, generator.getStats().getRejected());
+        }
+        generator.close();
+    }
+
+    @Test
+    public void testDecoder() {
+        SnowflakeIdGenerator generator = new SnowflakeIdGenerator(SnowflakeConfig.defaultConfig()
+                .setLayout(IdLayout.of(3, 7, 10)).setWorkerId(100).setDatacenterId(5));
+        SnowflakeIdDecoder decoder = generator.getDecoder();
+        long start = System.currentTimeMillis();
+        long[] ids = generator.nextIds(3);
+        Assert.assertEquals(100L, decoder.workerId(ids[0]));
+        Assert.assertEquals(5L, decoder.datacenterId(ids[0]));
+        Assert.assertEquals((5L << 7) | 100L, decoder.nodeId(ids[0]));
+        Assert.assertEquals(decoder.sequence(ids[0]) + 2, decoder.sequence(ids[2]));
+        long timestamp = decoder.timestamp(ids[0]);
+        Assert.assertTrue(Math.abs(timestamp - start) < 100);
+        Assert.assertTrue(decoder.minId(timestamp) <= ids[0] && ids[0] <= decoder.maxId(timestamp));
+        Assert.assertEquals(decoder.maxId(timestamp) + 1, decoder.minId(timestamp + 1));
+
+        long id = IdUtils.snowflakeId();
+        Assert.assertEquals(1L, SnowflakeIdDecoder.defaultDecoder().workerId(id));
+    }
+}
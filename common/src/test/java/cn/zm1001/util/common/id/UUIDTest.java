@@ -0,0 +1,40 @@
+package cn.zm1001.util.common.id;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+
+/**
+ * @Desc UUID及NanoId字符串编码测试
+ * @Author Dongd_Zhou
+ */
+public class UUIDTest {
+
+    @Test
+    public void testToString() {
+        for (int i = 0; i < 1000; i++) {
+            java.util.UUID expected = java.util.UUID.randomUUID();
+            UUID uuid = new UUID(expected.getMostSignificantBits(), expected.getLeastSignificantBits());
+            Assert.assertEquals(expected.toString(), uuid.toString());
+            Assert.assertEquals(expected.toString().replace("-", ""), uuid.toString(true));
+            Assert.assertEquals(uuid, UUID.fromString(uuid.toString()));
+            Assert.assertEquals("id=" + expected, uuid.appendTo(new StringBuilder("id="), false).toString());
+            ByteBuffer buffer = uuid.writeTo(ByteBuffer.allocate(32), true);
+            Assert.assertEquals(uuid.toString(true), new String(buffer.array(), StandardCharsets.US_ASCII));
+        }
+    }
+
+    @Test
+    public void testNanoId() {
+        for (int i = 0; i < 1000; i++) {
+            Assert.assertTrue(NanoIdUtils.fastNanoId().matches("[\\w-]{21}"));
+            Assert.assertTrue(NanoIdUtils.randomNanoId().matches("[\\w-]{21}"));
+            Assert.assertTrue(NanoIdUtils.appendFastNanoId(new StringBuilder("t-")).toString().matches("t-[\\w-]{21}"));
+            Assert.assertTrue(NanoIdUtils.randomNanoId(NanoIdUtils.getRandom(), "abc".toCharArray(), 40).matches("[abc]{40}"));
+        }
+        ByteBuffer buffer = NanoIdUtils.writeFastNanoId(ByteBuffer.allocate(21));
+        Assert.assertTrue(new String(buffer.array(), StandardCharsets.US_ASCII).matches("[\\w-]{21}"));
+    }
+}
@@ -0,0 +1,46 @@
+package cn.zm1001.util.common.id;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+/**
+ * @Desc ULID及时间有序UUID测试
+ * @Author Dongd_Zhou
+ */
+public class UlidTest {
+
+    @Test
+    public void testUlidMonotonic() {
+        long start = System.currentTimeMillis();
+        Ulid last = Ulid.nextUlid();
+        for (int i = 0; i < 100000; i++) {
+            Ulid ulid = Ulid.nextUlid();
+            String value = ulid.toString();
+            Assert.assertEquals(26, value.length());
+            Assert.assertTrue(ulid.compareTo(last) > 0);
+            Assert.assertTrue(value.compareTo(last.toString()) > 0);
+            Assert.assertEquals(ulid, Ulid.fromString(value.toLowerCase()));
+            last = ulid;
+        }
+        Assert.assertTrue(last.timestamp() >= start && last.timestamp() <= System.currentTimeMillis() + 1);
+        Assert.assertEquals(1469918176385L, Ulid.fromString("01ARYZ6S41TSV4RRFFQ69G5FAV").timestamp());
+    }
+
+    @Test
+    public void testTimeOrderedUUID() {
+        long start = System.currentTimeMillis();
+        UUID last = UUID.timeOrderedUUID();
+        for (int i = 0; i < 100000; i++) {
+            UUID uuid = UUID.timeOrderedUUID();
+            Assert.assertEquals(7, uuid.version());
+            Assert.assertEquals(2, uuid.variant());
+            Assert.assertTrue(uuid.compareTo(last) > 0);
+            Assert.assertTrue(uuid.toString().compareTo(last.toString()) > 0);
+            last = uuid;
+        }
+        long timestamp = IdUtils.uuidTimestamp(last.toString());
+        Assert.assertTrue(timestamp >= start && timestamp <= System.currentTimeMillis() + 1);
+        Assert.assertTrue(UUID.minTimeOrderedUUID(start).compareTo(last) < 0);
+        Assert.assertTrue(UUID.maxTimeOrderedUUID(System.currentTimeMillis() + 1).compareTo(last) > 0);
+    }
+}
@@ -0,0 +1,76 @@
+package cn.zm1001.util.common.json;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.io.ByteArrayInputStream;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * @Desc Json路径提取测试
+ * @Author Dongd_Zhou
+ */
+public class JsonExtractorTest {
+    private static final String JSON = "{\"code\":200,\"msg\":\"ok\",\"data\":{\"token\":\"abc\",\"user\":{\"id\":7,\"tags\":[\"a\",\"b\"]},"
+            + "\"items\":[{\"id\":1},{\"id\":2}]},\"extra\":[1,2,3]}";
+
+    @Test
+    public void testExtract() {
+        Map<String, Object> values = JsonExtractor.builder()
+                .path("/code", Integer.class)
+                .path("/data/token", String.class)
+                .path("/data/items/1/id", Long.class)
+                .path("/data/user/tags", List.class)
+                .path("/missing", String.class)
+                .build().extract(JSON);
+        Assert.assertEquals(200, values.get("/code"));
+        Assert.assertEquals("abc", values.get("/data/token"));
+        Assert.assertEquals(2L, values.get("/data/items/1/id"));
+        Assert.assertEquals("b", ((List<?>) values.get("/data/user/tags")).get(1));
+        Assert.assertFalse(values.containsKey("/missing"));
+
+        Assert.assertEquals("abc", JsonExtractor.extract(JSON, "/data/token", String.class));
+        // 父路径及子路径同时提取
+        values = JsonExtractor.of("/data/user", "/data/user/id").extract(JSON.getBytes());
+        Assert.assertEquals(7, ((Map<?, ?>) values.get("/data/user")).get("id"));
+        Assert.assertEquals(7, values.get("/data/user/id"));
+    }
+
+    @Test
+    public void testStopEarly() {
+        // 找到所有路径后不再解析，之后的非法内容不影响结果
+        String json = "{\"code\":0,\"data\":{\"token\":\"t\"}, this is not json";
+        Map<String, Object> values = JsonExtractor.of("/code", "/data/token").extract(json);
+        Assert.assertEquals(0, values.get("/code"));
+        Assert.assertEquals("t", values.get("/data/token"));
+        Assert.assertNull(JsonExtractor.of("/code", "/other").extract(json));
+
+        byte[] smile = JsonFormat.SMILE.encode(JsonExtractor.of("").extract(JSON).get(""));
+        values = JsonExtractor.of("/data/items/0/id").extract(new ByteArrayInputStream(smile), JsonFormat.SMILE);
+        Assert.assertEquals(1, values.get("/data/items/0/id"));
+    }
+
+    @Test
+    public void testSparseIndex() {
+        // 很大的数组下标不按下标分配内存
+        Map<String, Object> values = JsonExtractor.of("/extra/2000000000", "/extra/2", "/code").extract(JSON);
+        Assert.assertEquals(3, values.get("/extra/2"));
+        Assert.assertEquals(200, values.get("/code"));
+        Assert.assertFalse(values.containsKey("/extra/2000000000"));
+    }
+
+    @Test
+    public void testBuilderReuse() {
+        JsonExtractor.Builder builder = JsonExtractor.builder().path("/code", Integer.class);
+        JsonExtractor code = builder.build();
+        // 构建后继续添加路径，不影响已构建的提取器
+        builder.path("/msg", String.class).path("/code", String.class);
+        Map<String, Object> values = code.extract(JSON);
+        Assert.assertEquals(1, values.size());
+        Assert.assertEquals(200, values.get("/code"));
+        values = builder.build().extract(JSON);
+        Assert.assertEquals("200", values.get("/code"));
+        Assert.assertEquals("ok", values.get("/msg"));
+    }
+}
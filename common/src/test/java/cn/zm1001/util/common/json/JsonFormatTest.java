@@ -0,0 +1,104 @@
+package cn.zm1001.util.common.json;
+
+import com.fasterxml.jackson.core.type.TypeReference;
+import org.junit.Assert;
+import org.junit.Test;
+
+import javax.servlet.ServletOutputStream;
+import javax.servlet.WriteListener;
+import javax.servlet.http.HttpServletResponse;
+import java.io.ByteArrayOutputStream;
+import java.lang.reflect.Proxy;
+import java.util.Collections;
+import java.util.Date;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * @Desc Json及二进制Json编码测试
+ * @Author Dongd_Zhou
+ */
+public class JsonFormatTest {
+    public static class Item {
+        public long id;
+        public String name;
+        public Date createTime;
+    }
+
+    public static class ItemView {
+        public long id;
+        public Date createTime;
+    }
+
+    @Test
+    public void testRoundTrip() {
+        Item item = new Item();
+        item.id = 1L;
+        item.name = "item";
+        item.createTime = new Date(1660000000000L);
+        byte[] json = JsonFormat.JSON.encode(item);
+        for (JsonFormat format : JsonFormat.values()) {
+            byte[] bytes = format.encode(item);
+            // 未知属性忽略，与JacksonUtils配置一致
+            ItemView view = format.decode(bytes, ItemView.class);
+            Assert.assertEquals(format.name(), 1L, view.id);
+            Assert.assertEquals(format.name(), item.createTime, view.createTime);
+            if (format != JsonFormat.JSON) {
+                Assert.assertTrue(format.name(), bytes.length < json.length);
+            }
+        }
+        Map<String, Object> map = JsonFormat.SMILE.decode(JsonFormat.SMILE.encode(Collections.singletonMap("name", "")),
+                new TypeReference<Map<String, Object>>() {
+                });
+        Assert.assertEquals("", map.get("name"));
+    }
+
+    @Test
+    public void testNegotiate() {
+        Assert.assertEquals(JsonFormat.JSON, JsonFormat.negotiate(null));
+        Assert.assertEquals(JsonFormat.JSON, JsonFormat.negotiate("text/html, */*"));
+        Assert.assertEquals(JsonFormat.SMILE, JsonFormat.negotiate(JsonFormat.SMILE.accept()));
+        Assert.assertEquals(JsonFormat.CBOR, JsonFormat.negotiate("application/json;q=0.8, application/cbor"));
+        Assert.assertEquals(JsonFormat.JSON, JsonFormat.negotiate("application/cbor;q=0, application/json"));
+        Assert.assertEquals(JsonFormat.CBOR, JsonFormat.fromContentType("application/cbor"));
+        Assert.assertEquals(JsonFormat.JSON, JsonFormat.fromContentType("application/json;charset=UTF-8"));
+    }
+
+    @Test
+    public void testWriteResponse() {
+        Item item = new Item();
+        item.id = 1L;
+        item.name = "item";
+        for (JsonFormat format : JsonFormat.values()) {
+            final ByteArrayOutputStream body = new ByteArrayOutputStream();
+            final AtomicReference<String> contentType = new AtomicReference<>();
+            final ServletOutputStream out = new ServletOutputStream() {
+                @Override
+                public boolean isReady() {
+                    return true;
+                }
+
+                @Override
+                public void setWriteListener(WriteListener writeListener) {
+                }
+
+                @Override
+                public void write(int b) {
+                    body.write(b);
+                }
+            };
+            HttpServletResponse response = (HttpServletResponse) Proxy.newProxyInstance(getClass().getClassLoader(),
+                    new Class<?>[]{HttpServletResponse.class}, (proxy, method, args) -> {
+                        if ("setContentType".equals(method.getName())) {
+                            contentType.set((String) args[0]);
+                        } else if ("getOutputStream".equals(method.getName())) {
+                            return out;
+                        }
+                        return null;
+                    });
+            Assert.assertTrue(format.name(), JsonResponses.write(response, item, format));
+            Assert.assertEquals(format.name(), format, JsonFormat.fromContentType(contentType.get()));
+            Assert.assertEquals(format.name(), "item", format.decode(body.toByteArray(), Item.class).name);
+        }
+    }
+}
@@ -0,0 +1,73 @@
+package cn.zm1001.util.common.json;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.stream.IntStream;
+import java.util.stream.Stream;
+
+/**
+ * @Desc Json流式读写测试
+ * @Author Dongd_Zhou
+ */
+public class JsonStreamsTest {
+    public static class Item {
+        public int id;
+        public String name;
+    }
+
+    private static Stream<Item> items(int count) {
+        return IntStream.range(0, count).mapToObj(i -> {
+            Item item = new Item();
+            item.id = i;
+            item.name = "item-" + i;
+            return item;
+        });
+    }
+
+    @Test
+    public void testArray() {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        Assert.assertEquals(2500, JsonStreams.writeArray(out, items(2500)));
+        Assert.assertTrue(out.toString().startsWith("[{\"id\":0,\"name\":\"item-0\"},{\"id\":1"));
+
+        try (Stream<Item> stream = JsonStreams.readArray(new ByteArrayInputStream(out.toByteArray()), Item.class).stream()) {
+            Assert.assertEquals(2499L * 2500 / 2, stream.mapToLong(item -> item.id).sum());
+        }
+        Assert.assertFalse(JsonStreams.readArray(new ByteArrayInputStream("[]".getBytes()), Item.class).hasNext());
+    }
+
+    @Test
+    public void testLines() throws IOException {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        Assert.assertEquals(3, JsonStreams.writeLines(out, items(3)));
+        Assert.assertEquals("{\"id\":0,\"name\":\"item-0\"}\n{\"id\":1,\"name\":\"item-1\"}\n{\"id\":2,\"name\":\"item-2\"}\n",
+                out.toString());
+
+        byte[] lines = "{\"id\":1}\n\n{\"id\":2,\"x\":[1,2]}\r\n[3]\n".getBytes(StandardCharsets.UTF_8);
+        try (JsonStreams.JsonIterator<Object> it = JsonStreams.readLines(new ByteArrayInputStream(lines), Object.class)) {
+            Assert.assertEquals(1, ((Map<?, ?>) it.next()).get("id"));
+            Assert.assertEquals(2, ((Map<?, ?>) it.next()).get("id"));
+            Assert.assertTrue(it.hasNext());
+            Assert.assertTrue(it.next() instanceof Iterable);
+            Assert.assertFalse(it.hasNext());
+        }
+    }
+
+    @Test
+    public void testNotArray() {
+        Iterator<Item> it = null;
+        try {
+            it = JsonStreams.readArray(new ByteArrayInputStream("{\"id\":1}".getBytes()), Item.class);
+        } catch (RuntimeException e) {
+            Assert.assertTrue(e.getMessage().contains("Expected top-level json array"));
+        }
+        Assert.assertNull(it);
+    }
+}
@@ -3,7 +3,10 @@ package cn.zm1001.util.web;
 import cn.zm1001.util.common.ObjectUtils;
 import cn.zm1001.util.common.StringUtils;
 import cn.zm1001.util.common.constant.HttpStatus;
+import cn.zm1001.util.common.json.JsonFormat;
+import cn.zm1001.util.common.json.JsonResponses;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.MediaType;
 import org.springframework.web.context.request.RequestAttributes;
 import org.springframework.web.context.request.RequestContextHolder;
@@ -112,6 +115,32 @@ public class ServletUtils {
         }
     }
 
+    /**
+     * 将对象序列化直接写入响应输出流，不生成中间字符串
+     * 按当前请求的Accept选择Json、Smile、CBOR，不在请求中或未指定时为Json
+     *
+     * @param response 渲染对象
+     * @param obj      待渲染的对象
+     */
+    public static void write(HttpServletResponse response, Object obj) {
+        RequestAttributes attributes = RequestContextHolder.getRequestAttributes();
+        String accept = attributes instanceof ServletRequestAttributes
+                ? ((ServletRequestAttributes) attributes).getRequest().getHeader(HttpHeaders.ACCEPT) : null;
+        write(response, obj, JsonFormat.negotiate(accept));
+    }
+
+    /**
+     * 将对象按指定格式序列化直接写入响应输出流，不生成中间字符串
+     *
+     * @param response 渲染对象
+     * @param obj      待渲染的对象
+     * @param format   格式
+     */
+    public static void write(HttpServletResponse response, Object obj, JsonFormat format) {
+        response.setStatus(HttpStatus.SUCCESS);
+        JsonResponses.write(response, obj, format);
+    }
+
     /**
      * 是否是Ajax异步请求
      *